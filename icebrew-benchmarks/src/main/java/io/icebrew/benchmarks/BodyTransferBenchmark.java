@@ -0,0 +1,71 @@
+package io.icebrew.benchmarks;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.proxy.ProxyBufferPool;
+
+/**
+ * Copying a proxied response body through the pooled buffers, with the
+ * default buffer size, for a small module, a large module and a
+ * pre-bundled dependency
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms512m", "-Xmx512m" })
+public class BodyTransferBenchmark {
+
+    @Param({ "1024", "65536", "1048576" })
+    private int size;
+
+    private ProxyBufferPool bufferPool;
+    private ByteArrayInputStream body;
+    private OutputStream client;
+
+    @Setup
+    public void setUp(Blackhole blackhole) {
+        ViteProperties.Proxy proxy = new ViteProperties().getProxy();
+        bufferPool = new ProxyBufferPool(proxy.getBufferSize(), proxy.getMaxPooledBuffers());
+        byte[] bytes = new byte[size];
+        new Random(size).nextBytes(bytes);
+        body = new ByteArrayInputStream(bytes);
+        // Consumes what is written, so the copy cannot be optimized away
+        client = new OutputStream() {
+            @Override
+            public void write(int b) {
+                blackhole.consume(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                blackhole.consume(b);
+            }
+        };
+    }
+
+    @Benchmark
+    public long transfer() throws IOException {
+        body.reset();
+        return bufferPool.transfer(body, client);
+    }
+}
@@ -0,0 +1,85 @@
+package io.icebrew.benchmarks;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.icebrew.vite.proxy.ProxyHeaders;
+
+/**
+ * Header copying in both directions of a proxied request, with the headers a
+ * browser sends for a module import and those Vite answers with
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms512m", "-Xmx512m" })
+public class ProxyHeadersBenchmark {
+
+    private MockHttpServletRequest request;
+    private Map<String, List<String>> upstreamHeaders;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        request = new MockHttpServletRequest("GET", "/src/components/App.tsx");
+        request.addHeader("Host", "localhost:8080");
+        request.addHeader("Connection", "keep-alive");
+        request.addHeader("sec-ch-ua", "\"Chromium\";v=\"124\", \"Google Chrome\";v=\"124\", \"Not-A.Brand\";v=\"99\"");
+        request.addHeader("sec-ch-ua-mobile", "?0");
+        request.addHeader("User-Agent", "Mozilla/5.0 (X11; Linux x86_64) AppleWebKit/537.36 (KHTML, like Gecko) "
+                + "Chrome/124.0.0.0 Safari/537.36");
+        request.addHeader("sec-ch-ua-platform", "\"Linux\"");
+        request.addHeader("Accept", "*/*");
+        request.addHeader("Origin", "http://localhost:8080");
+        request.addHeader("Sec-Fetch-Site", "same-origin");
+        request.addHeader("Sec-Fetch-Mode", "cors");
+        request.addHeader("Sec-Fetch-Dest", "script");
+        request.addHeader("Referer", "http://localhost:8080/src/main.tsx");
+        request.addHeader("Accept-Encoding", "gzip, deflate, br, zstd");
+        request.addHeader("Accept-Language", "ja,en-US;q=0.9,en;q=0.8");
+        request.addHeader("Cookie", "JSESSIONID=6A1F3C0B5D2E4F7A8B9C0D1E2F3A4B5C; theme=dark");
+        request.addHeader("If-None-Match", "W/\"1a2b-3c4d5e6f7a8b9c0d\"");
+
+        upstreamHeaders = new LinkedHashMap<>();
+        upstreamHeaders.put(":status", List.of("200"));
+        upstreamHeaders.put("Access-Control-Allow-Origin", List.of("*"));
+        upstreamHeaders.put("Content-Type", List.of("text/javascript"));
+        upstreamHeaders.put("Cache-Control", List.of("no-cache"));
+        upstreamHeaders.put("Etag", List.of("W/\"1a2b-3c4d5e6f7a8b9c0d\""));
+        upstreamHeaders.put("Date", List.of("Wed, 15 May 2024 09:12:44 GMT"));
+        upstreamHeaders.put("Connection", List.of("keep-alive"));
+        upstreamHeaders.put("Keep-Alive", List.of("timeout=5"));
+        upstreamHeaders.put("Content-Length", List.of("6841"));
+
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public HttpHeaders requestHeaders() {
+        return ProxyHeaders.fromRequest(request);
+    }
+
+    @Benchmark
+    public HttpHeaders responseHeaders() {
+        response.reset();
+        return ProxyHeaders.copyResponseHeaders(upstreamHeaders, response);
+    }
+}
@@ -0,0 +1,82 @@
+package io.icebrew.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.web.ViteRequestClassifier;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Request classification with the default API prefixes, and frontend routing
+ * with three frontends, for each kind of request every page load makes
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms512m", "-Xmx512m" })
+public class RequestRoutingBenchmark {
+
+    @Param({ "api", "hmr", "asset", "virtual-module", "spa-route" })
+    private String kind;
+
+    private ViteRequestClassifier classifier;
+    private ViteFrontendRouter<ViteFrontend> router;
+    private HttpServletRequest request;
+    private String path;
+
+    @Setup
+    public void setUp() {
+        classifier = new ViteRequestClassifier(new ViteProperties().getApiPrefixes());
+        router = new ViteFrontendRouter<>(List.of(
+                frontend("default", "/", 5173),
+                frontend("admin", "/admin/", 5174),
+                frontend("docs", "/admin/docs/", 5175)), frontend -> frontend);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", switch (kind) {
+            case "api" -> "/api/users/42/orders";
+            case "hmr" -> "/admin/";
+            case "asset" -> "/admin/assets/chunk-12-5f3a9c1e.js";
+            case "virtual-module" -> "/@vite/client";
+            default -> "/admin/users/42/settings/notifications";
+        });
+        if (kind.equals("hmr")) {
+            request.addHeader("Connection", "Upgrade");
+            request.addHeader("Upgrade", "websocket");
+            request.addHeader("Sec-WebSocket-Protocol", "vite-hmr");
+        }
+        this.request = request;
+        this.path = request.getRequestURI();
+    }
+
+    @Benchmark
+    public ViteRequestClassifier.RequestType classify() {
+        return classifier.classify(request);
+    }
+
+    @Benchmark
+    public ViteFrontend route() {
+        return router.route(path);
+    }
+
+    private static ViteFrontend frontend(String name, String path, int port) {
+        return new ViteFrontend(name, path, "localhost", port, name, "dist", "META-INF/icebrew/" + name);
+    }
+}
@@ -0,0 +1,197 @@
+package io.icebrew.benchmarks;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.resource.CachingResourceResolver;
+import org.springframework.web.servlet.resource.CachingResourceTransformer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
+import org.springframework.web.servlet.resource.PathResourceResolver;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.servlet.resource.ResourceResolver;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.resource.ViteAssetCache;
+import io.icebrew.vite.resource.ViteAssetIndex;
+import io.icebrew.vite.web.ViteAssetCacheResolver;
+import io.icebrew.vite.web.ViteEtagInterceptor;
+import io.icebrew.vite.web.ViteSite;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+
+/**
+ * Serving build assets in production mode against a {@link SyntheticDist},
+ * with the resource chain set up the way ViteStaticResourceConfiguration
+ * sets it up by default. Each invocation requests the next path of a fixed
+ * pseudo-random sequence, so caches see a realistic spread of files.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = { "-Xms512m", "-Xmx512m" })
+public class StaticResourceBenchmark {
+
+    private static final String ACCEPT_ENCODING = "gzip, deflate, br, zstd";
+
+    /**
+     * {@code disk} reads every file, {@code memory} adds the in-memory asset
+     * cache
+     */
+    @Param({ "disk", "memory" })
+    private String source;
+
+    private SyntheticDist dist;
+    private ViteAssetIndex assetIndex;
+    private ResourceHttpRequestHandler handler;
+    private ViteEtagInterceptor etagInterceptor;
+    private String[] paths;
+    private String[] etags;
+    private int next;
+
+    @Setup
+    public void setUp() throws Exception {
+        dist = SyntheticDist.create();
+        ViteProperties properties = new ViteProperties();
+        ViteFrontend frontend = new ViteFrontend(ViteFrontend.DEFAULT_NAME, "/", "localhost", 5173,
+                dist.getRoot().toString(), ".", properties.getAssets().getClasspathLocation());
+        ViteSite site = new ViteSite(frontend, properties.getAssets());
+        assetIndex = site.getAssetIndex();
+
+        List<ResourceResolver> resolvers = new ArrayList<>();
+        resolvers.add(new CachingResourceResolver(new ConcurrentMapCache("spring-resource-chain-cache")));
+        resolvers.add(new EncodedResourceResolver());
+        if (source.equals("memory")) {
+            resolvers.add(new ViteAssetCacheResolver(new ViteAssetCache(properties.getAssets().getMemoryCache())));
+        }
+        resolvers.add(new PathResourceResolver());
+
+        handler = new ResourceHttpRequestHandler();
+        handler.setLocations(List.of(new FileSystemResource(dist.getRoot().toString() + "/")));
+        handler.setResourceResolvers(resolvers);
+        handler.setResourceTransformers(List.of(new CachingResourceTransformer(
+                new ConcurrentMapCache("spring-resource-chain-cache"))));
+        handler.setUseLastModified(false);
+        handler.setEtagGenerator(resource -> {
+            ViteAssetIndex.Asset asset = assetIndex.get(resource);
+            return asset != null ? asset.etag() : null;
+        });
+        handler.afterPropertiesSet();
+
+        etagInterceptor = new ViteEtagInterceptor(new ViteFrontendRouter<>(List.of(site), ViteSite::getFrontend),
+                properties.getAssets().isPrecompressed());
+
+        paths = dist.samplePaths(1024);
+        etags = new String[paths.length];
+        for (int i = 0; i < paths.length; i++) {
+            etags[i] = assetIndex.select(paths[i], ACCEPT_ENCODING).etag();
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        dist.delete();
+    }
+
+    /**
+     * A full 200 response, body included
+     */
+    @Benchmark
+    public long serve() throws Exception {
+        MockHttpServletRequest request = request(paths[next()]);
+        DiscardingResponse response = new DiscardingResponse();
+        handler.handleRequest(request, response);
+        return response.written;
+    }
+
+    /**
+     * A revalidation answered with 304 from the asset index
+     */
+    @Benchmark
+    public MockHttpServletResponse notModified() {
+        int i = next();
+        MockHttpServletRequest request = request(paths[i]);
+        request.addHeader("If-None-Match", etags[i]);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        etagInterceptor.preHandle(request, response, handler);
+        return response;
+    }
+
+    /**
+     * Looking up the representation to serve
+     */
+    @Benchmark
+    public ViteAssetIndex.Asset select() {
+        return assetIndex.select(paths[next()], ACCEPT_ENCODING);
+    }
+
+    private int next() {
+        int i = next;
+        next = (i + 1) & (paths.length - 1);
+        return i;
+    }
+
+    /**
+     * Counts the body instead of buffering it; MockHttpServletResponse copies
+     * byte by byte, which would outweigh everything measured here
+     */
+    private static class DiscardingResponse extends MockHttpServletResponse {
+
+        private long written;
+
+        private final ServletOutputStream out = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+                written++;
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                written += len;
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return out;
+        }
+    }
+
+    private static MockHttpServletRequest request(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Accept-Encoding", ACCEPT_ENCODING);
+        request.setAttribute(HandlerMapping.PATH_WITHIN_HANDLER_MAPPING_ATTRIBUTE, path.substring(1));
+        return request;
+    }
+}
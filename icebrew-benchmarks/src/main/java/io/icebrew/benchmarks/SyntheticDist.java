@@ -0,0 +1,167 @@
+package io.icebrew.benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A Vite build output of realistic shape, generated from a fixed seed so that
+ * every run and every release benchmarks the same tree.
+ * <p>
+ * Modeled on the {@code dist} directory of a mid-sized single page
+ * application: {@value #SCRIPTS} hashed JS chunks, {@value #STYLES} CSS files,
+ * {@value #IMAGES} images and a few fonts under {@code assets/}, gzip
+ * siblings of the JS and CSS files, and an {@code index.html}.
+ */
+public final class SyntheticDist {
+
+    static final int SCRIPTS = 400;
+    static final int STYLES = 40;
+    static final int IMAGES = 60;
+    static final int FONTS = 6;
+
+    private static final long SEED = 0x1CEB2E3L;
+
+    private final Path root;
+    private final List<String> assetPaths;
+
+    private SyntheticDist(Path root, List<String> assetPaths) {
+        this.root = root;
+        this.assetPaths = assetPaths;
+    }
+
+    /**
+     * Generate the tree in a new temporary directory
+     */
+    public static SyntheticDist create() throws IOException {
+        Path root = Files.createTempDirectory("icebrew-bench-dist");
+        Path assets = Files.createDirectories(root.resolve("assets"));
+        Random random = new Random(SEED);
+        List<String> paths = new ArrayList<>();
+
+        // Sizes follow the long tail of a code-split bundle: mostly small chunks, a few large ones
+        for (int i = 0; i < SCRIPTS; i++) {
+            String name = "chunk-" + i + "-" + hash(random) + ".js";
+            byte[] content = text(random, logSize(random, 300, 250_000), "export const v" + i + "=");
+            write(assets.resolve(name), content, true);
+            paths.add("/assets/" + name);
+        }
+        for (int i = 0; i < STYLES; i++) {
+            String name = "style-" + i + "-" + hash(random) + ".css";
+            write(assets.resolve(name), text(random, logSize(random, 200, 60_000), ".c" + i + "{"), true);
+            paths.add("/assets/" + name);
+        }
+        for (int i = 0; i < IMAGES; i++) {
+            String name = "image-" + i + "-" + hash(random) + (i % 3 == 0 ? ".svg" : ".png");
+            byte[] content = i % 3 == 0
+                    ? text(random, logSize(random, 500, 20_000), "<svg>")
+                    : binary(random, logSize(random, 1_000, 300_000));
+            write(assets.resolve(name), content, false);
+            paths.add("/assets/" + name);
+        }
+        for (int i = 0; i < FONTS; i++) {
+            String name = "font-" + i + "-" + hash(random) + ".woff2";
+            write(assets.resolve(name), binary(random, logSize(random, 20_000, 120_000)), false);
+            paths.add("/assets/" + name);
+        }
+
+        StringBuilder html = new StringBuilder("<!doctype html><html><head><title>Bench</title>");
+        html.append("<script type=\"module\" src=\"").append(paths.get(0)).append("\"></script>");
+        html.append("<link rel=\"stylesheet\" href=\"").append(paths.get(SCRIPTS)).append("\">");
+        html.append("</head><body><div id=\"root\"></div></body></html>");
+        write(root.resolve("index.html"), html.toString().getBytes(StandardCharsets.UTF_8), false);
+
+        return new SyntheticDist(root, List.copyOf(paths));
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    /**
+     * Request paths of every asset except precompressed siblings
+     */
+    public List<String> getAssetPaths() {
+        return assetPaths;
+    }
+
+    /**
+     * The asset paths in a fixed pseudo-random order, repeated to the given
+     * length
+     */
+    public String[] samplePaths(int count) {
+        Random random = new Random(SEED);
+        String[] sample = new String[count];
+        for (int i = 0; i < count; i++) {
+            sample[i] = assetPaths.get(random.nextInt(assetPaths.size()));
+        }
+        return sample;
+    }
+
+    public void delete() throws IOException {
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.delete(file);
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+                Files.delete(dir);
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+    private static void write(Path file, byte[] content, boolean gzip) throws IOException {
+        Files.write(file, content);
+        if (gzip) {
+            try (OutputStream out = new GZIPOutputStream(
+                    Files.newOutputStream(file.resolveSibling(file.getFileName() + ".gz")))) {
+                out.write(content);
+            }
+        }
+    }
+
+    private static String hash(Random random) {
+        byte[] bytes = new byte[4];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+
+    /**
+     * Log-uniform between the bounds
+     */
+    private static int logSize(Random random, int min, int max) {
+        return (int) Math.exp(Math.log(min) + random.nextDouble() * (Math.log(max) - Math.log(min)));
+    }
+
+    /**
+     * Source-like text that compresses about as well as minified code
+     */
+    private static byte[] text(Random random, int size, String statement) {
+        StringBuilder text = new StringBuilder(size + 64);
+        while (text.length() < size) {
+            text.append(statement).append(random.nextInt(100_000)).append(';');
+        }
+        text.setLength(size);
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] binary(Random random, int size) {
+        byte[] bytes = new byte[size];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,72 @@
+package io.icebrew.benchmarks.load;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects request latencies of one scenario. Every sample is kept, so
+ * percentiles are exact rather than bucketed.
+ */
+public class LatencyRecorder {
+
+    private long[] samples = new long[16 * 1024];
+    private int count;
+    private int errors;
+    private volatile boolean recording;
+
+    public void start() {
+        recording = true;
+    }
+
+    public void stop() {
+        recording = false;
+    }
+
+    public boolean isRecording() {
+        return recording;
+    }
+
+    public void record(long nanos) {
+        if (!recording) {
+            return;
+        }
+        synchronized (this) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = nanos;
+        }
+    }
+
+    /**
+     * A request that failed or got a server error; counted, but not in the
+     * latency percentiles
+     */
+    public synchronized void error() {
+        if (recording) {
+            errors++;
+        }
+    }
+
+    public synchronized int getCount() {
+        return count;
+    }
+
+    public synchronized int getErrors() {
+        return errors;
+    }
+
+    /**
+     * @param percentile between 0 and 100
+     * @return the latency in milliseconds, or {@code NaN} without samples
+     */
+    public synchronized double percentileMillis(double percentile) {
+        if (count == 0) {
+            return Double.NaN;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count);
+        return sorted[Math.max(0, rank - 1)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,258 @@
+package io.icebrew.benchmarks.load;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import io.icebrew.benchmarks.SyntheticDist;
+
+/**
+ * End-to-end load test of the sample application against a
+ * {@link StubViteServer} in development mode and a {@link SyntheticDist} in
+ * production mode.
+ * <p>
+ * Each scenario runs a number of {@link VirtualBrowser}s in a loop, first
+ * for a warmup period and then for the measured period, and reports request
+ * latency percentiles, throughput and the application's allocation rate:
+ * <ul>
+ * <li>{@code dev-cold}: page loads with an empty cache, the full module graph
+ * through the proxy</li>
+ * <li>{@code dev-reload}: reloads, i.e. conditional requests for every
+ * source module answered with 304</li>
+ * <li>{@code prod-cold}: page loads of {@code index.html} and the assets of
+ * one page from the build output</li>
+ * <li>{@code prod-reload}: reloads, revalidating only what is not cached as
+ * immutable</li>
+ * </ul>
+ * Options are given as {@code --name=value}; arguments after a lone
+ * {@code --} are passed to the application.
+ */
+public final class LoadTest {
+
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("app", "icebrew-samples/sample-react/target/sample-react-0.1.0-SNAPSHOT.jar"),
+            Map.entry("app-jvm-args", "-Xms512m -Xmx512m"),
+            Map.entry("scenarios", "dev-cold,dev-reload,prod-cold,prod-reload"),
+            Map.entry("modules", "400"),
+            Map.entry("dependencies", "40"),
+            Map.entry("page-assets", "80"),
+            Map.entry("latency", "2ms"),
+            Map.entry("jitter", "3ms"),
+            Map.entry("users", "8"),
+            Map.entry("connections", "6"),
+            Map.entry("warmup", "10s"),
+            Map.entry("duration", "30s"));
+
+    private record Result(String scenario, LatencyRecorder recorder, int pages, long nanos, long allocatedBytes) {
+    }
+
+    private final Map<String, String> options;
+    private final List<String> appArgs;
+
+    private LoadTest(Map<String, String> options, List<String> appArgs) {
+        this.options = options;
+        this.appArgs = appArgs;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(DEFAULTS);
+        List<String> appArgs = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--")) {
+                appArgs.addAll(Arrays.asList(args).subList(i + 1, args.length));
+                break;
+            }
+            int equals = arg.indexOf('=');
+            String name = arg.startsWith("--") && equals > 2 ? arg.substring(2, equals) : null;
+            if (name == null || !DEFAULTS.containsKey(name)) {
+                System.err.println("Unknown option " + arg);
+                System.err.println("Options (with defaults):");
+                DEFAULTS.keySet().stream().sorted()
+                        .forEach(option -> System.err.println("  --" + option + "=" + DEFAULTS.get(option)));
+                System.exit(2);
+            }
+            options.put(name, arg.substring(equals + 1));
+        }
+        new LoadTest(options, appArgs).run();
+    }
+
+    private void run() throws Exception {
+        Path jar = Path.of(options.get("app"));
+        if (!Files.isRegularFile(jar)) {
+            throw new IllegalArgumentException(jar + " not found; build the sample with mvn package, "
+                    + "or pass --app=<path to the application jar>");
+        }
+        Set<String> scenarios = new LinkedHashSet<>(Arrays.asList(options.get("scenarios").split(",")));
+        Path workDir = Files.createTempDirectory("icebrew-load-test");
+        System.out.println("Application logs in " + workDir);
+
+        List<Result> results = new ArrayList<>();
+        if (scenarios.contains("dev-cold") || scenarios.contains("dev-reload")) {
+            results.addAll(runDevelopment(jar, scenarios, workDir));
+        }
+        if (scenarios.contains("prod-cold") || scenarios.contains("prod-reload")) {
+            results.addAll(runProduction(jar, scenarios, workDir));
+        }
+        report(results);
+    }
+
+    private List<Result> runDevelopment(Path jar, Set<String> scenarios, Path workDir) throws Exception {
+        ModuleGraph graph = ModuleGraph.generate(intOption("modules"), intOption("dependencies"));
+        Path frontendDir = Files.createDirectories(workDir.resolve("frontend"));
+        List<Result> results = new ArrayList<>();
+        try (StubViteServer stub = new StubViteServer(graph, durationOption("latency"), durationOption("jitter"))) {
+            stub.writeLock(frontendDir);
+            List<String> args = new ArrayList<>(List.of(
+                    "--spring.profiles.active=dev",
+                    "--icebrew.vite.frontend-dir=" + frontendDir,
+                    "--icebrew.vite.host=" + StubViteServer.HOST,
+                    "--icebrew.vite.port=" + stub.getPort(),
+                    "--icebrew.vite.reuse-dev-server=true"));
+            Function<String, List<String>> references = url -> {
+                if (url.equals("/")) {
+                    return graph.getEntries();
+                }
+                ModuleGraph.Module module = graph.get(url);
+                return module != null ? module.imports() : List.of();
+            };
+            try (SampleApp app = startApp(jar, args, workDir.resolve("app-dev.log"))) {
+                if (scenarios.contains("dev-cold")) {
+                    results.add(runScenario("dev-cold", app, references, false));
+                }
+                if (scenarios.contains("dev-reload")) {
+                    results.add(runScenario("dev-reload", app, references, true));
+                }
+            }
+        }
+        return results;
+    }
+
+    private List<Result> runProduction(Path jar, Set<String> scenarios, Path workDir) throws Exception {
+        SyntheticDist dist = SyntheticDist.create();
+        List<Result> results = new ArrayList<>();
+        try {
+            List<String> pageAssets = Arrays.stream(dist.samplePaths(intOption("page-assets") * 4))
+                    .distinct()
+                    .limit(intOption("page-assets"))
+                    .toList();
+            List<String> args = new ArrayList<>(List.of(
+                    "--spring.profiles.active=prod",
+                    "--icebrew.vite.frontend-dir=" + dist.getRoot(),
+                    "--icebrew.vite.build-dir=."));
+            Function<String, List<String>> references = url -> url.equals("/") ? pageAssets : List.of();
+            try (SampleApp app = startApp(jar, args, workDir.resolve("app-prod.log"))) {
+                if (scenarios.contains("prod-cold")) {
+                    results.add(runScenario("prod-cold", app, references, false));
+                }
+                if (scenarios.contains("prod-reload")) {
+                    results.add(runScenario("prod-reload", app, references, true));
+                }
+            }
+        } finally {
+            dist.delete();
+        }
+        return results;
+    }
+
+    private SampleApp startApp(Path jar, List<String> args, Path log) throws IOException, InterruptedException {
+        // The sample logs every request at DEBUG, which would dominate the measurement
+        args.add("--logging.level.io.icebrew=INFO");
+        args.addAll(appArgs);
+        List<String> jvmArgs = Arrays.stream(options.get("app-jvm-args").trim().split("\\s+"))
+                .filter(arg -> !arg.isEmpty())
+                .toList();
+        return SampleApp.start(jar, jvmArgs, args, log);
+    }
+
+    private Result runScenario(String name, SampleApp app, Function<String, List<String>> references,
+            boolean reload) throws Exception {
+        System.out.println("Running " + name + "...");
+        LatencyRecorder recorder = new LatencyRecorder();
+        AtomicInteger pages = new AtomicInteger();
+        long warmupNanos = durationOption("warmup").toNanos();
+        long durationNanos = durationOption("duration").toNanos();
+        long end = System.nanoTime() + warmupNanos + durationNanos;
+
+        List<Thread> users = new ArrayList<>();
+        List<VirtualBrowser> browsers = new ArrayList<>();
+        for (int i = 0; i < intOption("users"); i++) {
+            VirtualBrowser browser = new VirtualBrowser(app.getBaseUri(), intOption("connections"), recorder);
+            browsers.add(browser);
+            Thread user = new Thread(() -> {
+                try {
+                    // Fills the cache a reload starts from
+                    browser.loadPage("/", references, false);
+                    while (System.nanoTime() < end) {
+                        browser.loadPage("/", references, reload);
+                        // A page finishing after the window closed is not counted
+                        if (recorder.isRecording()) {
+                            pages.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }, "user-" + i);
+            user.setDaemon(true);
+            users.add(user);
+            user.start();
+        }
+
+        TimeUnit.NANOSECONDS.sleep(warmupNanos);
+        Map<Long, Long> allocation = app.snapshotAllocation();
+        long start = System.nanoTime();
+        recorder.start();
+        TimeUnit.NANOSECONDS.sleep(durationNanos);
+        recorder.stop();
+        long elapsed = System.nanoTime() - start;
+        long allocated = app.allocatedSince(allocation);
+
+        for (Thread user : users) {
+            user.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        browsers.forEach(VirtualBrowser::close);
+        return new Result(name, recorder, pages.get(), elapsed, allocated);
+    }
+
+    private void report(List<Result> results) {
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-12s %9s %7s %9s %8s %8s %8s %11s %12s%n", "Scenario", "Requests",
+                "Errors", "Req/s", "p50 ms", "p99 ms", "Pages/s", "Alloc MB/s", "Alloc KB/req");
+        for (Result result : results) {
+            LatencyRecorder recorder = result.recorder();
+            double seconds = result.nanos() / 1e9;
+            int requests = recorder.getCount();
+            System.out.printf(Locale.ROOT, "%-12s %9d %7d %9.1f %8.2f %8.2f %8.1f %11.1f %12.1f%n",
+                    result.scenario(), requests, recorder.getErrors(), requests / seconds,
+                    recorder.percentileMillis(50), recorder.percentileMillis(99), result.pages() / seconds,
+                    result.allocatedBytes() / seconds / (1024 * 1024),
+                    requests > 0 ? result.allocatedBytes() / 1024.0 / requests : Double.NaN);
+        }
+        System.out.println();
+        System.out.println("Settings: " + new TreeMap<>(options) + (appArgs.isEmpty() ? "" : " " + appArgs));
+    }
+
+    private int intOption(String name) {
+        return Integer.parseInt(options.get(name));
+    }
+
+    private Duration durationOption(String name) {
+        return DurationStyle.detectAndParse(options.get(name));
+    }
+}
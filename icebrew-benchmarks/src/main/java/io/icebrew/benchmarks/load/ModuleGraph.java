@@ -0,0 +1,163 @@
+package io.icebrew.benchmarks.load;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The module graph a Vite dev server would serve for a mid-sized React
+ * application, generated from a fixed seed.
+ * <p>
+ * {@code /src/main.tsx} imports a handful of top-level components, each of
+ * which imports further components, a stylesheet now and then and some of
+ * the pre-bundled dependencies under {@code /node_modules/.vite/deps/}. URLs
+ * are the ones Vite rewrites imports to, so the proxy sees the same paths and
+ * query strings as with a real dev server.
+ */
+public final class ModuleGraph {
+
+    private static final long SEED = 0x1CEB2E3L;
+
+    private static final String[] DEPENDENCIES = { "react", "react-dom_client", "react_jsx-dev-runtime",
+            "react-router-dom", "@tanstack_react-query", "zustand", "clsx", "date-fns", "axios", "lodash-es" };
+
+    /**
+     * One module
+     *
+     * @param url request URL, with query string
+     * @param contentType what Vite answers with
+     * @param body transformed source
+     * @param imports URLs of the modules this one imports
+     * @param etag weak validator, as Vite sends for transformed modules
+     */
+    public record Module(String url, String contentType, byte[] body, List<String> imports, String etag) {
+
+        public boolean isDependency() {
+            return url.startsWith("/node_modules/");
+        }
+    }
+
+    private final Map<String, Module> modules;
+    private final byte[] indexHtml;
+
+    private ModuleGraph(Map<String, Module> modules, byte[] indexHtml) {
+        this.modules = modules;
+        this.indexHtml = indexHtml;
+    }
+
+    /**
+     * @param sourceModules number of application modules, stylesheets included
+     * @param dependencies number of pre-bundled dependencies
+     */
+    public static ModuleGraph generate(int sourceModules, int dependencies) {
+        Random random = new Random(SEED);
+        String optimizeHash = hash(random);
+
+        List<String> dependencyUrls = new ArrayList<>();
+        Map<String, Module> modules = new LinkedHashMap<>();
+        for (int i = 0; i < dependencies; i++) {
+            String name = i < DEPENDENCIES.length ? DEPENDENCIES[i] : "dep-" + i;
+            String url = "/node_modules/.vite/deps/" + name + ".js?v=" + optimizeHash;
+            dependencyUrls.add(url);
+            modules.put(url, module(url, "text/javascript", source(random, 2_000, 150_000, List.of()), List.of()));
+        }
+
+        // Each module is imported by one earlier module, which makes a tree about five levels deep
+        List<String> sourceUrls = new ArrayList<>();
+        List<List<String>> imports = new ArrayList<>();
+        for (int i = 0; i < sourceModules; i++) {
+            boolean style = i > 0 && i % 8 == 0;
+            String url = i == 0 ? "/src/main.tsx"
+                    : style ? "/src/styles/style" + i + ".css" : "/src/components/Component" + i + ".tsx";
+            sourceUrls.add(url);
+            imports.add(new ArrayList<>());
+            if (i > 0) {
+                int parent = random.nextInt(Math.max(1, (int) Math.ceil(i / 4.0)));
+                imports.get(parent).add(url);
+            }
+        }
+        for (int i = 0; i < sourceModules; i++) {
+            String url = sourceUrls.get(i);
+            if (url.endsWith(".css")) {
+                // Served as a JS module that injects the stylesheet
+                modules.put(url, module(url, "text/javascript",
+                        source(random, 300, 20_000, List.of("/@vite/client")), List.of()));
+                continue;
+            }
+            List<String> moduleImports = imports.get(i);
+            for (int d = random.nextInt(3); d > 0 && !dependencyUrls.isEmpty(); d--) {
+                String dependency = dependencyUrls.get(random.nextInt(dependencyUrls.size()));
+                if (!moduleImports.contains(dependency)) {
+                    moduleImports.add(dependency);
+                }
+            }
+            modules.put(url, module(url, "text/javascript", source(random, 500, 30_000, moduleImports),
+                    List.copyOf(moduleImports)));
+        }
+        modules.put("/@vite/client", module("/@vite/client", "text/javascript",
+                source(random, 30_000, 30_001, List.of()), List.of()));
+
+        String html = "<!doctype html>\n<html lang=\"en\">\n<head>\n"
+                + "<script type=\"module\" src=\"/@vite/client\"></script>\n"
+                + "<meta charset=\"UTF-8\" />\n<title>Load test</title>\n</head>\n<body>\n"
+                + "<div id=\"root\"></div>\n<script type=\"module\" src=\"/src/main.tsx\"></script>\n"
+                + "</body>\n</html>\n";
+        return new ModuleGraph(modules, html.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A module by request URL, or {@code null}
+     */
+    public Module get(String url) {
+        return modules.get(url);
+    }
+
+    public Collection<Module> getModules() {
+        return modules.values();
+    }
+
+    public byte[] getIndexHtml() {
+        return indexHtml;
+    }
+
+    /**
+     * The modules {@code index.html} loads directly
+     */
+    public List<String> getEntries() {
+        return List.of("/@vite/client", "/src/main.tsx");
+    }
+
+    private static Module module(String url, String contentType, byte[] body, List<String> imports) {
+        String etag = "W/\"" + Integer.toHexString(body.length) + "-" + Integer.toHexString(url.hashCode()) + "\"";
+        return new Module(url, contentType, body, imports, etag);
+    }
+
+    /**
+     * Transformed module text: the import statements, then filler of a
+     * log-uniform size between the bounds
+     */
+    private static byte[] source(Random random, int min, int max, List<String> imports) {
+        int size = (int) Math.exp(Math.log(min) + random.nextDouble() * (Math.log(max) - Math.log(min)));
+        StringBuilder text = new StringBuilder(size + 256);
+        int n = 0;
+        for (String url : imports) {
+            text.append("import * as m").append(n++).append(" from \"").append(url).append("\";\n");
+        }
+        while (text.length() < size) {
+            text.append("const v").append(random.nextInt(100_000)).append(" = jsxDEV(\"div\", { children: ")
+                    .append(random.nextInt(1000)).append(" });\n");
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String hash(Random random) {
+        byte[] bytes = new byte[4];
+        random.nextBytes(bytes);
+        return HexFormat.of().formatHex(bytes);
+    }
+}
@@ -0,0 +1,175 @@
+package io.icebrew.benchmarks.load;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * The application under test, running in its own JVM so that its allocation
+ * can be measured apart from the load generator's. Allocation is read over a
+ * loopback-only JMX connector.
+ */
+public class SampleApp implements Closeable {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofSeconds(90);
+
+    private final Process process;
+    private final URI baseUri;
+    private final JMXConnector jmx;
+    private final ThreadMXBean threads;
+
+    private SampleApp(Process process, URI baseUri, JMXConnector jmx, ThreadMXBean threads) {
+        this.process = process;
+        this.baseUri = baseUri;
+        this.jmx = jmx;
+        this.threads = threads;
+    }
+
+    /**
+     * Start the application jar and wait until it answers {@code /}
+     *
+     * @param jvmArgs options for the application's JVM
+     * @param args application arguments, e.g. {@code --icebrew.vite.port=5173}
+     * @param log where the application's output goes
+     */
+    public static SampleApp start(Path jar, List<String> jvmArgs, List<String> args, Path log)
+            throws IOException, InterruptedException {
+        int port = freePort();
+        int jmxPort = freePort();
+
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command()
+                .orElse(Path.of(System.getProperty("java.home"), "bin", "java").toString()));
+        command.addAll(jvmArgs);
+        command.add("-Dcom.sun.management.jmxremote.port=" + jmxPort);
+        command.add("-Dcom.sun.management.jmxremote.rmi.port=" + jmxPort);
+        command.add("-Dcom.sun.management.jmxremote.host=" + StubViteServer.HOST);
+        command.add("-Djava.rmi.server.hostname=" + StubViteServer.HOST);
+        command.add("-Dcom.sun.management.jmxremote.authenticate=false");
+        command.add("-Dcom.sun.management.jmxremote.ssl=false");
+        command.add("-jar");
+        command.add(jar.toString());
+        command.add("--server.port=" + port);
+        command.add("--server.address=" + StubViteServer.HOST);
+        command.addAll(args);
+
+        Process process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        try {
+            URI baseUri = URI.create("http://" + StubViteServer.HOST + ":" + port + "/");
+            awaitReady(process, baseUri, log);
+            JMXConnector jmx = JMXConnectorFactory.connect(new JMXServiceURL(
+                    "service:jmx:rmi:///jndi/rmi://" + StubViteServer.HOST + ":" + jmxPort + "/jmxrmi"));
+            MBeanServerConnection connection = jmx.getMBeanServerConnection();
+            ThreadMXBean threads = ManagementFactory.newPlatformMXBeanProxy(connection,
+                    ManagementFactory.THREAD_MXBEAN_NAME, ThreadMXBean.class);
+            return new SampleApp(process, baseUri, jmx, threads);
+        } catch (IOException | InterruptedException | RuntimeException e) {
+            process.destroyForcibly();
+            throw e;
+        }
+    }
+
+    public URI getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Bytes allocated so far by each live thread of the application, by
+     * thread id
+     */
+    public Map<Long, Long> snapshotAllocation() throws IOException {
+        try {
+            long[] ids = threads.getAllThreadIds();
+            long[] bytes = threads.getThreadAllocatedBytes(ids);
+            Map<Long, Long> snapshot = new HashMap<>();
+            for (int i = 0; i < ids.length; i++) {
+                if (bytes[i] >= 0) {
+                    snapshot.put(ids[i], bytes[i]);
+                }
+            }
+            return snapshot;
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to read allocation from the application", e);
+        }
+    }
+
+    /**
+     * Bytes allocated since a snapshot by the threads alive now. Threads that
+     * ended in between are missed; request threads live as long as the
+     * container, so for a load test that is little.
+     */
+    public long allocatedSince(Map<Long, Long> snapshot) throws IOException {
+        long allocated = 0;
+        for (Map.Entry<Long, Long> thread : snapshotAllocation().entrySet()) {
+            allocated += thread.getValue() - snapshot.getOrDefault(thread.getKey(), 0L);
+        }
+        return allocated;
+    }
+
+    @Override
+    public void close() {
+        try {
+            jmx.close();
+        } catch (IOException e) {
+            // Stopping anyway
+        }
+        process.destroy();
+        try {
+            if (!process.waitFor(15, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            process.destroyForcibly();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitReady(Process process, URI baseUri, Path log) throws IOException, InterruptedException {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(1)).build();
+        HttpRequest request = HttpRequest.newBuilder(baseUri).timeout(Duration.ofSeconds(10)).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IOException("Application exited with code " + process.exitValue() + "; see " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            }
+            Thread.sleep(250);
+        }
+        throw new IOException("Application did not answer within " + STARTUP_TIMEOUT.toSeconds() + " seconds; see "
+                + log);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package io.icebrew.benchmarks.load;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import io.icebrew.vite.service.ViteServerLock;
+
+/**
+ * Stands in for the Vite dev server: serves a {@link ModuleGraph} with the
+ * headers Vite sends, after a configurable delay per request.
+ * <p>
+ * IceBrew is pointed at it through a {@link ViteServerLock} naming this JVM,
+ * with {@code icebrew.vite.reuse-dev-server=true}, so it attaches instead of
+ * running {@code npm run dev} and no Node installation is needed.
+ */
+public class StubViteServer implements Closeable {
+
+    public static final String HOST = "127.0.0.1";
+
+    private final ModuleGraph graph;
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * @param latency added to every response
+     * @param jitter upper bound of a uniformly distributed extra delay
+     */
+    public StubViteServer(ModuleGraph graph, Duration latency, Duration jitter) throws IOException {
+        this.graph = graph;
+        this.latencyNanos = latency.toNanos();
+        this.jitterNanos = jitter.toNanos();
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getByName(HOST), 0), 256);
+        AtomicInteger threads = new AtomicInteger();
+        // Vite answers requests concurrently; the delay must not serialize them
+        this.executor = Executors.newFixedThreadPool(128, runnable -> {
+            Thread thread = new Thread(runnable, "stub-vite-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Write the lock IceBrew attaches to into a frontend directory
+     */
+    public void writeLock(Path frontendDir) throws IOException {
+        ProcessHandle self = ProcessHandle.current();
+        ViteServerLock lock = new ViteServerLock();
+        lock.setPid(self.pid());
+        lock.setHost(HOST);
+        lock.setPort(getPort());
+        lock.setStartedAt(self.info().startInstant().map(Instant::toEpochMilli).orElse(null));
+        lock.write(frontendDir);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            // Read to the end so the connection can be kept alive
+            exchange.getRequestBody().transferTo(OutputStream.nullOutputStream());
+            delay();
+            String uri = exchange.getRequestURI().toString();
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("Access-Control-Allow-Origin", "*");
+
+            ModuleGraph.Module module = graph.get(uri);
+            if (module == null) {
+                if (uri.lastIndexOf('.') > uri.lastIndexOf('/')) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+                // SPA fallback, like Vite's HTML middleware
+                headers.set("Content-Type", "text/html");
+                headers.set("Cache-Control", "no-cache");
+                send(exchange, 200, graph.getIndexHtml());
+                return;
+            }
+
+            headers.set("Content-Type", module.contentType());
+            headers.set("Cache-Control", module.isDependency() ? "max-age=31536000,immutable" : "no-cache");
+            headers.set("Etag", module.etag());
+            if (module.etag().equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            send(exchange, 200, module.body());
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        boolean head = "HEAD".equals(exchange.getRequestMethod());
+        exchange.sendResponseHeaders(status, head ? -1 : body.length);
+        if (!head) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private void delay() {
+        long nanos = latencyNanos + (jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0);
+        if (nanos > 0) {
+            try {
+                Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.icebrew.benchmarks.load;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Loads pages the way a browser does: the HTML first, then every module it
+ * references, and each module's imports as soon as that module arrives, over
+ * a fixed number of connections.
+ * <p>
+ * Responses are remembered like a browser cache. A reload skips what
+ * {@code Cache-Control} says is still fresh and revalidates the rest with
+ * {@code If-None-Match}.
+ */
+public class VirtualBrowser implements Closeable {
+
+    private static final AtomicInteger browsers = new AtomicInteger();
+
+    private record CacheEntry(String etag, boolean fresh) {
+    }
+
+    private final URI baseUri;
+    private final LatencyRecorder recorder;
+    private final HttpClient client;
+    private final ExecutorService connections;
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+
+    public VirtualBrowser(URI baseUri, int connections, LatencyRecorder recorder) {
+        this.baseUri = baseUri;
+        this.recorder = recorder;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        int browser = browsers.incrementAndGet();
+        AtomicInteger threads = new AtomicInteger();
+        this.connections = Executors.newFixedThreadPool(connections, runnable -> {
+            Thread thread = new Thread(runnable, "browser-" + browser + "-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Load a page and everything it pulls in, and wait until all of it has
+     * arrived
+     *
+     * @param references what a URL references: the entry modules of the
+     *        page, the imports of a module
+     * @param reload keep the cache from earlier loads; otherwise start empty
+     */
+    public void loadPage(String page, Function<String, List<String>> references, boolean reload)
+            throws InterruptedException {
+        if (!reload) {
+            cache.clear();
+        }
+        Set<String> requested = ConcurrentHashMap.newKeySet();
+        Phaser pending = new Phaser(1);
+        fetch(page, references, requested, pending);
+        pending.awaitAdvanceInterruptibly(pending.arrive());
+    }
+
+    @Override
+    public void close() {
+        connections.shutdownNow();
+    }
+
+    private void fetch(String url, Function<String, List<String>> references, Set<String> requested,
+            Phaser pending) {
+        if (!requested.add(url)) {
+            return;
+        }
+        // Registered before the parent arrives, so the phase cannot end early
+        pending.register();
+        connections.execute(() -> {
+            try {
+                if (request(url)) {
+                    for (String reference : references.apply(url)) {
+                        fetch(reference, references, requested, pending);
+                    }
+                }
+            } finally {
+                pending.arriveAndDeregister();
+            }
+        });
+    }
+
+    /**
+     * @return whether the module is available, from the network or the cache
+     */
+    private boolean request(String url) {
+        CacheEntry cached = cache.get(url);
+        if (cached != null && cached.fresh()) {
+            return true;
+        }
+        HttpRequest.Builder request = HttpRequest.newBuilder(baseUri.resolve(url))
+                .timeout(Duration.ofSeconds(30))
+                .header("Accept-Encoding", "gzip, deflate, br")
+                .GET();
+        if (cached != null && cached.etag() != null) {
+            request.header("If-None-Match", cached.etag());
+        }
+
+        long start = System.nanoTime();
+        HttpResponse<Void> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+        } catch (IOException e) {
+            recorder.error();
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        long elapsed = System.nanoTime() - start;
+
+        int status = response.statusCode();
+        if (status >= 500) {
+            recorder.error();
+            return false;
+        }
+        recorder.record(elapsed);
+        if (status == 200) {
+            String cacheControl = response.headers().firstValue("Cache-Control").orElse("");
+            boolean fresh = cacheControl.contains("immutable")
+                    || (cacheControl.contains("max-age=") && !cacheControl.contains("no-cache")
+                            && !cacheControl.contains("max-age=0"));
+            cache.put(url, new CacheEntry(response.headers().firstValue("ETag").orElse(null), fresh));
+        }
+        return status == 200 || status == 304;
+    }
+}
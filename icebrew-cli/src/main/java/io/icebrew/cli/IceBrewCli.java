@@ -1,10 +1,20 @@
 package io.icebrew.cli;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
@@ -15,6 +25,10 @@ import picocli.CommandLine.Parameters;
     CommandLine.HelpCommand.class })
 public class IceBrewCli implements Callable<Integer> {
 
+  private static final Set<String> COMPRESSIBLE_EXTENSIONS = Set.of(
+      "js", "mjs", "css", "html", "svg", "json", "txt", "xml", "wasm", "map");
+  private static final int MIN_COMPRESS_SIZE = 1024;
+
   @Option(names = { "-h", "--help" }, usageHelp = true, description = "Show this help message")
   boolean helpRequested;
 
@@ -71,7 +85,8 @@ public class IceBrewCli implements Callable<Integer> {
   @Command(name = "build", description = "Build IceBrew project in current directory")
   public Integer build(
       @Option(names = { "-c", "--clean" }, description = "Clean build") boolean clean,
-      @Option(names = { "-s", "--skip-tests" }, description = "Skip tests") boolean skipTests) {
+      @Option(names = { "-s", "--skip-tests" }, description = "Skip tests") boolean skipTests,
+      @Option(names = "--precompress", negatable = true, defaultValue = "true", fallbackValue = "true", description = "Write .br/.gz siblings for frontend/dist assets (default: true)") boolean precompress) {
     try {
       System.out.println(" Building IceBrew project...");
       System.out.println();
@@ -83,6 +98,12 @@ public class IceBrewCli implements Callable<Integer> {
         return 1;
       }
 
+      // Precompress the frontend build so it gets packaged together with it
+      Path distDir = Paths.get("frontend", "dist");
+      if (precompress && Files.isDirectory(distDir)) {
+        precompressAssets(distDir);
+      }
+
       // Build Maven command
       StringBuilder command = new StringBuilder("mvn ");
       if (clean) {
@@ -187,6 +208,111 @@ public class IceBrewCli implements Callable<Integer> {
     return 0;
   }
 
+  /**
+   * Write gzip and Brotli siblings next to compressible build assets.
+   * Gzip is done in-process; Brotli uses Node's zlib since Node is already
+   * required to build the frontend.
+   */
+  private void precompressAssets(Path distDir) throws IOException, InterruptedException {
+    List<Path> assets = new ArrayList<>();
+    try (Stream<Path> files = Files.walk(distDir)) {
+      files.filter(Files::isRegularFile)
+          .filter(IceBrewCli::isCompressible)
+          .forEach(assets::add);
+    }
+
+    if (assets.isEmpty()) {
+      return;
+    }
+
+    System.out.println("Precompressing " + assets.size() + " asset(s) in " + distDir);
+
+    // Siblings from an earlier build would otherwise outlive an asset that no longer compresses smaller
+    for (Path asset : assets) {
+      Files.deleteIfExists(asset.resolveSibling(asset.getFileName() + ".gz"));
+      Files.deleteIfExists(asset.resolveSibling(asset.getFileName() + ".br"));
+    }
+
+    int gzipped = 0;
+    for (Path asset : assets) {
+      byte[] content = Files.readAllBytes(asset);
+      Path target = asset.resolveSibling(asset.getFileName() + ".gz");
+      try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(target), 8192) {
+        {
+          def.setLevel(Deflater.BEST_COMPRESSION);
+        }
+      }) {
+        out.write(content);
+      }
+      if (Files.size(target) >= content.length) {
+        Files.delete(target);
+      } else {
+        gzipped++;
+      }
+    }
+
+    int brotli = brotliCompress(assets);
+    System.out.println("   gzip: " + gzipped + ", brotli: " + (brotli < 0 ? "skipped (node not found)" : brotli));
+    System.out.println();
+  }
+
+  private int brotliCompress(List<Path> assets) throws IOException, InterruptedException {
+    String script = """
+        const fs = require('fs'), zlib = require('zlib');
+        let written = 0;
+        for (const file of fs.readFileSync(0, 'utf8').split('\\n').filter(Boolean)) {
+          const input = fs.readFileSync(file);
+          const output = zlib.brotliCompressSync(input, { params: {
+            [zlib.constants.BROTLI_PARAM_QUALITY]: 11,
+            [zlib.constants.BROTLI_PARAM_SIZE_HINT]: input.length } });
+          if (output.length < input.length) { fs.writeFileSync(file + '.br', output); written++; }
+        }
+        console.log(written);
+        """;
+
+    String node = System.getProperty("os.name").toLowerCase().contains("windows") ? "node.exe" : "node";
+    Process process;
+    try {
+      process = new ProcessBuilder(node, "-e", script).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+    } catch (IOException e) {
+      return -1;
+    }
+
+    try (OutputStream stdin = process.getOutputStream()) {
+      for (Path asset : assets) {
+        stdin.write((asset.toAbsolutePath() + "\n").getBytes(StandardCharsets.UTF_8));
+      }
+    }
+
+    String output = new String(process.getInputStream().readAllBytes(), StandardCharsets.UTF_8).trim();
+    if (!process.waitFor(5, TimeUnit.MINUTES) || process.exitValue() != 0) {
+      process.destroyForcibly();
+      System.err.println(" Warning: Brotli compression failed");
+      return 0;
+    }
+    // The count is the last line; anything before it was printed by Node itself
+    String written = output.substring(output.lastIndexOf('\n') + 1).trim();
+    try {
+      return Integer.parseInt(written);
+    } catch (NumberFormatException e) {
+      System.err.println(" Warning: Brotli compression failed, unexpected output from node: " + output);
+      return 0;
+    }
+  }
+
+  private static boolean isCompressible(Path file) {
+    String name = file.getFileName().toString();
+    int dot = name.lastIndexOf('.');
+    if (dot < 0 || !COMPRESSIBLE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT))) {
+      return false;
+    }
+    try {
+      return Files.size(file) >= MIN_COMPRESS_SIZE;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
   private void createProjectStructure(Path projectPath, String projectName, String framework, boolean typescript)
       throws IOException {
     // Create directories
@@ -398,6 +524,7 @@ public class IceBrewCli implements Callable<Integer> {
             outDir: 'dist',
             assetsDir: 'assets',
             emptyOutDir: true,
+            manifest: true,
           }
         })
         """;
@@ -0,0 +1,23 @@
+package io.icebrew.vite.autoconfigure;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+import org.springframework.context.annotation.Conditional;
+
+import io.icebrew.vite.config.ViteMode;
+
+/**
+ * Matches when the active profiles resolve to the given {@link ViteMode}
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.TYPE, ElementType.METHOD })
+@Documented
+@Conditional(OnViteModeCondition.class)
+public @interface ConditionalOnViteMode {
+
+    ViteMode value();
+}
@@ -0,0 +1,26 @@
+package io.icebrew.vite.autoconfigure;
+
+import java.util.Map;
+
+import org.springframework.boot.autoconfigure.condition.ConditionOutcome;
+import org.springframework.boot.autoconfigure.condition.SpringBootCondition;
+import org.springframework.context.annotation.ConditionContext;
+import org.springframework.core.type.AnnotatedTypeMetadata;
+
+import io.icebrew.vite.config.ViteMode;
+
+/**
+ * Condition behind {@link ConditionalOnViteMode}
+ */
+class OnViteModeCondition extends SpringBootCondition {
+
+    @Override
+    public ConditionOutcome getMatchOutcome(ConditionContext context, AnnotatedTypeMetadata metadata) {
+        Map<String, Object> attributes = metadata.getAnnotationAttributes(ConditionalOnViteMode.class.getName());
+        ViteMode required = (ViteMode) attributes.get("value");
+        ViteMode mode = ViteMode.resolve(context.getEnvironment());
+        return mode == required
+                ? ConditionOutcome.match("Vite mode is " + mode)
+                : ConditionOutcome.noMatch("Vite mode is " + mode + ", not " + required);
+    }
+}
@@ -1,10 +1,18 @@
 package io.icebrew.vite.autoconfigure;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.system.JavaVersion;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,11 +20,31 @@ import org.springframework.context.annotation.Import;
 import org.springframework.context.event.EventListener;
 import org.springframework.core.env.Environment;
 
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteMode;
 import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.health.ViteHealthIndicator;
+import io.icebrew.vite.metrics.MicrometerViteMetrics;
+import io.icebrew.vite.metrics.ViteDepsCacheMetrics;
+import io.icebrew.vite.metrics.ViteMetrics;
+import io.icebrew.vite.metrics.ViteProcessMetrics;
+import io.icebrew.vite.proxy.HmrWebSocketRelay;
+import io.icebrew.vite.proxy.ViteAsyncProxy;
+import io.icebrew.vite.proxy.ViteDepsCache;
+import io.icebrew.vite.proxy.ViteProxyExecutor;
+import io.icebrew.vite.proxy.ViteUpstreamClient;
+import io.icebrew.vite.proxy.ViteWarmup;
+import io.icebrew.vite.resource.ViteAssetCache;
 import io.icebrew.vite.service.ViteDevServerService;
+import io.icebrew.vite.service.ViteDevServers;
+import io.icebrew.vite.service.ViteHealthTracker;
+import io.icebrew.vite.service.ViteLogBuffer;
+import io.icebrew.vite.service.ViteProcessMonitor;
 import io.icebrew.vite.web.ViteHmrProxyFilter;
 import io.icebrew.vite.web.ViteProxyController;
+import io.icebrew.vite.web.ViteRequestClassifier;
 import io.icebrew.vite.web.ViteStaticResourceConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.annotation.PostConstruct;
 
 /**
@@ -32,19 +60,29 @@ public class ViteAutoConfiguration {
 
     private final ViteProperties viteProperties;
     private final Environment environment;
-    private ViteDevServerService viteDevServerService;
+    private final ViteMode mode;
+    private final ObjectProvider<ViteDevServers> viteDevServers;
 
-    public ViteAutoConfiguration(ViteProperties viteProperties, Environment environment) {
+    public ViteAutoConfiguration(ViteProperties viteProperties, Environment environment,
+            ObjectProvider<ViteDevServers> viteDevServers) {
         this.viteProperties = viteProperties;
         this.environment = environment;
+        this.mode = ViteMode.resolve(environment);
+        this.viteDevServers = viteDevServers;
     }
 
     @PostConstruct
     public void init() {
-        logger.info("IceBrew Vite integration initialized");
-        logger.info("Vite dev server URL: {}", viteProperties.getDevServerUrl());
-        logger.info("Frontend directory: {}", viteProperties.getFrontendDir());
-        logger.info("Build directory: {}", viteProperties.getBuildDir());
+        logger.info("IceBrew Vite integration initialized in {} mode", mode.name().toLowerCase(Locale.ROOT));
+        for (ViteFrontend frontend : ViteFrontend.resolveAll(viteProperties)) {
+            logger.info("Frontend {}: dev server {}, directory {}, build directory {}", frontend,
+                    frontend.getDevServerUrl(), frontend.getFrontendDir(), frontend.getBuildDirectory());
+        }
+
+        if (viteProperties.getProxy().getExecution() == ViteProperties.Proxy.Execution.VIRTUAL_THREADS
+                && !JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE)) {
+            logger.warn("Virtual-thread proxy execution needs Java 21 or later; using servlet threads");
+        }
     }
 
     /**
@@ -52,45 +90,199 @@ public class ViteAutoConfiguration {
      */
     @EventListener(ApplicationReadyEvent.class)
     public void onApplicationReady() {
-        if (viteDevServerService != null && isDevelopmentMode() && viteProperties.isAutoStart()) {
+        // Only created in development mode
+        ViteDevServers devServers = viteDevServers.getIfAvailable();
+        if (devServers != null && viteProperties.isAutoStart()) {
             logger.info("Starting Vite dev server after Spring Boot is ready...");
-            viteDevServerService.startDevServer();
+            // Runs in the background; requests arriving meanwhile wait for readiness
+            devServers.startAll();
+        }
+    }
+
+    @Bean
+    public ViteMode viteMode() {
+        return mode;
+    }
+
+    @Bean
+    public ViteRequestClassifier viteRequestClassifier() {
+        return new ViteRequestClassifier(viteProperties.getApiPrefixes());
+    }
+
+    /**
+     * One dev server process, log buffer, upstream connection pool and deps
+     * cache per frontend
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    public ViteDevServers viteDevServers() {
+        List<ViteFrontend> frontends = ViteFrontend.resolveAll(viteProperties);
+        List<ViteDevServers.DevServer> devServers = new ArrayList<>();
+        for (ViteFrontend frontend : frontends) {
+            String label = frontends.size() == 1 ? "Vite" : "Vite " + frontend.getName();
+            ViteLogBuffer logBuffer = new ViteLogBuffer(viteProperties.getLog(), label);
+            // Don't start here - wait for ApplicationReadyEvent
+            ViteDevServerService devServerService = new ViteDevServerService(viteProperties, frontend, logBuffer);
+            ViteUpstreamClient upstreamClient = new ViteUpstreamClient(viteProperties.getProxy());
+            devServerService.addReadyListener(() -> upstreamClient.prewarm(frontend.getDevServerUrl()));
+            ViteDepsCache depsCache = null;
+            if (viteProperties.getProxy().getDepsCache().isEnabled()) {
+                depsCache = new ViteDepsCache(viteProperties.getProxy().getDepsCache());
+                // A restarted dev server may have re-optimized its dependencies
+                devServerService.addReadyListener(depsCache::clear);
+            }
+            if (viteProperties.getWarmup().isEnabled()) {
+                ViteWarmup warmup = new ViteWarmup(viteProperties, upstreamClient);
+                devServerService.addReadyListener(
+                        () -> warmup.start(frontend.getDevServerUrl(), frontend.getBasePath()));
+            }
+            devServers.add(new ViteDevServers.DevServer(frontend, devServerService, upstreamClient, depsCache));
+        }
+        return new ViteDevServers(devServers);
+    }
+
+    /**
+     * The default frontend's dev server; stopped by {@link ViteDevServers}
+     */
+    @Bean(destroyMethod = "")
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    public ViteDevServerService viteDevServerService(ViteDevServers devServers) {
+        return devServers.getDefault().service();
+    }
+
+    /**
+     * The default frontend's recent Vite output; closed by
+     * {@link ViteDevServers}
+     */
+    @Bean(destroyMethod = "")
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    public ViteLogBuffer viteLogBuffer(ViteDevServers devServers) {
+        return devServers.getDefault().service().getLogBuffer();
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    @ConditionalOnProperty(prefix = "icebrew.vite.process-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+    public ViteProcessMonitor viteProcessMonitor(ViteDevServers devServers) {
+        return new ViteProcessMonitor(devServers, viteProperties.getProcessMonitor());
+    }
+
+    /**
+     * Only with auto-start: a dev server run externally is never started, so
+     * it would always be reported down
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    @ConditionalOnProperty(prefix = "icebrew.vite", name = "auto-start", havingValue = "true", matchIfMissing = true)
+    public ViteHealthTracker viteHealthTracker(ViteDevServers devServers) {
+        return new ViteHealthTracker(devServers, viteProperties.getHealth());
+    }
+
+    @Bean
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    @ConditionalOnJava(JavaVersion.TWENTY_ONE)
+    @ConditionalOnProperty(prefix = "icebrew.vite.proxy", name = "execution", havingValue = "virtual-threads")
+    public ViteProxyExecutor viteProxyExecutor() {
+        int maxConcurrentRequests = viteProperties.getProxy().getMaxConcurrentRequests();
+        if (environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false)) {
+            // Requests already arrive on virtual threads
+            return ViteProxyExecutor.callerThread(maxConcurrentRequests);
         }
+        return ViteProxyExecutor.virtualThreads(maxConcurrentRequests);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    @ConditionalOnProperty(prefix = "icebrew.vite.proxy", name = "execution", havingValue = "async")
+    public ViteAsyncProxy viteAsyncProxy() {
+        return new ViteAsyncProxy(viteProperties.getProxy());
     }
 
     @Bean
-    public ViteDevServerService viteDevServerService() {
-        viteDevServerService = new ViteDevServerService(viteProperties);
-        // Don't start here - wait for ApplicationReadyEvent
-        return viteDevServerService;
+    @ConditionalOnViteMode(ViteMode.PRODUCTION)
+    @ConditionalOnProperty(prefix = "icebrew.vite.assets.memory-cache", name = "enabled", havingValue = "true")
+    public ViteAssetCache viteAssetCache() {
+        return new ViteAssetCache(viteProperties.getAssets().getMemoryCache());
     }
 
     @Bean
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
     @ConditionalOnProperty(prefix = "icebrew.vite", name = "auto-start", havingValue = "true", matchIfMissing = true)
-    public ViteProxyController viteProxyController(ViteDevServerService devServerService) {
-        return new ViteProxyController(viteProperties, devServerService, environment);
+    public ViteProxyController viteProxyController(ViteDevServers devServers,
+            ViteRequestClassifier requestClassifier, ObjectProvider<ViteProxyExecutor> proxyExecutor, ObjectProvider<ViteAsyncProxy> asyncProxy,
+            ObjectProvider<ViteMetrics> metrics, ViteHealthTracker healthTracker) {
+        return new ViteProxyController(viteProperties, devServers, requestClassifier,
+                proxyExecutor.getIfAvailable(), asyncProxy.getIfAvailable(),
+                metrics.getIfAvailable(() -> ViteMetrics.NONE), healthTracker);
+    }
+
+    @Bean
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    public HmrWebSocketRelay hmrWebSocketRelay(ViteDevServers devServers) {
+        return new HmrWebSocketRelay(viteProperties, devServers);
     }
 
     @Bean
-    public FilterRegistrationBean<ViteHmrProxyFilter> viteHmrProxyFilter() {
+    @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+    public FilterRegistrationBean<ViteHmrProxyFilter> viteHmrProxyFilter(ViteRequestClassifier requestClassifier,
+            HmrWebSocketRelay webSocketRelay) {
         FilterRegistrationBean<ViteHmrProxyFilter> registration = new FilterRegistrationBean<>();
-        registration.setFilter(new ViteHmrProxyFilter(viteProperties, environment));
+        registration.setFilter(new ViteHmrProxyFilter(requestClassifier, webSocketRelay));
         registration.addUrlPatterns("/*");
         registration.setName("viteHmrProxyFilter");
         registration.setOrder(1);
         return registration;
     }
 
-    private boolean isDevelopmentMode() {
-        String[] profiles = environment.getActiveProfiles();
-        if (profiles.length == 0) {
-            return true; // Default to development if no profile is set
+    /**
+     * Meters, registered when Micrometer is on the classpath
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "io.micrometer.core.instrument.MeterRegistry")
+    static class ViteMetricsConfiguration {
+
+        /**
+         * Proxy and static serving meters, in the application's registry if it
+         * has one
+         */
+        @Bean
+        public ViteMetrics viteMetrics(ObjectProvider<MeterRegistry> meterRegistry) {
+            MeterRegistry registry = meterRegistry.getIfUnique();
+            return registry != null ? new MicrometerViteMetrics(registry) : ViteMetrics.NONE;
         }
-        for (String profile : profiles) {
-            if ("dev".equals(profile) || "development".equals(profile)) {
-                return true;
-            }
+
+        @Bean
+        @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+        @ConditionalOnProperty(prefix = "icebrew.vite.process-monitor", name = "enabled", havingValue = "true", matchIfMissing = true)
+        public ViteProcessMetrics viteProcessMetrics(ViteProcessMonitor monitor, ViteDevServers devServers) {
+            return new ViteProcessMetrics(monitor, devServers);
+        }
+
+        @Bean
+        @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+        @ConditionalOnProperty(prefix = "icebrew.vite.proxy.deps-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+        public ViteDepsCacheMetrics viteDepsCacheMetrics(ViteDevServers devServers) {
+            return new ViteDepsCacheMetrics(devServers);
+        }
+    }
+
+    /**
+     * Health contributor, registered when Spring Boot Actuator is on the
+     * classpath
+     */
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "org.springframework.boot.actuate.health.HealthIndicator")
+    static class ViteHealthConfiguration {
+
+        /**
+         * Reports the cached status of the dev servers, so a health check
+         * never waits on Vite
+         */
+        @Bean
+        @ConditionalOnViteMode(ViteMode.DEVELOPMENT)
+        @ConditionalOnProperty(prefix = "icebrew.vite", name = "auto-start", havingValue = "true", matchIfMissing = true)
+        public ViteHealthIndicator viteHealthIndicator(ViteHealthTracker healthTracker) {
+            return new ViteHealthIndicator(healthTracker);
         }
-        return false;
     }
 }
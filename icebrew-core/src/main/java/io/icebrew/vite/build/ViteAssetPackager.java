@@ -0,0 +1,86 @@
+package io.icebrew.vite.build;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import io.icebrew.vite.resource.ViteAssetIndex;
+
+/**
+ * Build-time tool that copies the Vite build output into the application's
+ * classes directory and writes its {@link ViteAssetIndex}, so the frontend can
+ * be served from the jar with {@code icebrew.vite.assets.source=classpath}.
+ * <p>
+ * Usage: {@code ViteAssetPackager <buildDir> <classesDir> [<location>]}, where
+ * {@code location} defaults to {@value #DEFAULT_LOCATION}. Typically run by
+ * the exec-maven-plugin in the {@code prepare-package} phase.
+ */
+public final class ViteAssetPackager {
+
+    public static final String DEFAULT_LOCATION = "META-INF/icebrew";
+
+    private ViteAssetPackager() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: ViteAssetPackager <buildDir> <classesDir> [<location>]");
+            System.exit(2);
+        }
+
+        Path buildDir = Path.of(args[0]);
+        Path target = Path.of(args[1]).resolve(args.length > 2 ? args[2] : DEFAULT_LOCATION);
+        if (!Files.isDirectory(buildDir)) {
+            System.err.println("Build directory not found: " + buildDir.toAbsolutePath());
+            System.exit(1);
+        }
+
+        int count = pack(buildDir, target);
+        System.out.println("Packaged " + count + " file(s) from " + buildDir + " into " + target);
+    }
+
+    /**
+     * Copy a build directory to {@code target/dist} and write
+     * {@code target/asset-index.json}
+     *
+     * @return the number of files copied
+     */
+    public static int pack(Path buildDir, Path target) throws IOException {
+        Path source = buildDir.toAbsolutePath().normalize();
+        Path dist = target.resolve(ViteAssetIndex.DIST_DIR);
+        deleteRecursively(dist);
+
+        int count = 0;
+        try (Stream<Path> files = Files.walk(source)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Path copy = dist.resolve(source.relativize(file).toString());
+                if (Files.isDirectory(file)) {
+                    Files.createDirectories(copy);
+                } else {
+                    Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.COPY_ATTRIBUTES);
+                    count++;
+                }
+            }
+        }
+
+        try (OutputStream out = Files.newOutputStream(target.resolve(ViteAssetIndex.INDEX_FILE))) {
+            ViteAssetIndex.write(dist, out);
+        }
+        return count;
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.exists(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
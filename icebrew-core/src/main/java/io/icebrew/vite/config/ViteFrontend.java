@@ -0,0 +1,158 @@
+package io.icebrew.vite.config;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.util.StringUtils;
+
+/**
+ * Resolved settings of one frontend: where its sources and build output live,
+ * which port its dev server listens on and which URL path it is served under
+ */
+public final class ViteFrontend {
+
+    /**
+     * Name of the frontend configured by the top-level properties
+     */
+    public static final String DEFAULT_NAME = "default";
+
+    private final String name;
+    private final String path;
+    private final String base;
+    private final String host;
+    private final int port;
+    private final String frontendDir;
+    private final String buildDir;
+    private final String classpathLocation;
+
+    public ViteFrontend(String name, String path, String host, int port, String frontendDir, String buildDir,
+            String classpathLocation) {
+        this(name, path, path, host, port, frontendDir, buildDir, classpathLocation);
+    }
+
+    /**
+     * @param base Vite's {@code base}, when it differs from the path the
+     *        frontend is served under
+     */
+    public ViteFrontend(String name, String path, String base, String host, int port, String frontendDir,
+            String buildDir, String classpathLocation) {
+        this.name = name;
+        this.path = normalizePath(path);
+        this.base = normalizePath(base);
+        this.host = host;
+        this.port = port;
+        this.frontendDir = frontendDir;
+        this.buildDir = buildDir;
+        this.classpathLocation = classpathLocation;
+    }
+
+    /**
+     * The frontends configured by {@code icebrew.vite.frontends}, or the single
+     * frontend configured by the top-level properties. That one is served at
+     * the root; {@code icebrew.vite.base-path} only tells where under the dev
+     * server Vite answers, as set by {@code base} in {@code vite.config}.
+     *
+     * @throws IllegalStateException if two frontends share a path or a port
+     */
+    public static List<ViteFrontend> resolveAll(ViteProperties properties) {
+        String classpathLocation = StringUtils.trimTrailingCharacter(
+                properties.getAssets().getClasspathLocation(), '/');
+        if (properties.getFrontends().isEmpty()) {
+            return List.of(new ViteFrontend(DEFAULT_NAME, "/", properties.getBasePath(), properties.getHost(),
+                    properties.getPort(), properties.getFrontendDir(), properties.getBuildDir(), classpathLocation));
+        }
+
+        List<ViteFrontend> frontends = new ArrayList<>();
+        Set<String> paths = new HashSet<>();
+        Set<Integer> ports = new HashSet<>();
+        for (Map.Entry<String, ViteProperties.Frontend> entry : properties.getFrontends().entrySet()) {
+            String name = entry.getKey();
+            ViteProperties.Frontend frontend = entry.getValue();
+            String frontendDir = frontend.getFrontendDir() != null ? frontend.getFrontendDir() : name;
+            ViteFrontend resolved = new ViteFrontend(name, frontend.getPath(), properties.getHost(),
+                    frontend.getPort(), frontendDir, frontend.getBuildDir(), classpathLocation + "/" + name);
+            if (!paths.add(resolved.getPath())) {
+                throw new IllegalStateException("More than one frontend is served under " + resolved.getPath());
+            }
+            if (!ports.add(resolved.getPort())) {
+                throw new IllegalStateException("More than one frontend uses dev server port " + resolved.getPort());
+            }
+            frontends.add(resolved);
+        }
+        return List.copyOf(frontends);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * URL path the frontend is served under, with leading and trailing slash
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * URL path Vite serves the frontend under, without the trailing slash;
+     * empty for the root. The same as {@link #getPath()} unless set apart by
+     * {@code icebrew.vite.base-path}.
+     */
+    public String getBasePath() {
+        return base.substring(0, base.length() - 1);
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getFrontendDir() {
+        return frontendDir;
+    }
+
+    public File getBuildDirectory() {
+        return new File(frontendDir, buildDir);
+    }
+
+    /**
+     * Classpath location of the packaged build, without trailing slash
+     */
+    public String getClasspathLocation() {
+        return classpathLocation;
+    }
+
+    public String getDevServerUrl() {
+        return "http://" + host + ":" + port;
+    }
+
+    /**
+     * Path of a request relative to this frontend's path, with a leading slash
+     */
+    public String relativize(String requestPath) {
+        return requestPath.length() >= path.length() ? requestPath.substring(path.length() - 1) : "/";
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + path + ")";
+    }
+
+    private static String normalizePath(String path) {
+        if (!StringUtils.hasText(path)) {
+            return "/";
+        }
+        String normalized = path.trim();
+        if (!normalized.startsWith("/")) {
+            normalized = "/" + normalized;
+        }
+        return normalized.endsWith("/") ? normalized : normalized + "/";
+    }
+}
@@ -0,0 +1,68 @@
+package io.icebrew.vite.config;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Finds the frontend a request path belongs to by longest path prefix.
+ * <p>
+ * Instead of testing every frontend, the path is cut back one segment at a
+ * time and each prefix is looked up in a hash map, so routing costs one
+ * lookup per path segment at most, whatever the number of frontends.
+ *
+ * @param <T> what is kept per frontend
+ */
+public class ViteFrontendRouter<T> {
+
+    private final Map<String, T> byPath;
+    private final List<T> targets;
+    private final T single;
+
+    /**
+     * @param targets one entry per frontend
+     * @param frontend the frontend of an entry
+     */
+    public ViteFrontendRouter(List<T> targets, Function<T, ViteFrontend> frontend) {
+        this.byPath = new HashMap<>();
+        for (T target : targets) {
+            byPath.put(frontend.apply(target).getPath(), target);
+        }
+        this.targets = List.copyOf(targets);
+        // One frontend at the root takes every request
+        this.single = targets.size() == 1 && byPath.containsKey("/") ? targets.get(0) : null;
+    }
+
+    /**
+     * The entry whose frontend path is the longest prefix of the given path
+     *
+     * @param path request path within the application, starting with a slash
+     * @return the entry, or {@code null} if no frontend path matches
+     */
+    public T route(String path) {
+        if (single != null) {
+            return single;
+        }
+        // "/admin" belongs to the frontend at "/admin/"
+        T exact = byPath.get(path.endsWith("/") ? path : path + "/");
+        if (exact != null) {
+            return exact;
+        }
+        for (int slash = path.lastIndexOf('/'); slash >= 0; slash = path.lastIndexOf('/', slash - 1)) {
+            T target = byPath.get(path.substring(0, slash + 1));
+            if (target != null) {
+                return target;
+            }
+            if (slash == 0) {
+                break;
+            }
+        }
+        return null;
+    }
+
+    public Collection<T> getAll() {
+        return targets;
+    }
+}
@@ -0,0 +1,39 @@
+package io.icebrew.vite.config;
+
+import java.util.List;
+
+import org.springframework.core.env.Environment;
+
+/**
+ * Which side of the Vite integration is active, resolved once from the active
+ * profiles
+ */
+public enum ViteMode {
+
+    /**
+     * No profile, or {@code dev} / {@code development}: requests are proxied to
+     * the Vite dev server
+     */
+    DEVELOPMENT,
+
+    /**
+     * {@code prod} / {@code production}: the build output is served
+     */
+    PRODUCTION,
+
+    /**
+     * Any other profile: IceBrew handles no requests
+     */
+    NONE;
+
+    public static ViteMode resolve(Environment environment) {
+        List<String> activeProfiles = List.of(environment.getActiveProfiles());
+        if (activeProfiles.isEmpty() || activeProfiles.contains("dev") || activeProfiles.contains("development")) {
+            return DEVELOPMENT;
+        }
+        if (activeProfiles.contains("prod") || activeProfiles.contains("production")) {
+            return PRODUCTION;
+        }
+        return NONE;
+    }
+}
@@ -1,6 +1,9 @@
 package io.icebrew.vite.config;
 
+import java.time.Duration;
+
 import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Configuration properties for Vite integration
@@ -39,7 +42,8 @@ public class ViteProperties {
     private boolean autoStart = true;
 
     /**
-     * Vite dev server base URL path
+     * Vite dev server base URL path, as set by {@code base} in
+     * {@code vite.config}; the frontend itself is still served at the root
      */
     private String basePath = "";
 
@@ -48,11 +52,59 @@ public class ViteProperties {
      */
     private int startupTimeout = 60;
 
+    /**
+     * Leave the Vite dev server running on shutdown and attach to it on the
+     * next start, e.g. across devtools restarts
+     */
+    private boolean reuseDevServer = false;
+
     /**
      * Additional environment variables for Vite process
      */
     private java.util.Map<String, String> env = new java.util.HashMap<>();
 
+    /**
+     * Path prefixes handled by the backend; never proxied to Vite or answered
+     * with the SPA fallback
+     */
+    private java.util.List<String> apiPrefixes = new java.util.ArrayList<>(java.util.List.of("/api/", "/actuator/"));
+
+    /**
+     * Named frontends, each served under its own path; when empty, a single
+     * frontend is configured by the properties above
+     */
+    private java.util.Map<String, Frontend> frontends = new java.util.LinkedHashMap<>();
+
+    /**
+     * Dev server proxy settings
+     */
+    private final Proxy proxy = new Proxy();
+
+    /**
+     * Production asset serving settings
+     */
+    private final Assets assets = new Assets();
+
+    /**
+     * Dev server transform cache warm-up settings
+     */
+    private final Warmup warmup = new Warmup();
+
+    /**
+     * Dev server output logging settings
+     */
+    private final Log log = new Log();
+
+    /**
+     * Dev server process resource monitoring settings
+     */
+    private final ProcessMonitor processMonitor = new ProcessMonitor();
+
+    /**
+     * Dev server health tracking, circuit breaking and request hold settings
+     */
+    private final Health health = new Health();
+
     // Getters and Setters
 
     public boolean isEnabled() {
@@ -119,6 +171,14 @@ public class ViteProperties {
         this.startupTimeout = startupTimeout;
     }
 
+    public boolean isReuseDevServer() {
+        return reuseDevServer;
+    }
+
+    public void setReuseDevServer(boolean reuseDevServer) {
+        this.reuseDevServer = reuseDevServer;
+    }
+
     public java.util.Map<String, String> getEnv() {
         return env;
     }
@@ -127,7 +187,835 @@ public class ViteProperties {
         this.env = env;
     }
 
+    public java.util.List<String> getApiPrefixes() {
+        return apiPrefixes;
+    }
+
+    public void setApiPrefixes(java.util.List<String> apiPrefixes) {
+        this.apiPrefixes = apiPrefixes;
+    }
+
+    public java.util.Map<String, Frontend> getFrontends() {
+        return frontends;
+    }
+
+    public void setFrontends(java.util.Map<String, Frontend> frontends) {
+        this.frontends = frontends;
+    }
+
+    public Proxy getProxy() {
+        return proxy;
+    }
+
+    public Assets getAssets() {
+        return assets;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    public Log getLog() {
+        return log;
+    }
+
+    public ProcessMonitor getProcessMonitor() {
+        return processMonitor;
+    }
+
+    public Health getHealth() {
+        return health;
+    }
+
     public String getDevServerUrl() {
         return "http://" + host + ":" + port;
     }
+
+    /**
+     * One of several frontends served by the application
+     */
+    public static class Frontend {
+
+        /**
+         * URL path the frontend is served under, also passed to Vite as its
+         * base (e.g. /admin/)
+         */
+        private String path = "/";
+
+        /**
+         * Vite dev server port; each frontend needs its own
+         */
+        private int port = 5173;
+
+        /**
+         * Frontend source directory (relative to project root)
+         */
+        private String frontendDir;
+
+        /**
+         * Production build output directory (relative to frontendDir)
+         */
+        private String buildDir = "dist";
+
+        public String getPath() {
+            return path;
+        }
+
+        public void setPath(String path) {
+            this.path = path;
+        }
+
+        public int getPort() {
+            return port;
+        }
+
+        public void setPort(int port) {
+            this.port = port;
+        }
+
+        public String getFrontendDir() {
+            return frontendDir;
+        }
+
+        public void setFrontendDir(String frontendDir) {
+            this.frontendDir = frontendDir;
+        }
+
+        public String getBuildDir() {
+            return buildDir;
+        }
+
+        public void setBuildDir(String buildDir) {
+            this.buildDir = buildDir;
+        }
+    }
+
+    /**
+     * Settings for proxying requests to the Vite dev server
+     */
+    public static class Proxy {
+
+        /**
+         * Size of the buffers used to stream bodies between Vite and the client (in bytes)
+         */
+        private int bufferSize = 16 * 1024;
+
+        /**
+         * Maximum number of idle buffers kept for reuse
+         */
+        private int maxPooledBuffers = 64;
+
+        /**
+         * Maximum number of pooled keep-alive connections to the Vite dev server
+         */
+        private int maxConnections = 64;
+
+        /**
+         * Timeout for establishing a connection to the Vite dev server
+         */
+        private Duration connectTimeout = Duration.ofSeconds(2);
+
+        /**
+         * Timeout for waiting on data from the Vite dev server
+         */
+        private Duration readTimeout = Duration.ofSeconds(60);
+
+        /**
+         * Idle time after which pooled connections are evicted
+         */
+        private Duration idleTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Number of connections to open once the dev server is ready (0 to disable)
+         */
+        private int prewarmConnections = 8;
+
+        /**
+         * Threads that proxy requests to the dev server
+         */
+        private Execution execution = Execution.SERVLET;
+
+        /**
+         * Maximum number of requests proxied at the same time with
+         * {@code virtual-threads} execution; further requests wait
+         */
+        private int maxConcurrentRequests = 64;
+
+        /**
+         * Threads of the upstream HTTP client with {@code async} execution
+         */
+        private int asyncThreads = 4;
+
+        /**
+         * In-memory cache for Vite's pre-bundled dependencies
+         */
+        private final DepsCache depsCache = new DepsCache();
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getMaxPooledBuffers() {
+            return maxPooledBuffers;
+        }
+
+        public void setMaxPooledBuffers(int maxPooledBuffers) {
+            this.maxPooledBuffers = maxPooledBuffers;
+        }
+
+        public int getMaxConnections() {
+            return maxConnections;
+        }
+
+        public void setMaxConnections(int maxConnections) {
+            this.maxConnections = maxConnections;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Duration getReadTimeout() {
+            return readTimeout;
+        }
+
+        public void setReadTimeout(Duration readTimeout) {
+            this.readTimeout = readTimeout;
+        }
+
+        public Duration getIdleTimeout() {
+            return idleTimeout;
+        }
+
+        public void setIdleTimeout(Duration idleTimeout) {
+            this.idleTimeout = idleTimeout;
+        }
+
+        public int getPrewarmConnections() {
+            return prewarmConnections;
+        }
+
+        public void setPrewarmConnections(int prewarmConnections) {
+            this.prewarmConnections = prewarmConnections;
+        }
+
+        public Execution getExecution() {
+            return execution;
+        }
+
+        public void setExecution(Execution execution) {
+            this.execution = execution;
+        }
+
+        public int getMaxConcurrentRequests() {
+            return maxConcurrentRequests;
+        }
+
+        public void setMaxConcurrentRequests(int maxConcurrentRequests) {
+            this.maxConcurrentRequests = maxConcurrentRequests;
+        }
+
+        public int getAsyncThreads() {
+            return asyncThreads;
+        }
+
+        public void setAsyncThreads(int asyncThreads) {
+            this.asyncThreads = asyncThreads;
+        }
+
+        public DepsCache getDepsCache() {
+            return depsCache;
+        }
+
+        /**
+         * How proxied requests are executed
+         */
+        public enum Execution {
+            /** On the servlet container thread that received the request */
+            SERVLET,
+            /** On a virtual thread per request (Java 21+); the container thread is released */
+            VIRTUAL_THREADS,
+            /** Non-blocking servlet I/O and an asynchronous upstream client; no thread waits on the network */
+            ASYNC
+        }
+
+        /**
+         * Settings for caching {@code /node_modules/.vite/deps/*?v=<hash>} responses
+         */
+        public static class DepsCache {
+
+            /**
+             * Enable caching of pre-bundled dependencies
+             */
+            private boolean enabled = true;
+
+            /**
+             * Maximum total size of cached responses
+             */
+            private DataSize maxSize = DataSize.ofMegabytes(64);
+
+            /**
+             * Maximum size of a single cached response
+             */
+            private DataSize maxEntrySize = DataSize.ofMegabytes(8);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public DataSize getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(DataSize maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public DataSize getMaxEntrySize() {
+                return maxEntrySize;
+            }
+
+            public void setMaxEntrySize(DataSize maxEntrySize) {
+                this.maxEntrySize = maxEntrySize;
+            }
+        }
+    }
+
+    /**
+     * Settings for serving the Vite build output in production mode
+     */
+    public static class Assets {
+
+        /**
+         * Where the build output is served from
+         */
+        private Source source = Source.FILESYSTEM;
+
+        /**
+         * Classpath directory holding asset-index.json and dist/ when the
+         * source is {@code classpath}
+         */
+        private String classpathLocation = "META-INF/icebrew";
+
+        /**
+         * Serve precompressed .br/.gz siblings of assets when the client accepts them
+         */
+        private boolean precompressed = true;
+
+        /**
+         * Cache-Control values by path glob (e.g. {@code /assets/**}), checked in order
+         * before the manifest-based defaults
+         */
+        private java.util.Map<String, String> cacheControl = new java.util.LinkedHashMap<>();
+
+        /**
+         * Cache-Control for files that are neither hashed by Vite nor HTML
+         */
+        private String defaultCacheControl = "max-age=3600";
+
+        /**
+         * Hash build files at startup and serve the hashes as strong ETags
+         * instead of Last-Modified
+         */
+        private boolean contentEtags = true;
+
+        /**
+         * Add modulepreload tags and a Link header for each entry's critical
+         * imports to the served index.html
+         */
+        private boolean preloadLinks = true;
+
+        /**
+         * Send the preload links as 103 Early Hints before index.html (needs a
+         * servlet container that supports it)
+         */
+        private boolean earlyHints = false;
+
+        /**
+         * Answer GET requests for unknown extensionless paths (client-side
+         * routes) with index.html
+         */
+        private boolean spaFallback = true;
+
+        /**
+         * How often to check index.html for changes; zero disables the check
+         */
+        private Duration indexHtmlCheckInterval = Duration.ofSeconds(2);
+
+        private final MemoryCache memoryCache = new MemoryCache();
+
+        public Source getSource() {
+            return source;
+        }
+
+        public void setSource(Source source) {
+            this.source = source;
+        }
+
+        public String getClasspathLocation() {
+            return classpathLocation;
+        }
+
+        public void setClasspathLocation(String classpathLocation) {
+            this.classpathLocation = classpathLocation;
+        }
+
+        public boolean isPrecompressed() {
+            return precompressed;
+        }
+
+        public void setPrecompressed(boolean precompressed) {
+            this.precompressed = precompressed;
+        }
+
+        public java.util.Map<String, String> getCacheControl() {
+            return cacheControl;
+        }
+
+        public void setCacheControl(java.util.Map<String, String> cacheControl) {
+            this.cacheControl = cacheControl;
+        }
+
+        public String getDefaultCacheControl() {
+            return defaultCacheControl;
+        }
+
+        public void setDefaultCacheControl(String defaultCacheControl) {
+            this.defaultCacheControl = defaultCacheControl;
+        }
+
+        public boolean isContentEtags() {
+            return contentEtags;
+        }
+
+        public void setContentEtags(boolean contentEtags) {
+            this.contentEtags = contentEtags;
+        }
+
+        public boolean isPreloadLinks() {
+            return preloadLinks;
+        }
+
+        public void setPreloadLinks(boolean preloadLinks) {
+            this.preloadLinks = preloadLinks;
+        }
+
+        public boolean isEarlyHints() {
+            return earlyHints;
+        }
+
+        public void setEarlyHints(boolean earlyHints) {
+            this.earlyHints = earlyHints;
+        }
+
+        public boolean isSpaFallback() {
+            return spaFallback;
+        }
+
+        public void setSpaFallback(boolean spaFallback) {
+            this.spaFallback = spaFallback;
+        }
+
+        public Duration getIndexHtmlCheckInterval() {
+            return indexHtmlCheckInterval;
+        }
+
+        public void setIndexHtmlCheckInterval(Duration indexHtmlCheckInterval) {
+            this.indexHtmlCheckInterval = indexHtmlCheckInterval;
+        }
+
+        public MemoryCache getMemoryCache() {
+            return memoryCache;
+        }
+
+        /**
+         * Where the build output is served from
+         */
+        public enum Source {
+            /** {@code frontendDir/buildDir} on the file system */
+            FILESYSTEM,
+            /** Packaged into the application by {@code ViteAssetPackager} */
+            CLASSPATH
+        }
+
+        /**
+         * Where cached file contents are kept
+         */
+        public enum Storage {
+            /** Byte arrays on the Java heap */
+            HEAP,
+            /** Direct buffers outside the Java heap */
+            DIRECT,
+            /** Read-only memory mappings of the files */
+            MAPPED
+        }
+
+        /**
+         * Which entries are evicted first when the cache is full
+         */
+        public enum Eviction {
+            /** Least recently used */
+            LRU,
+            /** Least frequently used */
+            LFU
+        }
+
+        public static class MemoryCache {
+
+            /**
+             * Keep frequently requested build files in memory
+             */
+            private boolean enabled = false;
+
+            /**
+             * Maximum total size of cached files
+             */
+            private DataSize maxSize = DataSize.ofMegabytes(64);
+
+            /**
+             * Files larger than this are always served from disk
+             */
+            private DataSize maxFileSize = DataSize.ofMegabytes(4);
+
+            /**
+             * Where cached file contents are kept
+             */
+            private Storage storage = Storage.HEAP;
+
+            /**
+             * Eviction policy when the cache is full
+             */
+            private Eviction eviction = Eviction.LRU;
+
+            /**
+             * Load the manifest entry chunks and index.html at startup
+             */
+            private boolean preload = true;
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public DataSize getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(DataSize maxSize) {
+                this.maxSize = maxSize;
+            }
+
+            public DataSize getMaxFileSize() {
+                return maxFileSize;
+            }
+
+            public void setMaxFileSize(DataSize maxFileSize) {
+                this.maxFileSize = maxFileSize;
+            }
+
+            public Storage getStorage() {
+                return storage;
+            }
+
+            public void setStorage(Storage storage) {
+                this.storage = storage;
+            }
+
+            public Eviction getEviction() {
+                return eviction;
+            }
+
+            public void setEviction(Eviction eviction) {
+                this.eviction = eviction;
+            }
+
+            public boolean isPreload() {
+                return preload;
+            }
+
+            public void setPreload(boolean preload) {
+                this.preload = preload;
+            }
+        }
+    }
+
+    /**
+     * Settings for requesting the app's modules from the dev server once it is
+     * ready, so Vite has transformed them before the first page load
+     */
+    public static class Warmup {
+
+        /**
+         * Enable warm-up after the dev server becomes ready
+         */
+        private boolean enabled = false;
+
+        /**
+         * Paths to start from, relative to the frontend's base path; empty to
+         * start from the modules referenced by index.html
+         */
+        private java.util.List<String> entries = new java.util.ArrayList<>();
+
+        /**
+         * Maximum number of modules requested at the same time
+         */
+        private int parallelism = 4;
+
+        /**
+         * Maximum number of modules requested in total
+         */
+        private int maxModules = 2000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public java.util.List<String> getEntries() {
+            return entries;
+        }
+
+        public void setEntries(java.util.List<String> entries) {
+            this.entries = entries;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public int getMaxModules() {
+            return maxModules;
+        }
+
+        public void setMaxModules(int maxModules) {
+            this.maxModules = maxModules;
+        }
+    }
+
+    /**
+     * Settings for passing the Vite dev server's output to the application log
+     */
+    public static class Log {
+
+        /**
+         * Number of recent output lines kept in memory
+         */
+        private int bufferLines = 1000;
+
+        /**
+         * Maximum number of output lines logged per second; the rest are only
+         * kept in the buffer (0 for no limit)
+         */
+        private int maxLinesPerSecond = 100;
+
+        /**
+         * How often buffered output is passed to the logger
+         */
+        private Duration flushInterval = Duration.ofMillis(250);
+
+        public int getBufferLines() {
+            return bufferLines;
+        }
+
+        public void setBufferLines(int bufferLines) {
+            this.bufferLines = bufferLines;
+        }
+
+        public int getMaxLinesPerSecond() {
+            return maxLinesPerSecond;
+        }
+
+        public void setMaxLinesPerSecond(int maxLinesPerSecond) {
+            this.maxLinesPerSecond = maxLinesPerSecond;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+    }
+
+    /**
+     * Settings for sampling the resource usage of the dev server's process
+     * tree and acting on soft limits
+     */
+    public static class ProcessMonitor {
+
+        /**
+         * Enable sampling of the dev server's process tree
+         */
+        private boolean enabled = true;
+
+        /**
+         * Time between samples
+         */
+        private Duration interval = Duration.ofSeconds(10);
+
+        /**
+         * Resident memory of the whole process tree above which the limit
+         * action is taken; unset for no limit
+         */
+        private DataSize maxRss;
+
+        /**
+         * Open file descriptors of the whole process tree above which the
+         * limit action is taken; unset for no limit
+         */
+        private Integer maxOpenFiles;
+
+        /**
+         * What to do when a limit is exceeded
+         */
+        private LimitAction limitAction = LimitAction.LOG;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public DataSize getMaxRss() {
+            return maxRss;
+        }
+
+        public void setMaxRss(DataSize maxRss) {
+            this.maxRss = maxRss;
+        }
+
+        public Integer getMaxOpenFiles() {
+            return maxOpenFiles;
+        }
+
+        public void setMaxOpenFiles(Integer maxOpenFiles) {
+            this.maxOpenFiles = maxOpenFiles;
+        }
+
+        public LimitAction getLimitAction() {
+            return limitAction;
+        }
+
+        public void setLimitAction(LimitAction limitAction) {
+            this.limitAction = limitAction;
+        }
+
+        /**
+         * Action taken when the dev server exceeds a soft limit
+         */
+        public enum LimitAction {
+            /** Log a warning each time a limit is first exceeded */
+            LOG,
+            /** Log a warning and restart the dev server */
+            RESTART
+        }
+    }
+
+    /**
+     * Settings for tracking the dev server's health in the background, failing
+     * fast while it is down and holding requests while it starts
+     */
+    public static class Health {
+
+        /**
+         * Time between background checks of each dev server
+         */
+        private Duration interval = Duration.ofSeconds(2);
+
+        /**
+         * Timeout of the HTTP probe sent with each check
+         */
+        private Duration probeTimeout = Duration.ofSeconds(1);
+
+        /**
+         * Consecutive failed probes or proxied requests after which the
+         * circuit opens and requests fail fast until a probe succeeds
+         */
+        private int failureThreshold = 3;
+
+        /**
+         * How long a request arriving while the dev server starts or restarts
+         * is held before it is answered with 503
+         */
+        private Duration holdTimeout = Duration.ofSeconds(30);
+
+        /**
+         * Maximum number of requests held per dev server; further requests are
+         * answered with 503 right away
+         */
+        private int maxHeldRequests = 256;
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public Duration getProbeTimeout() {
+            return probeTimeout;
+        }
+
+        public void setProbeTimeout(Duration probeTimeout) {
+            this.probeTimeout = probeTimeout;
+        }
+
+        public int getFailureThreshold() {
+            return failureThreshold;
+        }
+
+        public void setFailureThreshold(int failureThreshold) {
+            this.failureThreshold = failureThreshold;
+        }
+
+        public Duration getHoldTimeout() {
+            return holdTimeout;
+        }
+
+        public void setHoldTimeout(Duration holdTimeout) {
+            this.holdTimeout = holdTimeout;
+        }
+
+        public int getMaxHeldRequests() {
+            return maxHeldRequests;
+        }
+
+        public void setMaxHeldRequests(int maxHeldRequests) {
+            this.maxHeldRequests = maxHeldRequests;
+        }
+    }
 }
@@ -0,0 +1,69 @@
+package io.icebrew.vite.health;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
+
+import io.icebrew.vite.service.ViteDevServerHealth;
+import io.icebrew.vite.service.ViteHealthTracker;
+
+/**
+ * Health of the Vite dev servers as last seen by {@link ViteHealthTracker}.
+ * Reads only cached state, so the health endpoint answers at once even when
+ * a dev server hangs. A dev server still starting is reported as
+ * {@code UNKNOWN}; the worst status of all frontends is the overall status.
+ */
+public class ViteHealthIndicator implements HealthIndicator {
+
+    private final ViteHealthTracker healthTracker;
+
+    public ViteHealthIndicator(ViteHealthTracker healthTracker) {
+        this.healthTracker = healthTracker;
+    }
+
+    @Override
+    public Health health() {
+        Status overall = Status.UP;
+        Map<String, Object> frontends = new LinkedHashMap<>();
+        for (ViteDevServerHealth health : healthTracker.getAll()) {
+            ViteDevServerHealth.Snapshot snapshot = health.getSnapshot();
+            Status status = toStatus(snapshot.status());
+            if (severity(status) > severity(overall)) {
+                overall = status;
+            }
+
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", status.getCode());
+            details.put("devServer", health.getDevServerUrl());
+            details.put("since", snapshot.since().toString());
+            if (snapshot.reason() != null) {
+                details.put("reason", snapshot.reason());
+            }
+            details.put("consecutiveFailures", snapshot.consecutiveFailures());
+            if (snapshot.lastChecked() != null) {
+                details.put("lastChecked", snapshot.lastChecked().toString());
+            }
+            details.put("heldRequests", snapshot.heldRequests());
+            frontends.put(health.getFrontendName(), details);
+        }
+        return Health.status(overall).withDetail("frontends", frontends).build();
+    }
+
+    private static Status toStatus(ViteDevServerHealth.Status status) {
+        return switch (status) {
+            case UP -> Status.UP;
+            case STARTING -> Status.UNKNOWN;
+            case DOWN -> Status.DOWN;
+        };
+    }
+
+    private static int severity(Status status) {
+        if (Status.DOWN.equals(status)) {
+            return 2;
+        }
+        return Status.UNKNOWN.equals(status) ? 1 : 0;
+    }
+}
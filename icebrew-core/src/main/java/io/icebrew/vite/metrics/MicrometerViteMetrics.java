@@ -0,0 +1,162 @@
+package io.icebrew.vite.metrics;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import io.micrometer.core.instrument.Clock;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.BaseUnits;
+
+/**
+ * {@link ViteMetrics} backed by a Micrometer registry.
+ * <p>
+ * Proxy meters are tagged by frontend and asset type, request timers also by
+ * status class; both timers publish percentile histograms. Meters are looked
+ * up once per tag combination and kept, so recording a request does not go
+ * through the registry.
+ */
+public class MicrometerViteMetrics implements ViteMetrics {
+
+    private static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    private static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final MeterRegistry registry;
+    private final Clock clock;
+    private final Map<MeterKey, ProxyMeters> proxyMeters = new ConcurrentHashMap<>();
+    private final Map<StaticKey, Counter> staticCounters = new ConcurrentHashMap<>();
+
+    private record MeterKey(String frontend, ViteAssetType type) {
+    }
+
+    private record StaticKey(String frontend, ViteAssetType type, StaticResult result) {
+    }
+
+    public MicrometerViteMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.clock = registry.config().clock();
+    }
+
+    @Override
+    public ProxyExchange startProxy(String frontend, String path) {
+        ProxyMeters meters = proxyMeters.computeIfAbsent(new MeterKey(frontend, ViteAssetType.of(path)),
+                ProxyMeters::new);
+        return new TimedExchange(meters, clock.monotonicTime());
+    }
+
+    @Override
+    public void recordStatic(String frontend, String path, StaticResult result) {
+        staticCounters.computeIfAbsent(new StaticKey(frontend, ViteAssetType.of(path), result),
+                key -> Counter.builder("icebrew.vite.static.requests")
+                        .description("Requests answered from the Vite build output")
+                        .tag("frontend", key.frontend())
+                        .tag("type", key.type().tagValue())
+                        .tag("result", key.result().name().toLowerCase(Locale.ROOT).replace('_', '-'))
+                        .register(registry))
+                .increment();
+    }
+
+    /**
+     * Meters of one frontend and asset type
+     */
+    private class ProxyMeters {
+
+        private final MeterKey key;
+        private final Timer upstream;
+        private final Counter bytesReceived;
+        private final Counter bytesSent;
+        // Indexed by status / 100 and created on first use, so unused classes publish no series
+        private final AtomicReferenceArray<Timer> requests = new AtomicReferenceArray<>(6);
+        private final Map<Class<?>, Counter> errors = new ConcurrentHashMap<>();
+
+        ProxyMeters(MeterKey key) {
+            this.key = key;
+            this.upstream = timer("icebrew.vite.proxy.upstream",
+                    "Time until the Vite dev server's response headers arrive").register(registry);
+            this.bytesReceived = counter("icebrew.vite.proxy.bytes.received",
+                    "Response body bytes read from the Vite dev server");
+            this.bytesSent = counter("icebrew.vite.proxy.bytes.sent",
+                    "Response body bytes written to clients, including dependency cache hits");
+        }
+
+        Timer requests(int status) {
+            int statusClass = status >= 100 && status < 600 ? status / 100 : 5;
+            Timer timer = requests.get(statusClass);
+            if (timer == null) {
+                // The registry returns the same timer to every thread that gets here
+                timer = timer("icebrew.vite.proxy.requests", "Total time to proxy a request to the Vite dev server")
+                        .tag("status", statusClass + "xx")
+                        .register(registry);
+                requests.set(statusClass, timer);
+            }
+            return timer;
+        }
+
+        void error(Throwable error) {
+            errors.computeIfAbsent(error.getClass(), exception -> Counter.builder("icebrew.vite.proxy.errors")
+                    .description("Requests the Vite dev server could not answer")
+                    .tag("frontend", key.frontend())
+                    .tag("type", key.type().tagValue())
+                    .tag("exception", exception.getSimpleName())
+                    .register(registry))
+                    .increment();
+        }
+
+        private Timer.Builder timer(String name, String description) {
+            return Timer.builder(name)
+                    .description(description)
+                    .tag("frontend", key.frontend())
+                    .tag("type", key.type().tagValue())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(MIN_EXPECTED)
+                    .maximumExpectedValue(MAX_EXPECTED);
+        }
+
+        private Counter counter(String name, String description) {
+            return Counter.builder(name)
+                    .description(description)
+                    .baseUnit(BaseUnits.BYTES)
+                    .tag("frontend", key.frontend())
+                    .tag("type", key.type().tagValue())
+                    .register(registry);
+        }
+    }
+
+    private class TimedExchange implements ProxyExchange {
+
+        private final ProxyMeters meters;
+        private final long startedAt;
+
+        TimedExchange(ProxyMeters meters, long startedAt) {
+            this.meters = meters;
+            this.startedAt = startedAt;
+        }
+
+        @Override
+        public void upstreamResponded() {
+            meters.upstream.record(clock.monotonicTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void completed(int status, long bytesReceived, long bytesSent) {
+            meters.requests(status).record(clock.monotonicTime() - startedAt, TimeUnit.NANOSECONDS);
+            if (bytesReceived > 0) {
+                meters.bytesReceived.increment(bytesReceived);
+            }
+            if (bytesSent > 0) {
+                meters.bytesSent.increment(bytesSent);
+            }
+        }
+
+        @Override
+        public void failed(Throwable error) {
+            meters.requests(502).record(clock.monotonicTime() - startedAt, TimeUnit.NANOSECONDS);
+            meters.error(error);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.icebrew.vite.metrics;
+
+import java.util.Locale;
+
+/**
+ * Kind of file a request path refers to, guessed from its extension; used as
+ * a low-cardinality metric tag
+ */
+public enum ViteAssetType {
+
+    SCRIPT, STYLE, DOCUMENT, IMAGE, FONT, DATA, SOURCE_MAP, DEPENDENCY, OTHER;
+
+    private static final String DEPS_PATH = "/node_modules/.vite/deps/";
+
+    private final String tagValue = name().toLowerCase(Locale.ROOT).replace('_', '-');
+
+    /**
+     * @param path request path without query string
+     */
+    public static ViteAssetType of(String path) {
+        if (path.contains(DEPS_PATH)) {
+            return DEPENDENCY;
+        }
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        if (dot <= slash) {
+            // Vite's virtual modules (/@vite/client, /@id/...) are scripts; anything else is a page
+            return path.contains("/@") ? SCRIPT : DOCUMENT;
+        }
+        return switch (path.substring(dot + 1).toLowerCase(Locale.ROOT)) {
+            case "js", "mjs", "cjs", "jsx", "ts", "mts", "tsx", "vue", "svelte" -> SCRIPT;
+            case "css", "scss", "sass", "less", "styl" -> STYLE;
+            case "html", "htm" -> DOCUMENT;
+            case "png", "jpg", "jpeg", "gif", "svg", "webp", "avif", "ico", "bmp" -> IMAGE;
+            case "woff", "woff2", "ttf", "otf", "eot" -> FONT;
+            case "json", "txt", "xml", "webmanifest", "wasm" -> DATA;
+            case "map" -> SOURCE_MAP;
+            default -> OTHER;
+        };
+    }
+
+    public String tagValue() {
+        return tagValue;
+    }
+}
@@ -0,0 +1,59 @@
+package io.icebrew.vite.metrics;
+
+import io.icebrew.vite.proxy.ViteDepsCache;
+import io.icebrew.vite.service.ViteDevServers;
+import io.icebrew.vite.service.ViteDevServers.DevServer;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Counters and gauges for each frontend's cache of Vite pre-bundled
+ * dependencies, tagged by frontend
+ */
+public class ViteDepsCacheMetrics implements MeterBinder {
+
+    private final ViteDevServers devServers;
+
+    public ViteDepsCacheMetrics(ViteDevServers devServers) {
+        this.devServers = devServers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (DevServer devServer : devServers.getAll()) {
+            ViteDepsCache cache = devServer.depsCache();
+            if (cache == null) {
+                continue;
+            }
+            Tags tags = Tags.of("frontend", devServer.frontend().getName());
+
+            FunctionCounter.builder("icebrew.vite.deps.cache.requests", cache, ViteDepsCache::getHitCount)
+                    .description("Dependency requests answered from the cache")
+                    .tags(tags)
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("icebrew.vite.deps.cache.requests", cache, ViteDepsCache::getMissCount)
+                    .description("Dependency requests passed on to the Vite dev server")
+                    .tags(tags)
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("icebrew.vite.deps.cache.evictions", cache, ViteDepsCache::getEvictionCount)
+                    .description("Entries evicted from the dependency cache to stay within its size")
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("icebrew.vite.deps.cache.size", cache, ViteDepsCache::getSize)
+                    .description("Total body size of the cached dependencies")
+                    .baseUnit(BaseUnits.BYTES)
+                    .tags(tags)
+                    .register(registry);
+            Gauge.builder("icebrew.vite.deps.cache.entries", cache, ViteDepsCache::getEntryCount)
+                    .description("Dependencies currently cached")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+}
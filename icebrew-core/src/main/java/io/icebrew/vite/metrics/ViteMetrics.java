@@ -0,0 +1,101 @@
+package io.icebrew.vite.metrics;
+
+/**
+ * Receives measurements from the dev server proxy and the production static
+ * handlers. Free of Micrometer types so that the proxy and the handlers work
+ * without it; {@link #NONE} is used when Micrometer is absent.
+ */
+public interface ViteMetrics {
+
+    /**
+     * Discards everything
+     */
+    ViteMetrics NONE = new ViteMetrics() {
+
+        @Override
+        public ProxyExchange startProxy(String frontend, String path) {
+            return ProxyExchange.NONE;
+        }
+
+        @Override
+        public void recordStatic(String frontend, String path, StaticResult result) {
+        }
+
+        @Override
+        public boolean isEnabled() {
+            return false;
+        }
+    };
+
+    /**
+     * Start timing one proxied request
+     *
+     * @param path request path without query string
+     */
+    ProxyExchange startProxy(String frontend, String path);
+
+    /**
+     * Count one request answered by the static handlers
+     */
+    void recordStatic(String frontend, String path, StaticResult result);
+
+    /**
+     * Whether measurements are kept, so callers can skip work for {@link #NONE}
+     */
+    default boolean isEnabled() {
+        return true;
+    }
+
+    /**
+     * Outcome of a static request
+     */
+    enum StaticResult {
+        /** The file was served */
+        HIT,
+        /** No such file */
+        MISS,
+        /** The client's copy is current */
+        NOT_MODIFIED
+    }
+
+    /**
+     * Measurements of one proxied request. Exactly one of
+     * {@link #completed(int, long, long)} and {@link #failed(Throwable)} is
+     * called at the end.
+     */
+    interface ProxyExchange {
+
+        ProxyExchange NONE = new ProxyExchange() {
+
+            @Override
+            public void upstreamResponded() {
+            }
+
+            @Override
+            public void completed(int status, long bytesReceived, long bytesSent) {
+            }
+
+            @Override
+            public void failed(Throwable error) {
+            }
+        };
+
+        /**
+         * The dev server's response headers arrived
+         */
+        void upstreamResponded();
+
+        /**
+         * The response was sent, or the client went away while it was
+         *
+         * @param bytesReceived response body bytes read from the dev server
+         * @param bytesSent response body bytes written to the client
+         */
+        void completed(int status, long bytesReceived, long bytesSent);
+
+        /**
+         * The dev server could not be reached or broke off the response
+         */
+        void failed(Throwable error);
+    }
+}
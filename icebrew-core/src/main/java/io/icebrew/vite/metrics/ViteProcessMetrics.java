@@ -0,0 +1,68 @@
+package io.icebrew.vite.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import io.icebrew.vite.service.ViteDevServers;
+import io.icebrew.vite.service.ViteDevServers.DevServer;
+import io.icebrew.vite.service.ViteProcessMonitor;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Gauges for the resource usage of each dev server's process tree, read from
+ * the latest {@link ViteProcessMonitor} sample and tagged by frontend
+ */
+public class ViteProcessMetrics implements MeterBinder {
+
+    private final ViteProcessMonitor monitor;
+    private final ViteDevServers devServers;
+
+    public ViteProcessMetrics(ViteProcessMonitor monitor, ViteDevServers devServers) {
+        this.monitor = monitor;
+        this.devServers = devServers;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (DevServer devServer : devServers.getAll()) {
+            String name = devServer.frontend().getName();
+            Tags tags = Tags.of("frontend", name);
+
+            gauge(registry, "icebrew.vite.process.count", "Live processes in the Vite dev server's process tree",
+                    null, tags, m -> m.getSample(name).processes());
+            gauge(registry, "icebrew.vite.process.memory.rss", "Resident memory of the Vite dev server's process tree",
+                    BaseUnits.BYTES, tags, m -> known(m.getSample(name).rssBytes()));
+            gauge(registry, "icebrew.vite.process.threads", "Threads in the Vite dev server's process tree",
+                    BaseUnits.THREADS, tags, m -> known(m.getSample(name).threads()));
+            gauge(registry, "icebrew.vite.process.files.open",
+                    "Open file descriptors of the Vite dev server's process tree", BaseUnits.FILES, tags,
+                    m -> known(m.getSample(name).openFiles()));
+            TimeGauge.builder("icebrew.vite.process.cpu.time", monitor, TimeUnit.NANOSECONDS,
+                    m -> m.getSample(name).cpuTime().toNanos())
+                    .description("CPU time consumed by the Vite dev server's process tree")
+                    .tags(tags)
+                    .register(registry);
+        }
+    }
+
+    private void gauge(MeterRegistry registry, String name, String description, String baseUnit, Tags tags,
+            ToDoubleFunction<ViteProcessMonitor> value) {
+        Gauge.builder(name, monitor, value)
+                .description(description)
+                .baseUnit(baseUnit)
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * Not available outside Linux
+     */
+    private static double known(long value) {
+        return value < 0 ? Double.NaN : value;
+    }
+}
@@ -0,0 +1,487 @@
+package io.icebrew.vite.proxy;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.service.ViteDevServers;
+import io.icebrew.vite.service.ViteDevServers.DevServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.CloseReason.CloseCodes;
+import jakarta.websocket.DeploymentException;
+import jakarta.websocket.Endpoint;
+import jakarta.websocket.EndpointConfig;
+import jakarta.websocket.MessageHandler;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerContainer;
+import jakarta.websocket.server.ServerEndpointConfig;
+
+/**
+ * Relays HMR WebSocket connections between the browser and the Vite dev
+ * server so HMR works through the Spring Boot port alone.
+ * <p>
+ * The browser side is upgraded by the servlet container's WebSocket support,
+ * the Vite side uses the JDK WebSocket client. A message from Vite is
+ * passed on once it is complete, and the next one is only requested when it
+ * has been sent, so at most one is in flight toward the browser; no thread
+ * waits on that direction. Messages larger than {@value #MAX_MESSAGE_SIZE}
+ * bytes or characters close the connection with {@code 1009 Message Too Big}.
+ * <p>
+ * Two steps do block a container thread, because the servlet WebSocket API
+ * offers no other way:
+ * <ul>
+ * <li>The upgrade waits for the connection to Vite, for at most
+ * {@code icebrew.vite.proxy.connect-timeout}. Vite's subprotocol has to be
+ * known before the browser is answered, and a browser connection opened
+ * before Vite answers could look to Vite's client like a server that is back,
+ * and make it reload the page.</li>
+ * <li>Frames from the browser are queued for Vite in arrival order. Once
+ * {@value #MAX_QUEUED_FRAMES} are waiting, the container thread delivering the
+ * next one waits too, which stops reading from that browser, for at most
+ * {@code icebrew.vite.proxy.read-timeout}. The relay is then closed with
+ * {@code 1013 Try Again Later}. The API cannot pause reading, so this wait
+ * is the only backpressure toward the browser. HMR clients send few frames,
+ * so the queue is rarely full.</li>
+ * </ul>
+ */
+public class HmrWebSocketRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(HmrWebSocketRelay.class);
+    private static final List<String> FORWARDED_HEADERS = List.of(
+            "Origin", "Cookie", "User-Agent", "Authorization");
+
+    static final int MAX_MESSAGE_SIZE = 4 * 1024 * 1024;
+    static final int MAX_QUEUED_FRAMES = 16;
+
+    private final ViteDevServers devServers;
+    private final ViteProperties.Proxy proxyProperties;
+    private final HttpClient webSocketClient;
+
+    public HmrWebSocketRelay(ViteProperties viteProperties, ViteDevServers devServers) {
+        this.devServers = devServers;
+        this.proxyProperties = viteProperties.getProxy();
+        this.webSocketClient = HttpClient.newBuilder()
+                .connectTimeout(proxyProperties.getConnectTimeout())
+                .build();
+    }
+
+    /**
+     * Connect to Vite and upgrade the browser request to a WebSocket relaying
+     * to that connection; waits up to the connect timeout for Vite
+     */
+    public void relay(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DevServer devServer = devServers.route(request.getRequestURI().substring(request.getContextPath().length()));
+        if (devServer == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String devServerUrl = devServer.service().getDevServerUrl();
+
+        ServerContainer serverContainer = (ServerContainer) request.getServletContext()
+                .getAttribute(ServerContainer.class.getName());
+        if (serverContainer == null) {
+            logger.warn("Servlet container has no WebSocket support; HMR must connect to {} directly",
+                    devServerUrl);
+            response.sendError(HttpServletResponse.SC_NOT_IMPLEMENTED, "WebSocket relay is not available");
+            return;
+        }
+
+        Connection connection = new Connection(proxyProperties.getReadTimeout());
+        WebSocket upstream;
+        try {
+            upstream = connectUpstream(devServerUrl, request, connection)
+                    .get(proxyProperties.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException | TimeoutException e) {
+            logger.warn("Failed to open HMR WebSocket to Vite dev server: {}", e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_GATEWAY, "Vite dev server is not reachable");
+            return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            response.sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            return;
+        }
+        connection.connected(upstream);
+
+        String subprotocol = upstream.getSubprotocol();
+        ServerEndpointConfig endpointConfig = ServerEndpointConfig.Builder
+                .create(BrowserEndpoint.class, request.getRequestURI())
+                .subprotocols(subprotocol.isEmpty() ? List.of() : List.of(subprotocol))
+                .configurator(new ServerEndpointConfig.Configurator() {
+                    @Override
+                    public <T> T getEndpointInstance(Class<T> endpointClass) {
+                        return endpointClass.cast(new BrowserEndpoint(connection));
+                    }
+                })
+                .build();
+
+        try {
+            serverContainer.upgradeHttpToWebSocket(request, response, endpointConfig, Map.of());
+            logger.debug("HMR WebSocket relay opened for {}", request.getRequestURI());
+        } catch (DeploymentException e) {
+            upstream.abort();
+            throw new IOException("Failed to upgrade HMR WebSocket", e);
+        }
+    }
+
+    private CompletableFuture<WebSocket> connectUpstream(String devServerUrl, HttpServletRequest request,
+            Connection connection) {
+        String query = request.getQueryString();
+        URI upstreamUri = URI.create(devServerUrl.replaceFirst("^http", "ws")
+                + request.getRequestURI() + (query != null ? "?" + query : ""));
+
+        WebSocket.Builder builder = webSocketClient.newWebSocketBuilder()
+                .connectTimeout(proxyProperties.getConnectTimeout());
+
+        List<String> subprotocols = requestedSubprotocols(request);
+        if (!subprotocols.isEmpty()) {
+            builder.subprotocols(subprotocols.get(0),
+                    subprotocols.subList(1, subprotocols.size()).toArray(String[]::new));
+        }
+        for (String header : FORWARDED_HEADERS) {
+            String value = request.getHeader(header);
+            if (value != null) {
+                builder.header(header, value);
+            }
+        }
+
+        return builder.buildAsync(upstreamUri, new UpstreamListener(connection));
+    }
+
+    private List<String> requestedSubprotocols(HttpServletRequest request) {
+        String header = request.getHeader("Sec-WebSocket-Protocol");
+        if (header == null || header.isBlank()) {
+            return List.of();
+        }
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .filter(protocol -> !protocol.isEmpty())
+                .toList();
+    }
+
+    /**
+     * State shared by both halves of one relayed connection
+     */
+    static class Connection {
+
+        private final Duration sendTimeout;
+        private final Semaphore queuedFrames = new Semaphore(MAX_QUEUED_FRAMES);
+        private volatile WebSocket upstream;
+        private Session browser;
+        private CloseReason pendingClose;
+        private CompletableFuture<WebSocket> sendChain;
+
+        // Fragments of the message Vite is sending; only touched by the JDK client, one frame at a time
+        private final StringBuilder pendingText = new StringBuilder();
+        private final List<ByteBuffer> pendingBinary = new ArrayList<>();
+        private int pendingBinarySize;
+        private boolean discarding;
+
+        Connection(Duration sendTimeout) {
+            this.sendTimeout = sendTimeout;
+        }
+
+        void connected(WebSocket upstream) {
+            this.upstream = upstream;
+            synchronized (this) {
+                sendChain = CompletableFuture.completedFuture(upstream);
+            }
+        }
+
+        /**
+         * Queue a frame for Vite, waiting up to the read timeout while
+         * {@value #MAX_QUEUED_FRAMES} frames are already queued
+         */
+        void sendUpstream(Function<WebSocket, CompletableFuture<WebSocket>> send) {
+            boolean queued;
+            try {
+                queued = queuedFrames.tryAcquire(sendTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                queued = false;
+            }
+            if (!queued) {
+                logger.debug("Vite dev server is not accepting HMR frames; closing the relay");
+                closeBrowser(CloseCodes.TRY_AGAIN_LATER, "Vite is not responding");
+                upstream.abort();
+                return;
+            }
+            chain(send).whenComplete((result, failure) -> queuedFrames.release());
+        }
+
+        /**
+         * The JDK client allows one outstanding send at a time, so sends to
+         * Vite are chained in arrival order
+         */
+        synchronized CompletableFuture<WebSocket> chain(Function<WebSocket, CompletableFuture<WebSocket>> send) {
+            sendChain = sendChain.thenCompose(send);
+            sendChain.exceptionally(failure -> {
+                logger.debug("Failed to relay HMR frame to Vite dev server", failure);
+                closeBrowser(CloseCodes.UNEXPECTED_CONDITION, "Vite connection failed");
+                return null;
+            });
+            return sendChain;
+        }
+
+        /**
+         * Close the browser session, or remember to close it as soon as it
+         * opens if Vite goes away before the upgrade completes
+         */
+        void closeBrowser(CloseReason.CloseCode code, String reason) {
+            Session session;
+            synchronized (this) {
+                session = browser;
+                if (session == null) {
+                    if (pendingClose == null) {
+                        pendingClose = new CloseReason(code, reason);
+                    }
+                    return;
+                }
+            }
+            close(session, new CloseReason(code, reason));
+        }
+
+        /**
+         * @return whether the session may be used; {@code false} if it has
+         *         been closed because Vite already went away
+         */
+        boolean browserOpened(Session session) {
+            CloseReason close;
+            synchronized (this) {
+                browser = session;
+                close = pendingClose;
+            }
+            if (close != null) {
+                close(session, close);
+                return false;
+            }
+            return true;
+        }
+
+        synchronized Session getBrowser() {
+            return browser;
+        }
+
+        /**
+         * Close both sides because a message from Vite exceeds
+         * {@value #MAX_MESSAGE_SIZE}
+         */
+        void messageTooBig(WebSocket webSocket) {
+            logger.warn("HMR message from Vite dev server exceeds {} bytes; closing the relay", MAX_MESSAGE_SIZE);
+            pendingText.setLength(0);
+            pendingBinary.clear();
+            pendingBinarySize = 0;
+            // The rest of the message, and anything after it, is dropped until Vite closes
+            discarding = true;
+            closeBrowser(CloseCodes.TOO_BIG, "HMR message too large");
+            chain(upstream -> upstream.sendClose(CloseCodes.TOO_BIG.getCode(), "HMR message too large"));
+            webSocket.request(1);
+        }
+
+        private static void close(Session session, CloseReason reason) {
+            if (session.isOpen()) {
+                try {
+                    session.close(reason);
+                } catch (IOException e) {
+                    logger.debug("Failed to close HMR browser session", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Browser side of the relay, created by the servlet container on upgrade
+     */
+    public static class BrowserEndpoint extends Endpoint {
+
+        private final Connection connection;
+
+        BrowserEndpoint(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void onOpen(Session session, EndpointConfig config) {
+            if (!connection.browserOpened(session)) {
+                return;
+            }
+
+            session.addMessageHandler(String.class, (MessageHandler.Partial<String>) (text, last) ->
+                    connection.sendUpstream(upstream -> upstream.sendText(text, last)));
+
+            session.addMessageHandler(ByteBuffer.class, (MessageHandler.Partial<ByteBuffer>) (data, last) -> {
+                // The container reuses its read buffer once the handler returns
+                ByteBuffer copy = copy(data);
+                connection.sendUpstream(upstream -> upstream.sendBinary(copy, last));
+            });
+
+            // Start pulling frames from Vite now that they have somewhere to go
+            connection.upstream.request(1);
+        }
+
+        @Override
+        public void onClose(Session session, CloseReason closeReason) {
+            int code = sendableCloseCode(closeReason.getCloseCode().getCode());
+            String reason = closeReason.getReasonPhrase() != null ? closeReason.getReasonPhrase() : "";
+            // Not bounded: the browser is gone and nothing more will be queued
+            connection.chain(upstream -> upstream.sendClose(code, reason));
+        }
+
+        @Override
+        public void onError(Session session, Throwable error) {
+            logger.debug("HMR browser WebSocket error", error);
+            connection.upstream.abort();
+        }
+    }
+
+    /**
+     * Vite side of the relay
+     */
+    static class UpstreamListener implements WebSocket.Listener {
+
+        private final Connection connection;
+
+        UpstreamListener(Connection connection) {
+            this.connection = connection;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            // Frames are requested once the browser side is open
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            if (connection.discarding) {
+                webSocket.request(1);
+                return null;
+            }
+            StringBuilder pending = connection.pendingText;
+            if (pending.length() + data.length() > MAX_MESSAGE_SIZE) {
+                connection.messageTooBig(webSocket);
+                return null;
+            }
+            if (!last) {
+                pending.append(data);
+                webSocket.request(1);
+                return null;
+            }
+
+            String message;
+            if (pending.isEmpty()) {
+                message = data.toString();
+            } else {
+                message = pending.append(data).toString();
+                pending.setLength(0);
+            }
+
+            CompletableFuture<Void> sent = new CompletableFuture<>();
+            connection.getBrowser().getAsyncRemote().sendText(message,
+                    result -> complete(webSocket, sent, result.getException()));
+            return sent;
+        }
+
+        @Override
+        public CompletionStage<?> onBinary(WebSocket webSocket, ByteBuffer data, boolean last) {
+            if (connection.discarding) {
+                webSocket.request(1);
+                return null;
+            }
+            if (connection.pendingBinarySize + data.remaining() > MAX_MESSAGE_SIZE) {
+                connection.messageTooBig(webSocket);
+                return null;
+            }
+            if (!last) {
+                // Collected like text rather than sent with a blocking partial write on the client's thread
+                ByteBuffer fragment = copy(data);
+                connection.pendingBinary.add(fragment);
+                connection.pendingBinarySize += fragment.remaining();
+                webSocket.request(1);
+                return null;
+            }
+
+            // A single-frame message is passed through without copying; the
+            // JDK client keeps the buffer valid until the returned stage completes
+            ByteBuffer message = data;
+            if (!connection.pendingBinary.isEmpty()) {
+                message = ByteBuffer.allocate(connection.pendingBinarySize + data.remaining());
+                for (ByteBuffer fragment : connection.pendingBinary) {
+                    message.put(fragment);
+                }
+                message.put(data).flip();
+                connection.pendingBinary.clear();
+                connection.pendingBinarySize = 0;
+            }
+
+            CompletableFuture<Void> sent = new CompletableFuture<>();
+            connection.getBrowser().getAsyncRemote().sendBinary(message,
+                    result -> complete(webSocket, sent, result.getException()));
+            return sent;
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            connection.closeBrowser(CloseCodes.getCloseCode(sendableCloseCode(statusCode)), reason);
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            logger.debug("HMR upstream WebSocket error", error);
+            connection.closeBrowser(CloseCodes.GOING_AWAY, "Vite connection lost");
+        }
+
+        private void complete(WebSocket webSocket, CompletableFuture<Void> sent, Throwable failure) {
+            if (failure != null) {
+                logger.debug("Failed to relay HMR frame to browser", failure);
+                sent.completeExceptionally(failure);
+                webSocket.abort();
+            } else {
+                sent.complete(null);
+                webSocket.request(1);
+            }
+        }
+    }
+
+    /**
+     * Copy the remaining bytes of a buffer the caller may reuse; the source
+     * is left drained
+     */
+    private static ByteBuffer copy(ByteBuffer data) {
+        int size = data.remaining();
+        ByteBuffer copy = ByteBuffer.allocate(size);
+        copy.put(data);
+        return copy.flip();
+    }
+
+    /**
+     * Codes such as 1005 and 1006 describe a close but may not be sent in a
+     * close frame
+     */
+    private static int sendableCloseCode(int code) {
+        if (code == 1000 || (code >= 1001 && code <= 1003) || (code >= 1007 && code <= 1014)
+                || (code >= 3000 && code <= 4999)) {
+            return code;
+        }
+        return 1000;
+    }
+}
@@ -0,0 +1,130 @@
+package io.icebrew.vite.proxy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+
+/**
+ * Bounded pool of reusable byte buffers used to stream proxied bodies
+ */
+public class ProxyBufferPool {
+
+    private final int bufferSize;
+    private final ArrayBlockingQueue<byte[]> buffers;
+
+    public ProxyBufferPool(int bufferSize, int maxPooledBuffers) {
+        this.bufferSize = Math.max(bufferSize, 1024);
+        this.buffers = new ArrayBlockingQueue<>(Math.max(maxPooledBuffers, 1));
+    }
+
+    /**
+     * Take a buffer from the pool, allocating a new one if the pool is empty
+     */
+    public byte[] acquire() {
+        byte[] buffer = buffers.poll();
+        return buffer != null ? buffer : new byte[bufferSize];
+    }
+
+    /**
+     * Return a buffer to the pool; it is dropped if the pool is already full
+     */
+    public void release(byte[] buffer) {
+        if (buffer != null && buffer.length == bufferSize) {
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Copy everything from the input to the output using a pooled buffer.
+     * The output is flushed whenever the input has no more data immediately
+     * available, so partial bodies reach the other side without waiting for
+     * the rest.
+     *
+     * @return number of bytes copied
+     */
+    public long copy(InputStream in, OutputStream out) throws IOException {
+        return copy(in, out, false, false);
+    }
+
+    /**
+     * Same as {@link #copy(InputStream, OutputStream)}, for an input that
+     * comes from the client.
+     *
+     * @return number of bytes copied
+     * @throws ClientDisconnectedException if reading from the input fails
+     */
+    public long upload(InputStream in, OutputStream out) throws IOException {
+        return copy(in, out, true, false);
+    }
+
+    /**
+     * Same as {@link #copy(InputStream, OutputStream)}, for an output that
+     * leads to the client.
+     *
+     * @return number of bytes copied
+     * @throws ClientDisconnectedException if writing to the output fails
+     */
+    public long transfer(InputStream in, OutputStream out) throws IOException {
+        return copy(in, out, false, true);
+    }
+
+    private long copy(InputStream in, OutputStream out, boolean inputIsClient, boolean outputIsClient)
+            throws IOException {
+        byte[] buffer = acquire();
+        try {
+            long total = 0;
+            int read;
+            while ((read = read(in, buffer, inputIsClient)) != -1) {
+                try {
+                    out.write(buffer, 0, read);
+                    if (in.available() == 0) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    throw outputIsClient ? new ClientDisconnectedException(e) : e;
+                }
+                total += read;
+            }
+            return total;
+        } finally {
+            release(buffer);
+        }
+    }
+
+    private static int read(InputStream in, byte[] buffer, boolean inputIsClient) throws IOException {
+        try {
+            return in.read(buffer);
+        } catch (IOException e) {
+            throw inputIsClient ? new ClientDisconnectedException(e) : e;
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Signals that the client side of a transfer went away: the browser
+     * stopped sending the request body or stopped reading the response
+     */
+    public static class ClientDisconnectedException extends IOException {
+
+        public ClientDisconnectedException(IOException cause) {
+            super(cause.getMessage(), cause);
+        }
+
+        /**
+         * Whether a failure comes from the client; the HTTP clients may wrap
+         * what the request body stream threw
+         */
+        public static boolean isCauseOf(Throwable error) {
+            for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+                if (cause instanceof ClientDisconnectedException) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.icebrew.vite.proxy;
+
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Copies headers between the client and the Vite dev server, leaving out
+ * hop-by-hop headers and those the HTTP clients set themselves
+ */
+public final class ProxyHeaders {
+
+    private static final Set<String> EXCLUDED_REQUEST_HEADERS = Set.of(
+            "host", "connection", "keep-alive", "content-length", "transfer-encoding",
+            "te", "upgrade", "expect", "proxy-connection");
+    private static final Set<String> EXCLUDED_RESPONSE_HEADERS = Set.of(
+            "connection", "keep-alive", "transfer-encoding");
+
+    private ProxyHeaders() {
+    }
+
+    /**
+     * Headers of a client request to forward to Vite
+     */
+    public static HttpHeaders fromRequest(HttpServletRequest request) {
+        HttpHeaders headers = new HttpHeaders();
+        Enumeration<String> headerNames = request.getHeaderNames();
+
+        if (headerNames != null) {
+            while (headerNames.hasMoreElements()) {
+                String headerName = headerNames.nextElement();
+                if (!EXCLUDED_REQUEST_HEADERS.contains(headerName.toLowerCase(Locale.ROOT))) {
+                    List<String> headerValues = Collections.list(request.getHeaders(headerName));
+                    headers.addAll(headerName, headerValues);
+                }
+            }
+        }
+
+        return headers;
+    }
+
+    /**
+     * Add the headers of a Vite response to the client response
+     *
+     * @return the headers that were copied
+     */
+    public static HttpHeaders copyResponseHeaders(Map<String, List<String>> upstream, HttpServletResponse response) {
+        HttpHeaders headers = new HttpHeaders();
+        upstream.forEach((name, values) -> {
+            // ':'-prefixed names are HTTP/2 pseudo-headers
+            if (!name.startsWith(":") && !EXCLUDED_RESPONSE_HEADERS.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+                values.forEach(value -> response.addHeader(name, value));
+            }
+        });
+        return headers;
+    }
+}
@@ -0,0 +1,165 @@
+package io.icebrew.vite.proxy;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.Flow;
+import java.util.function.Consumer;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+/**
+ * Publishes a servlet request body as it becomes readable, never reading
+ * ahead of demand.
+ * <p>
+ * Demand arrives on the HTTP client's threads and data on the container's,
+ * so every signal goes through one drain loop: whichever thread finds it idle
+ * emits, and a thread arriving meanwhile only leaves a note for it to loop
+ * again. The subscriber therefore sees {@code onNext}, {@code onComplete} and
+ * {@code onError} one at a time and in body order. Read failures are
+ * reported as {@link ProxyBufferPool.ClientDisconnectedException}.
+ */
+class RequestBodyPublisher implements Flow.Publisher<ByteBuffer>, Flow.Subscription, ReadListener {
+
+    private final ServletInputStream in;
+    private final ProxyBufferPool bufferPool;
+    private final Consumer<Throwable> onFailure;
+
+    private Flow.Subscriber<? super ByteBuffer> subscriber;
+    private byte[] buffer;
+    private long demand;
+    private Throwable error;
+    private boolean done;
+    private boolean emitting;
+    private boolean missed;
+
+    /**
+     * @param onFailure told when reading the body fails
+     */
+    RequestBodyPublisher(ServletInputStream in, ProxyBufferPool bufferPool, Consumer<Throwable> onFailure) {
+        this.in = in;
+        this.bufferPool = bufferPool;
+        this.onFailure = onFailure;
+        in.setReadListener(this);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super ByteBuffer> subscriber) {
+        synchronized (this) {
+            this.subscriber = subscriber;
+        }
+        subscriber.onSubscribe(this);
+        drain();
+    }
+
+    @Override
+    public void request(long n) {
+        synchronized (this) {
+            demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+        }
+        drain();
+    }
+
+    @Override
+    public synchronized void cancel() {
+        finish();
+    }
+
+    @Override
+    public void onDataAvailable() {
+        drain();
+    }
+
+    @Override
+    public void onAllDataRead() {
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable t) {
+        synchronized (this) {
+            if (error == null) {
+                error = t instanceof IOException e ? new ProxyBufferPool.ClientDisconnectedException(e) : t;
+            }
+        }
+        drain();
+    }
+
+    private void drain() {
+        synchronized (this) {
+            if (emitting) {
+                missed = true;
+                return;
+            }
+            emitting = true;
+        }
+        while (true) {
+            ByteBuffer chunk = null;
+            Throwable failure = null;
+            boolean complete = false;
+            Flow.Subscriber<? super ByteBuffer> target;
+            synchronized (this) {
+                target = subscriber;
+                if (done || target == null) {
+                    emitting = false;
+                    return;
+                }
+                try {
+                    if (error != null) {
+                        failure = error;
+                    } else if (in.isFinished()) {
+                        complete = true;
+                    } else if (demand == 0 || !in.isReady()) {
+                        // isReady() == false schedules onDataAvailable()
+                        if (missed) {
+                            missed = false;
+                            continue;
+                        }
+                        emitting = false;
+                        return;
+                    } else {
+                        if (buffer == null) {
+                            buffer = bufferPool.acquire();
+                        }
+                        int read = in.read(buffer);
+                        if (read < 0) {
+                            complete = true;
+                        } else {
+                            demand--;
+                            // The client may hold on to the chunk after onNext returns, so it gets its own copy
+                            chunk = ByteBuffer.wrap(Arrays.copyOf(buffer, read));
+                        }
+                    }
+                } catch (IOException e) {
+                    failure = new ProxyBufferPool.ClientDisconnectedException(e);
+                }
+                if (failure != null || complete) {
+                    finish();
+                }
+            }
+            if (failure != null) {
+                // Before the client sees it, so the exchange fails with the client-side cause
+                onFailure.accept(failure);
+                target.onError(failure);
+                return;
+            }
+            if (complete) {
+                target.onComplete();
+                return;
+            }
+            target.onNext(chunk);
+        }
+    }
+
+    /**
+     * Stop emitting and give back the read buffer; called with the lock held
+     */
+    private void finish() {
+        done = true;
+        if (buffer != null) {
+            bufferPool.release(buffer);
+            buffer = null;
+        }
+    }
+}
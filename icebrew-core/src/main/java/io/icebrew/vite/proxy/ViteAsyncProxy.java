@@ -0,0 +1,342 @@
+package io.icebrew.vite.proxy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.metrics.ViteMetrics;
+import io.icebrew.vite.proxy.ProxyBufferPool.ClientDisconnectedException;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Fully non-blocking proxy to the Vite dev server.
+ * <p>
+ * The request body is read with a {@link ReadListener} and published to the
+ * JDK {@link HttpClient}; the upstream response body is consumed with
+ * {@code request(1)} flow control and written with a {@link WriteListener}.
+ * No thread waits on the network in either direction, so a small pool serves
+ * any number of slow or long-lived responses.
+ */
+public class ViteAsyncProxy implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteAsyncProxy.class);
+
+    private final ViteProperties.Proxy properties;
+    private final ExecutorService executor;
+    private final HttpClient client;
+    private final ProxyBufferPool bufferPool;
+
+    public ViteAsyncProxy(ViteProperties.Proxy properties) {
+        this.properties = properties;
+        this.bufferPool = new ProxyBufferPool(properties.getBufferSize(), properties.getMaxPooledBuffers());
+
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(properties.getAsyncThreads(), runnable -> {
+            Thread thread = new Thread(runnable, "vite-async-proxy-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getConnectTimeout())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(executor)
+                .build();
+    }
+
+    /**
+     * Proxy a request whose async processing has been started. The context is
+     * completed when the exchange ends, successfully or not.
+     *
+     * @param headers request headers to forward, without hop-by-hop headers
+     * @param depsCache the frontend's deps cache, or {@code null}
+     * @param cacheKey deps cache key to record a 200 response under, or {@code null}
+     * @param metrics measurements of this exchange
+     */
+    public void proxy(AsyncContext asyncContext, URI targetUri, HttpHeaders headers, ViteDepsCache depsCache,
+            String cacheKey, ViteMetrics.ProxyExchange metrics) throws IOException {
+        asyncContext.setTimeout(0);
+        HttpServletRequest request = (HttpServletRequest) asyncContext.getRequest();
+        HttpServletResponse response = (HttpServletResponse) asyncContext.getResponse();
+
+        Exchange exchange = new Exchange(asyncContext, response, depsCache, cacheKey, metrics);
+        HttpRequest.Builder builder = HttpRequest.newBuilder(targetUri)
+                .timeout(properties.getReadTimeout())
+                .method(request.getMethod(), bodyPublisher(request, exchange));
+        headers.forEach((name, values) -> values.forEach(value -> {
+            try {
+                builder.header(name, value);
+            } catch (IllegalArgumentException e) {
+                // Restricted by the JDK client, which sets it itself
+            }
+        }));
+
+        // Registered on the container thread; no-op until the upstream response arrives
+        response.getOutputStream().setWriteListener(exchange.clientWriter());
+
+        client.sendAsync(builder.build(), HttpResponse.BodyHandlers.ofPublisher())
+                .whenComplete((upstreamResponse, failure) -> {
+                    if (failure != null) {
+                        exchange.fail(failure);
+                    } else {
+                        exchange.start(upstreamResponse);
+                    }
+                });
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    private HttpRequest.BodyPublisher bodyPublisher(HttpServletRequest request, Exchange exchange)
+            throws IOException {
+        long contentLength = request.getContentLengthLong();
+        boolean chunked = request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
+        if (contentLength <= 0 && !chunked) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        RequestBodyPublisher publisher = new RequestBodyPublisher(request.getInputStream(), bufferPool,
+                exchange::fail);
+        return contentLength > 0
+                ? HttpRequest.BodyPublishers.fromPublisher(publisher, contentLength)
+                : HttpRequest.BodyPublishers.fromPublisher(publisher);
+    }
+
+    /**
+     * One proxied exchange: relays the upstream response to the client as the
+     * client becomes writable
+     */
+    private class Exchange implements Flow.Subscriber<List<ByteBuffer>> {
+
+        private final AsyncContext asyncContext;
+        private final HttpServletResponse response;
+        private final ViteDepsCache depsCache;
+        private final String cacheKey;
+        private final ViteMetrics.ProxyExchange metrics;
+        private final AtomicBoolean finished = new AtomicBoolean();
+        private final Deque<ByteBuffer> pending = new ArrayDeque<>();
+        private byte[] buffer = bufferPool.acquire();
+
+        private Flow.Subscription subscription;
+        private OutputStream recorder;
+        private boolean requested;
+        private boolean upstreamComplete;
+        private long bytes;
+
+        Exchange(AsyncContext asyncContext, HttpServletResponse response, ViteDepsCache depsCache, String cacheKey,
+                ViteMetrics.ProxyExchange metrics) {
+            this.asyncContext = asyncContext;
+            this.response = response;
+            this.depsCache = depsCache;
+            this.cacheKey = cacheKey;
+            this.metrics = metrics;
+        }
+
+        void start(HttpResponse<Flow.Publisher<List<ByteBuffer>>> upstreamResponse) {
+            metrics.upstreamResponded();
+            int status = upstreamResponse.statusCode();
+            response.setStatus(status);
+
+            HttpHeaders headers = ProxyHeaders.copyResponseHeaders(upstreamResponse.headers().map(), response);
+            if (cacheKey != null && depsCache != null && status == HttpServletResponse.SC_OK) {
+                recorder = depsCache.record(cacheKey, headers, OutputStream.nullOutputStream());
+            }
+
+            upstreamResponse.body().subscribe(this);
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            synchronized (this) {
+                this.subscription = subscription;
+            }
+            drain();
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            synchronized (this) {
+                pending.addAll(buffers);
+                requested = false;
+            }
+            drain();
+        }
+
+        @Override
+        public void onComplete() {
+            synchronized (this) {
+                upstreamComplete = true;
+            }
+            drain();
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            fail(t);
+        }
+
+        /**
+         * Listener for the client output; its errors are the client's, not
+         * upstream's
+         */
+        WriteListener clientWriter() {
+            return new WriteListener() {
+                @Override
+                public void onWritePossible() {
+                    drain();
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    fail(t instanceof IOException e ? new ClientDisconnectedException(e) : t);
+                }
+            };
+        }
+
+        /**
+         * Write as much as the client accepts; ask upstream for more once
+         * everything pending is written
+         */
+        private void drain() {
+            boolean complete = false;
+            boolean requestMore = false;
+            Flow.Subscription current;
+            synchronized (this) {
+                current = subscription;
+                if (finished.get() || current == null) {
+                    return;
+                }
+                try {
+                    ServletOutputStream out = response.getOutputStream();
+                    while (!pending.isEmpty()) {
+                        // isReady() == false schedules onWritePossible()
+                        if (!out.isReady()) {
+                            return;
+                        }
+                        write(out, pending.peek());
+                        if (!pending.peek().hasRemaining()) {
+                            pending.poll();
+                        }
+                    }
+                    if (upstreamComplete) {
+                        complete = true;
+                    } else {
+                        // Pass on partial output (SSE, streamed transforms) without waiting
+                        if (out.isReady()) {
+                            out.flush();
+                        }
+                        if (!requested) {
+                            requested = true;
+                            requestMore = true;
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.debug("Client disconnected while proxying", e);
+                    current.cancel();
+                    finish(null);
+                    return;
+                }
+            }
+            if (requestMore) {
+                current.request(1);
+            } else if (complete) {
+                closeRecorder();
+                finish(null);
+            }
+        }
+
+        private void write(ServletOutputStream out, ByteBuffer data) throws IOException {
+            int length = Math.min(data.remaining(), buffer.length);
+            data.get(buffer, 0, length);
+            out.write(buffer, 0, length);
+            bytes += length;
+            if (recorder != null) {
+                recorder.write(buffer, 0, length);
+            }
+        }
+
+        void fail(Throwable failure) {
+            Flow.Subscription current;
+            synchronized (this) {
+                current = subscription;
+            }
+            if (current != null) {
+                current.cancel();
+            }
+            if (finished.get()) {
+                return;
+            }
+            if (ClientDisconnectedException.isCauseOf(failure)) {
+                logger.debug("Client disconnected while proxying", failure);
+            } else {
+                logger.error("Error proxying request to Vite dev server", failure);
+            }
+            try {
+                if (!response.isCommitted()) {
+                    response.reset();
+                    response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+                }
+            } catch (IllegalStateException e) {
+                // Already committed
+            }
+            finish(failure);
+        }
+
+        private void closeRecorder() {
+            if (recorder != null) {
+                try {
+                    recorder.close();
+                } catch (IOException e) {
+                    logger.debug("Failed to store deps cache entry", e);
+                }
+            }
+        }
+
+        /**
+         * @param failure why the upstream exchange broke off, or {@code null}
+         */
+        private void finish(Throwable failure) {
+            if (finished.compareAndSet(false, true)) {
+                // Read before completing; the response is recycled afterwards
+                int status = response.getStatus();
+                long written;
+                synchronized (this) {
+                    written = bytes;
+                    // drain() checks finished under this lock before touching the buffer
+                    bufferPool.release(buffer);
+                    buffer = null;
+                }
+                asyncContext.complete();
+                if (failure != null) {
+                    metrics.failed(failure);
+                } else {
+                    metrics.completed(status, written, written);
+                }
+            }
+        }
+    }
+}
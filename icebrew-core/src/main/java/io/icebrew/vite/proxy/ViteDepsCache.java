@@ -0,0 +1,258 @@
+package io.icebrew.vite.proxy;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.resource.EntityTags;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Byte-bounded LRU cache for Vite's pre-bundled dependencies.
+ * <p>
+ * Vite serves optimized deps under {@code /node_modules/.vite/deps/} with a
+ * {@code v=<hash>} query parameter, and their content never changes for a
+ * given hash. The cache only holds entries for the current hash. When Vite
+ * re-optimizes and a response for a new hash is stored, that hash becomes
+ * current and the old entries are dropped; the hashes it replaced are
+ * remembered, so a stale browser tab still asking for them only misses and
+ * never rolls the cache back. A dev server restart drops everything.
+ */
+public class ViteDepsCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteDepsCache.class);
+    private static final String DEPS_PATH = "/node_modules/.vite/deps/";
+    private static final int MAX_RETIRED_HASHES = 16;
+
+    private final long maxSize;
+    private final long maxEntrySize;
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long size;
+    private String currentHash;
+    private final Set<String> retiredHashes = new LinkedHashSet<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ViteDepsCache(ViteProperties.Proxy.DepsCache properties) {
+        this.maxSize = properties.getMaxSize().toBytes();
+        this.maxEntrySize = Math.min(properties.getMaxEntrySize().toBytes(), maxSize);
+    }
+
+    /**
+     * Get the cache key for a request, or {@code null} if the response to it
+     * must not be cached
+     */
+    public String cacheKey(HttpServletRequest request) {
+        if (!"GET".equals(request.getMethod())) {
+            return null;
+        }
+        String uri = request.getRequestURI();
+        String query = request.getQueryString();
+        if (query == null || !uri.contains(DEPS_PATH) || versionHash(query) == null) {
+            return null;
+        }
+        return uri + "?" + query;
+    }
+
+    /**
+     * Write a cached response if there is one
+     *
+     * @return number of body bytes written, or {@code -1} if nothing is cached
+     * under the key
+     */
+    public long serve(String key, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Entry entry;
+        synchronized (this) {
+            entry = entries.get(key);
+        }
+        if (entry == null) {
+            misses.increment();
+            return -1;
+        }
+        hits.increment();
+
+        entry.headers.forEach((name, values) -> values.forEach(value -> response.addHeader(name, value)));
+        String etag = entry.headers.getETag();
+        if (etag != null && EntityTags.matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return 0;
+        }
+
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.setContentLength(entry.body.length);
+        response.getOutputStream().write(entry.body);
+        return entry.body.length;
+    }
+
+    /**
+     * Wrap the client output so the body is captured while it streams through.
+     * The entry is stored once the returned stream is closed, provided it stayed
+     * within the entry size limit.
+     */
+    public OutputStream record(String key, HttpHeaders headers, OutputStream out) {
+        long contentLength = headers.getContentLength();
+        if (contentLength > maxEntrySize || headers.containsKey(HttpHeaders.SET_COOKIE)) {
+            return out;
+        }
+        HttpHeaders storedHeaders = new HttpHeaders();
+        headers.forEach((name, values) -> {
+            if (!HttpHeaders.DATE.equalsIgnoreCase(name) && !HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                storedHeaders.addAll(name, values);
+            }
+        });
+        return new RecordingOutputStream(out, key, storedHeaders,
+                contentLength > 0 ? (int) contentLength : 8192);
+    }
+
+    /**
+     * Drop all entries, e.g. after the dev server restarted
+     */
+    public synchronized void clear() {
+        if (!entries.isEmpty()) {
+            logger.debug("Clearing {} cached Vite dependencies", entries.size());
+        }
+        entries.clear();
+        size = 0;
+        currentHash = null;
+        retiredHashes.clear();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public synchronized long getSize() {
+        return size;
+    }
+
+    public synchronized int getEntryCount() {
+        return entries.size();
+    }
+
+    private synchronized void store(String key, HttpHeaders headers, byte[] body) {
+        if (!rollHash(versionHash(key))) {
+            return;
+        }
+        Entry previous = entries.put(key, new Entry(headers, body));
+        if (previous != null) {
+            size -= previous.body.length;
+        }
+        size += body.length;
+
+        Iterator<Map.Entry<String, Entry>> eldest = entries.entrySet().iterator();
+        while (size > maxSize && eldest.hasNext()) {
+            size -= eldest.next().getValue().body.length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Make the given hash the current one if it is new, dropping entries
+     * cached under the hash it replaces
+     *
+     * @return {@code false} if entries for the hash must not be stored
+     * because it is unknown or has already been replaced
+     */
+    private boolean rollHash(String hash) {
+        if (hash == null || retiredHashes.contains(hash)) {
+            return false;
+        }
+        if (!hash.equals(currentHash)) {
+            if (currentHash != null) {
+                logger.debug("Vite dependency hash changed from {} to {}", currentHash, hash);
+                retiredHashes.add(currentHash);
+                if (retiredHashes.size() > MAX_RETIRED_HASHES) {
+                    retiredHashes.remove(retiredHashes.iterator().next());
+                }
+            }
+            entries.clear();
+            size = 0;
+            currentHash = hash;
+        }
+        return true;
+    }
+
+    private static String versionHash(String query) {
+        int start = query.indexOf("?");
+        for (String param : query.substring(start + 1).split("&")) {
+            if (param.startsWith("v=") && param.length() > 2) {
+                return param.substring(2);
+            }
+        }
+        return null;
+    }
+
+    private record Entry(HttpHeaders headers, byte[] body) {
+    }
+
+    private class RecordingOutputStream extends FilterOutputStream {
+
+        private final String key;
+        private final HttpHeaders headers;
+        private ByteArrayOutputStream recorded;
+
+        RecordingOutputStream(OutputStream out, String key, HttpHeaders headers, int initialSize) {
+            super(out);
+            this.key = key;
+            this.headers = headers;
+            this.recorded = new ByteArrayOutputStream(initialSize);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            if (recorded != null) {
+                recorded.write(b);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            if (recorded != null) {
+                recorded.write(b, off, len);
+                checkLimit();
+            }
+        }
+
+        @Override
+        public void close() {
+            // The servlet output stream is left open; only the recording ends here
+            if (recorded != null) {
+                store(key, headers, recorded.toByteArray());
+                recorded = null;
+            }
+        }
+
+        private void checkLimit() {
+            if (recorded.size() > maxEntrySize) {
+                recorded = null;
+            }
+        }
+    }
+}
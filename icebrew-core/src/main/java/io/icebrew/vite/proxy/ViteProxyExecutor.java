@@ -0,0 +1,76 @@
+package io.icebrew.vite.proxy;
+
+import java.util.concurrent.Semaphore;
+
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+/**
+ * Runs proxied requests off the servlet container threads, with at most a
+ * fixed number in flight.
+ * <p>
+ * Waiting for a permit blocks the executing thread, not the container thread,
+ * which is cheap when that thread is virtual.
+ */
+public class ViteProxyExecutor {
+
+    private final TaskExecutor executor;
+    private final Semaphore permits;
+    private final int maxConcurrentRequests;
+
+    public ViteProxyExecutor(TaskExecutor executor, int maxConcurrentRequests) {
+        this.executor = executor;
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+        this.maxConcurrentRequests = maxConcurrentRequests;
+    }
+
+    /**
+     * One new virtual thread per request (Java 21+)
+     */
+    public static ViteProxyExecutor virtualThreads(int maxConcurrentRequests) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("vite-proxy-");
+        executor.setVirtualThreads(true);
+        return new ViteProxyExecutor(executor, maxConcurrentRequests);
+    }
+
+    /**
+     * Run on the calling thread, for containers that already handle requests
+     * on virtual threads; only the concurrency limit applies
+     */
+    public static ViteProxyExecutor callerThread(int maxConcurrentRequests) {
+        return new ViteProxyExecutor(new SyncTaskExecutor(), maxConcurrentRequests);
+    }
+
+    /**
+     * Whether tasks run on the calling thread
+     */
+    public boolean isSynchronous() {
+        return executor instanceof SyncTaskExecutor;
+    }
+
+    public void execute(Runnable task) {
+        executor.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * Number of requests currently being proxied
+     */
+    public int getActiveCount() {
+        return maxConcurrentRequests - permits.availablePermits();
+    }
+
+    /**
+     * Number of requests waiting for a permit
+     */
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+}
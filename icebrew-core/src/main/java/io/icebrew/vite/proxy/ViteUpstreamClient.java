@@ -0,0 +1,145 @@
+package io.icebrew.vite.proxy;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.http.io.EofSensorInputStream;
+import org.apache.hc.core5.http.io.SocketConfig;
+import org.apache.hc.core5.io.CloseMode;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import io.icebrew.vite.config.ViteProperties;
+
+/**
+ * Pooled keep-alive HTTP client used to talk to the Vite dev server
+ */
+public class ViteUpstreamClient implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteUpstreamClient.class);
+
+    private final ViteProperties.Proxy proxyProperties;
+    private final PoolingHttpClientConnectionManager connectionManager;
+    private final CloseableHttpClient httpClient;
+    private final HttpComponentsClientHttpRequestFactory requestFactory;
+
+    public ViteUpstreamClient(ViteProperties.Proxy proxyProperties) {
+        this.proxyProperties = proxyProperties;
+
+        Timeout connectTimeout = Timeout.of(proxyProperties.getConnectTimeout());
+        Timeout readTimeout = Timeout.of(proxyProperties.getReadTimeout());
+
+        this.connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(proxyProperties.getMaxConnections())
+                .setMaxConnPerRoute(proxyProperties.getMaxConnections())
+                .setDefaultSocketConfig(SocketConfig.custom()
+                        .setTcpNoDelay(true)
+                        .setSoKeepAlive(true)
+                        .build())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(connectTimeout)
+                        .setSocketTimeout(readTimeout)
+                        .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                        .build())
+                .build();
+
+        // Redirects, cookies and content decoding must reach the browser untouched
+        this.httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(connectTimeout)
+                        .setResponseTimeout(readTimeout)
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(proxyProperties.getIdleTimeout()))
+                .disableRedirectHandling()
+                .disableCookieManagement()
+                .disableContentCompression()
+                .disableAuthCaching()
+                .build();
+
+        this.requestFactory = new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+
+    /**
+     * Request factory backed by the shared connection pool
+     */
+    public ClientHttpRequestFactory getRequestFactory() {
+        return requestFactory;
+    }
+
+    /**
+     * Open connections to the dev server ahead of the first page load so the
+     * initial burst of module requests finds them already established
+     */
+    public void prewarm(String devServerUrl) {
+        int connections = Math.min(proxyProperties.getPrewarmConnections(), proxyProperties.getMaxConnections());
+        if (connections <= 0) {
+            return;
+        }
+
+        URI probeUri = URI.create(devServerUrl + "/@vite/client");
+        AtomicInteger opened = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(connections, runnable -> {
+            Thread thread = new Thread(runnable, "icebrew-prewarm");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        try {
+            CompletableFuture<?>[] requests = new CompletableFuture<?>[connections];
+            for (int i = 0; i < connections; i++) {
+                requests[i] = CompletableFuture.runAsync(() -> {
+                    try (ClientHttpResponse response = requestFactory.createRequest(probeUri, HttpMethod.HEAD)
+                            .execute()) {
+                        response.getStatusCode();
+                        opened.incrementAndGet();
+                    } catch (IOException e) {
+                        logger.debug("Failed to pre-warm connection to Vite dev server", e);
+                    }
+                }, executor);
+            }
+            CompletableFuture.allOf(requests).join();
+        } finally {
+            executor.shutdown();
+        }
+
+        logger.debug("Pre-warmed {} connection(s) to Vite dev server", opened.get());
+    }
+
+    /**
+     * Give up on an upstream body without reading the rest of it; the
+     * underlying connection is discarded instead of being returned to the pool
+     */
+    public void abort(InputStream body) throws IOException {
+        if (body instanceof EofSensorInputStream sensorStream) {
+            sensorStream.abort();
+        } else {
+            body.close();
+        }
+    }
+
+    @Override
+    public void close() {
+        httpClient.close(CloseMode.GRACEFUL);
+        connectionManager.close(CloseMode.GRACEFUL);
+    }
+}
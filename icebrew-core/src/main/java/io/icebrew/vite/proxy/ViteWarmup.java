@@ -0,0 +1,245 @@
+package io.icebrew.vite.proxy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+
+import io.icebrew.vite.config.ViteProperties;
+
+/**
+ * Requests the app's module graph from the Vite dev server so that Vite
+ * transforms and caches every module before the browser asks for it.
+ * <p>
+ * Starting from the configured entries, or from the scripts referenced by
+ * {@code index.html}, each module is fetched and the static and dynamic
+ * imports in Vite's output are followed. Vite rewrites imports to absolute
+ * URLs, so only those are followed; pre-bundled dependencies are served from
+ * disk and skipped. Configured entries are relative to the frontend's base
+ * path.
+ */
+public class ViteWarmup {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteWarmup.class);
+
+    private static final Pattern IMPORT_PATTERN = Pattern.compile(
+            "(?:\\bimport|\\bexport)\\s*(?:[\\w*{}\\s,$]*?\\bfrom\\s*)?[\"']([^\"'\\s]+)[\"']"
+                    + "|\\bimport\\s*\\(\\s*[\"']([^\"'\\s]+)[\"']\\s*\\)");
+    private static final Pattern HTML_REFERENCE_PATTERN = Pattern.compile(
+            "<(?:script|link)\\b[^>]*?\\b(?:src|href)\\s*=\\s*[\"']([^\"']+)[\"']", Pattern.CASE_INSENSITIVE);
+    private static final String DEPS_PATH = "/node_modules/.vite/deps/";
+    private static final int PROGRESS_INTERVAL = 100;
+
+    private final ViteProperties viteProperties;
+    private final ViteUpstreamClient upstreamClient;
+
+    public ViteWarmup(ViteProperties viteProperties, ViteUpstreamClient upstreamClient) {
+        this.viteProperties = viteProperties;
+        this.upstreamClient = upstreamClient;
+    }
+
+    /**
+     * Warm up in the background
+     *
+     * @param basePath path the frontend is served under, without trailing slash
+     */
+    public CompletableFuture<Void> start(String devServerUrl, String basePath) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                warmUp(devServerUrl, basePath);
+                result.complete(null);
+            } catch (RuntimeException e) {
+                logger.warn("Vite warm-up failed", e);
+                result.completeExceptionally(e);
+            }
+        }, "vite-warmup");
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
+
+    /**
+     * Request every module reachable from the entries, with bounded
+     * parallelism, and wait until all are done
+     *
+     * @return the number of modules requested
+     */
+    public int warmUp(String devServerUrl, String basePath) {
+        ViteProperties.Warmup warmup = viteProperties.getWarmup();
+        long startedAt = System.nanoTime();
+        Crawl crawl = new Crawl(URI.create(devServerUrl), warmup.getParallelism(), warmup.getMaxModules());
+        try {
+            List<String> entries = warmup.getEntries();
+            if (entries.isEmpty()) {
+                crawl.run(List.of(basePath + "/"));
+            } else {
+                logger.info("Warming up Vite transforms from {} entry point(s)", entries.size());
+                // Relative to Vite's base, like the page itself
+                crawl.run(entries.stream()
+                        .map(entry -> basePath + (entry.startsWith("/") ? entry : "/" + entry))
+                        .toList());
+            }
+        } finally {
+            crawl.close();
+        }
+
+        long elapsed = (System.nanoTime() - startedAt) / 1_000_000;
+        if (crawl.failed.get() > 0) {
+            logger.info("Vite warm-up requested {} module(s) in {} ms; {} failed", crawl.requested.get(),
+                    elapsed, crawl.failed.get());
+        } else {
+            logger.info("Vite warm-up requested {} module(s) in {} ms", crawl.requested.get(), elapsed);
+        }
+        if (crawl.truncated) {
+            logger.info("Vite warm-up stopped at icebrew.vite.warmup.max-modules={}", warmup.getMaxModules());
+        }
+        return crawl.requested.get();
+    }
+
+    /**
+     * One warm-up run: a work queue of module paths, each requested once
+     */
+    private class Crawl {
+
+        private final URI devServerUri;
+        private final int maxModules;
+        private final ExecutorService executor;
+        private final Set<String> seen = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicInteger requested = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile boolean truncated;
+
+        Crawl(URI devServerUri, int parallelism, int maxModules) {
+            this.devServerUri = devServerUri;
+            this.maxModules = maxModules;
+            AtomicInteger threadCount = new AtomicInteger();
+            this.executor = Executors.newFixedThreadPool(Math.max(1, parallelism), runnable -> {
+                Thread thread = new Thread(runnable, "vite-warmup-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * Crawl from the given paths and wait until every reachable module is done
+         */
+        void run(List<String> roots) {
+            // Held while seeding so a quick first module can't finish the crawl early
+            pending.incrementAndGet();
+            roots.forEach(this::submit);
+            release();
+            done.join();
+        }
+
+        void submit(String path) {
+            // Query strings distinguish variants (?import, ?v=...), so they are part of the key
+            // Under the base path, if Vite has one
+            if (path.contains(DEPS_PATH) || !seen.add(path)) {
+                return;
+            }
+            if (seen.size() > maxModules) {
+                truncated = true;
+                return;
+            }
+            pending.incrementAndGet();
+            executor.execute(() -> {
+                try {
+                    fetch(path);
+                } finally {
+                    release();
+                }
+            });
+        }
+
+        private void release() {
+            if (pending.decrementAndGet() == 0) {
+                done.complete(null);
+            }
+        }
+
+        void close() {
+            executor.shutdownNow();
+        }
+
+        private void fetch(String path) {
+            URI uri = devServerUri.resolve(path);
+            long startedAt = System.nanoTime();
+            try {
+                ClientHttpRequest request = upstreamClient.getRequestFactory().createRequest(uri, HttpMethod.GET);
+                // What a browser sends: HTML for the page, a module script for everything else
+                request.getHeaders().set(HttpHeaders.ACCEPT, path.endsWith("/") ? MediaType.TEXT_HTML_VALUE : "*/*");
+
+                String body;
+                MediaType contentType;
+                try (ClientHttpResponse response = request.execute()) {
+                    if (!response.getStatusCode().is2xxSuccessful()) {
+                        failed.incrementAndGet();
+                        logger.debug("Warm-up of {} returned {}", path, response.getStatusCode().value());
+                        return;
+                    }
+                    contentType = response.getHeaders().getContentType();
+                    try (InputStream in = response.getBody()) {
+                        body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                    }
+                }
+
+                int count = requested.incrementAndGet();
+                logger.debug("Warmed up {} in {} ms", path, (System.nanoTime() - startedAt) / 1_000_000);
+                if (count % PROGRESS_INTERVAL == 0) {
+                    logger.info("Vite warm-up: {} module(s) requested, {} in progress", count, pending.get());
+                }
+
+                boolean html = contentType != null && contentType.isCompatibleWith(MediaType.TEXT_HTML);
+                if (html) {
+                    followReferences(uri, body, HTML_REFERENCE_PATTERN);
+                }
+                // Inline module scripts in the page carry imports too
+                followReferences(uri, body, IMPORT_PATTERN);
+            } catch (IOException e) {
+                failed.incrementAndGet();
+                logger.debug("Warm-up of {} failed", path, e);
+            }
+        }
+
+        private void followReferences(URI base, String content, Pattern pattern) {
+            Matcher matcher = pattern.matcher(content);
+            while (matcher.find()) {
+                String reference = matcher.group(1) != null ? matcher.group(1) : matcher.group(2);
+                if (reference == null || reference.startsWith("data:") || reference.contains("://")
+                        || reference.startsWith("//")) {
+                    continue;
+                }
+                if (!reference.startsWith("/") && !reference.startsWith(".")) {
+                    // A bare specifier Vite did not rewrite
+                    continue;
+                }
+                URI resolved = base.resolve(reference);
+                String path = resolved.getRawPath();
+                if (resolved.getRawQuery() != null) {
+                    path += "?" + resolved.getRawQuery();
+                }
+                submit(path);
+            }
+        }
+    }
+}
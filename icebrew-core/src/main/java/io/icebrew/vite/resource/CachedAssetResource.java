@@ -0,0 +1,148 @@
+package io.icebrew.vite.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+
+/**
+ * File resource whose content and metadata come from the
+ * {@link ViteAssetCache} when the file is cached.
+ * <p>
+ * The resource only holds a handle to the file, never the bytes, so resource
+ * resolution caches that keep resolved resources around do not extend the
+ * lifetime of evicted entries.
+ */
+public class CachedAssetResource extends AbstractResource {
+
+    private final Resource file;
+    private final File path;
+    private final ViteAssetCache cache;
+
+    public CachedAssetResource(Resource file, ViteAssetCache cache) throws IOException {
+        this.file = file;
+        this.path = file.getFile();
+        this.cache = cache;
+    }
+
+    @Override
+    public boolean exists() {
+        return cache.peek(path) != null || file.exists();
+    }
+
+    @Override
+    public boolean isReadable() {
+        return cache.peek(path) != null || file.isReadable();
+    }
+
+    @Override
+    public boolean isFile() {
+        return true;
+    }
+
+    @Override
+    public File getFile() {
+        return path;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        ViteAssetCache.Entry entry = cache.peek(path);
+        return entry != null ? entry.length() : file.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        ViteAssetCache.Entry entry = cache.peek(path);
+        return entry != null ? entry.lastModified() : file.lastModified();
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        ViteAssetCache.Entry entry = cache.get(path);
+        return entry != null ? new BufferInputStream(entry.content()) : file.getInputStream();
+    }
+
+    @Override
+    public Resource createRelative(String relativePath) throws IOException {
+        return new CachedAssetResource(file.createRelative(relativePath), cache);
+    }
+
+    @Override
+    public String getFilename() {
+        return file.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return "cached " + file.getDescription();
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof CachedAssetResource that && path.equals(that.path));
+    }
+
+    @Override
+    public int hashCode() {
+        return path.hashCode();
+    }
+
+    /**
+     * Stream over a cached buffer. {@link #transferTo(OutputStream)} writes
+     * heap buffers straight from their backing array.
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(long n) {
+            int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public long transferTo(OutputStream out) throws IOException {
+            int count = buffer.remaining();
+            if (buffer.hasArray()) {
+                out.write(buffer.array(), buffer.arrayOffset() + buffer.position(), count);
+                buffer.position(buffer.limit());
+                return count;
+            }
+            return super.transferTo(out);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package io.icebrew.vite.resource;
+
+import java.util.Enumeration;
+
+/**
+ * Matches entity tags against {@code If-None-Match} request headers
+ */
+public final class EntityTags {
+
+    private EntityTags() {
+    }
+
+    /**
+     * Weak comparison, as required for {@code If-None-Match}, against each
+     * entity tag in each header value, including {@code *}
+     *
+     * @param etag quoted entity tag, weak or strong
+     */
+    public static boolean matches(Enumeration<String> ifNoneMatch, String etag) {
+        String opaqueTag = opaqueTag(etag);
+        while (ifNoneMatch != null && ifNoneMatch.hasMoreElements()) {
+            for (String tag : ifNoneMatch.nextElement().split(",")) {
+                tag = tag.trim();
+                if (tag.equals("*") || opaqueTag(tag).equals(opaqueTag)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static String opaqueTag(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+}
@@ -0,0 +1,117 @@
+package io.icebrew.vite.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+
+import org.springframework.core.io.AbstractResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.util.StringUtils;
+import org.springframework.web.servlet.resource.HttpResource;
+
+/**
+ * Packaged build file whose existence, length and content type come from the
+ * {@link ViteAssetIndex} instead of a classpath lookup.
+ * <p>
+ * Only {@link #getInputStream()} and the first {@link #getURL()} reach the
+ * underlying resource. Siblings created with {@link #createRelative(String)},
+ * such as the {@code .br} and {@code .gz} variants, are answered from the same
+ * index.
+ */
+public class IndexedAssetResource extends AbstractResource implements HttpResource {
+
+    private final Resource resource;
+    private final ViteAssetIndex.Asset asset;
+    private final ViteAssetIndex index;
+    private volatile URL url;
+
+    /**
+     * @param asset the index entry for the resource, or {@code null} if the
+     *              index has none and the resource does not exist
+     */
+    public IndexedAssetResource(Resource resource, ViteAssetIndex.Asset asset, ViteAssetIndex index) {
+        this.resource = resource;
+        this.asset = asset;
+        this.index = index;
+    }
+
+    /**
+     * Index entry, or {@code null} if the resource does not exist
+     */
+    public ViteAssetIndex.Asset getAsset() {
+        return asset;
+    }
+
+    @Override
+    public boolean exists() {
+        return asset != null;
+    }
+
+    @Override
+    public boolean isReadable() {
+        return asset != null;
+    }
+
+    @Override
+    public long contentLength() throws IOException {
+        return asset != null ? asset.length() : resource.contentLength();
+    }
+
+    @Override
+    public long lastModified() throws IOException {
+        return resource.lastModified();
+    }
+
+    @Override
+    public URL getURL() throws IOException {
+        // Resolved resources are cached by the resource chain, so this resolves once
+        URL result = url;
+        if (result == null) {
+            result = resource.getURL();
+            url = result;
+        }
+        return result;
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return resource.getInputStream();
+    }
+
+    @Override
+    public Resource createRelative(String relativePath) throws IOException {
+        String path = asset != null ? StringUtils.applyRelativePath(asset.path(), relativePath) : null;
+        return new IndexedAssetResource(resource.createRelative(relativePath),
+                path != null ? index.get(path) : null, index);
+    }
+
+    @Override
+    public String getFilename() {
+        return resource.getFilename();
+    }
+
+    @Override
+    public String getDescription() {
+        return "indexed " + resource.getDescription();
+    }
+
+    @Override
+    public HttpHeaders getResponseHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        if (asset != null && asset.contentType() != null) {
+            headers.set(HttpHeaders.CONTENT_TYPE, asset.contentType());
+        }
+        return headers;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof IndexedAssetResource that && resource.equals(that.resource));
+    }
+
+    @Override
+    public int hashCode() {
+        return resource.hashCode();
+    }
+}
@@ -0,0 +1,335 @@
+package io.icebrew.vite.resource;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.icebrew.vite.config.ViteProperties;
+
+/**
+ * In-memory cache for the hottest files of the Vite build output.
+ * <p>
+ * File contents are held on heap, in direct buffers or as read-only memory
+ * mappings, within a fixed byte budget. Once a file is cached, serving it
+ * needs no file system access. When the budget is exceeded, entries are
+ * evicted according to the configured policy, in constant time for LRU and
+ * logarithmic in the number of distinct hit counts for LFU.
+ * <p>
+ * Evicted direct and mapped buffers are not released explicitly, since a
+ * request may still be writing from them; their memory, or the mapping, is
+ * reclaimed once the garbage collector finds them unreachable. With
+ * {@code mapped} storage the mappings also keep evicted files open until
+ * then.
+ */
+public class ViteAssetCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteAssetCache.class);
+
+    private final ViteProperties.Assets.MemoryCache properties;
+    private final long maxSize;
+    private final long maxFileSize;
+    // Read without locking; changed together with the eviction order under the cache's lock
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final EvictionOrder order;
+    private final AtomicLong size = new AtomicLong();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ViteAssetCache(ViteProperties.Assets.MemoryCache properties) {
+        this.properties = properties;
+        this.maxSize = properties.getMaxSize().toBytes();
+        this.maxFileSize = Math.min(properties.getMaxFileSize().toBytes(), maxSize);
+        this.order = properties.getEviction() == ViteProperties.Assets.Eviction.LFU
+                ? new LeastFrequentlyUsed()
+                : new LeastRecentlyUsed();
+    }
+
+    /**
+     * Get the cached entry for a file without loading it
+     */
+    public Entry peek(File file) {
+        return entries.get(file.getPath());
+    }
+
+    /**
+     * Get the cached entry for a file, loading it if it fits in the budget
+     *
+     * @return the entry, or {@code null} if the file is not cacheable
+     */
+    public Entry get(File file) {
+        Entry entry = entries.get(file.getPath());
+        if (entry != null) {
+            hits.increment();
+            synchronized (this) {
+                if (entries.get(file.getPath()) == entry) {
+                    order.accessed(entry);
+                }
+            }
+            return entry;
+        }
+        misses.increment();
+        return load(file);
+    }
+
+    /**
+     * Load files into the cache ahead of the first request
+     */
+    public void preload(List<File> files) {
+        int loaded = 0;
+        for (File file : files) {
+            if (entries.containsKey(file.getPath()) || load(file) != null) {
+                loaded++;
+            }
+        }
+        logger.info("Preloaded {} of {} asset(s) into memory ({} KB)", loaded, files.size(), size.get() / 1024);
+    }
+
+    /**
+     * Drop the entries whose file changed or was removed since it was cached,
+     * e.g. after a rebuild
+     *
+     * @return the number of entries dropped
+     */
+    public int invalidateStale() {
+        int invalidated = 0;
+        for (Entry entry : entries.values()) {
+            File file = new File(entry.key);
+            if (file.lastModified() == entry.lastModified && file.length() == entry.length()) {
+                continue;
+            }
+            synchronized (this) {
+                if (entries.remove(entry.key, entry)) {
+                    order.removed(entry);
+                    size.addAndGet(-entry.length());
+                    invalidated++;
+                }
+            }
+        }
+        return invalidated;
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public long getSize() {
+        return size.get();
+    }
+
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+    private Entry load(File file) {
+        long length = file.length();
+        if (length <= 0 || length > maxFileSize || !file.isFile()) {
+            return null;
+        }
+
+        Entry entry;
+        try {
+            entry = new Entry(file.getPath(), read(file.toPath(), length), file.lastModified());
+        } catch (IOException e) {
+            logger.debug("Failed to cache asset {}", file, e);
+            return null;
+        }
+
+        synchronized (this) {
+            Entry existing = entries.putIfAbsent(entry.key, entry);
+            if (existing != null) {
+                return existing;
+            }
+            order.added(entry);
+            size.addAndGet(length);
+            evict(entry);
+            return entries.get(entry.key) == entry ? entry : null;
+        }
+    }
+
+    private ByteBuffer read(Path path, long length) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (properties.getStorage() == ViteProperties.Assets.Storage.MAPPED) {
+                return channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+            }
+
+            ByteBuffer buffer = properties.getStorage() == ViteProperties.Assets.Storage.DIRECT
+                    ? ByteBuffer.allocateDirect((int) length)
+                    : ByteBuffer.allocate((int) length);
+            while (buffer.hasRemaining() && channel.read(buffer) != -1) {
+                // keep reading until the buffer is full
+            }
+            return buffer.flip();
+        }
+    }
+
+    /**
+     * Evict entries until the cache is back within budget. The entry that was
+     * just added is only evicted if nothing else is left.
+     */
+    private void evict(Entry added) {
+        while (size.get() > maxSize) {
+            Entry victim = order.victim(added);
+            if (victim == null) {
+                victim = added;
+            }
+            order.removed(victim);
+            entries.remove(victim.key);
+            size.addAndGet(-victim.length());
+            evictions.increment();
+            if (victim == added) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Order in which entries are evicted; only used with the cache's lock held
+     */
+    private interface EvictionOrder {
+
+        void added(Entry entry);
+
+        void accessed(Entry entry);
+
+        void removed(Entry entry);
+
+        /**
+         * The next entry to evict other than the given one, or {@code null}
+         * if there is none
+         */
+        Entry victim(Entry keep);
+    }
+
+    /**
+     * Entries from least to most recently used
+     */
+    private static class LeastRecentlyUsed implements EvictionOrder {
+
+        private final LinkedHashSet<Entry> entries = new LinkedHashSet<>();
+
+        @Override
+        public void added(Entry entry) {
+            entries.add(entry);
+        }
+
+        @Override
+        public void accessed(Entry entry) {
+            entries.remove(entry);
+            entries.add(entry);
+        }
+
+        @Override
+        public void removed(Entry entry) {
+            entries.remove(entry);
+        }
+
+        @Override
+        public Entry victim(Entry keep) {
+            for (Entry entry : entries) {
+                // The kept entry was added last, so this looks at two entries at most
+                if (entry != keep) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Entries grouped by hit count, least recently used first within a group
+     */
+    private static class LeastFrequentlyUsed implements EvictionOrder {
+
+        private final TreeMap<Long, LinkedHashSet<Entry>> byHits = new TreeMap<>();
+
+        @Override
+        public void added(Entry entry) {
+            byHits.computeIfAbsent(entry.hitCount, hits -> new LinkedHashSet<>()).add(entry);
+        }
+
+        @Override
+        public void accessed(Entry entry) {
+            removed(entry);
+            entry.hitCount++;
+            added(entry);
+        }
+
+        @Override
+        public void removed(Entry entry) {
+            LinkedHashSet<Entry> group = byHits.get(entry.hitCount);
+            group.remove(entry);
+            if (group.isEmpty()) {
+                byHits.remove(entry.hitCount);
+            }
+        }
+
+        @Override
+        public Entry victim(Entry keep) {
+            for (LinkedHashSet<Entry> group : byHits.values()) {
+                Iterator<Entry> candidates = group.iterator();
+                while (candidates.hasNext()) {
+                    Entry entry = candidates.next();
+                    if (entry != keep) {
+                        return entry;
+                    }
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A cached file. {@link #content()} returns a view with its own read
+     * position; its contents must not be modified.
+     */
+    public static final class Entry {
+
+        private final String key;
+        private final ByteBuffer data;
+        private final long lastModified;
+        // Guarded by the cache's lock
+        private long hitCount;
+
+        Entry(String key, ByteBuffer data, long lastModified) {
+            this.key = key;
+            this.data = data;
+            this.lastModified = lastModified;
+        }
+
+        public ByteBuffer content() {
+            return data.duplicate();
+        }
+
+        public long length() {
+            return data.limit();
+        }
+
+        public long lastModified() {
+            return lastModified;
+        }
+    }
+}
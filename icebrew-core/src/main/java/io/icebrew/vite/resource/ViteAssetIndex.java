@@ -0,0 +1,216 @@
+package io.icebrew.vite.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.util.UriUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Paths, sizes, content hashes and content types of every file in the Vite
+ * build output.
+ * <p>
+ * The index is either computed by scanning a build directory at startup or
+ * read from the JSON file written at build time by
+ * {@link io.icebrew.vite.build.ViteAssetPackager}. Hashes depend only on file
+ * contents, so validators stay the same across redeploys that rebuild or copy
+ * the same files.
+ */
+public class ViteAssetIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteAssetIndex.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    /** File name of a packaged index */
+    public static final String INDEX_FILE = "asset-index.json";
+
+    /** Directory next to a packaged index that holds the indexed files */
+    public static final String DIST_DIR = "dist";
+
+    private static final int HASH_LENGTH = 16;
+
+    /** Content codings and file extensions, in EncodedResourceResolver's order */
+    private static final List<String[]> CODINGS = List.of(new String[] { "br", ".br" }, new String[] { "gzip", ".gz" });
+
+    private final Path root;
+    private final String rootUrl;
+    private final Map<String, Asset> assets;
+
+    private ViteAssetIndex(Path root, String rootUrl, Map<String, Asset> assets) {
+        this.root = root;
+        this.rootUrl = rootUrl;
+        this.assets = assets;
+    }
+
+    /**
+     * Hash every regular file below a build directory
+     */
+    public static ViteAssetIndex scan(Path buildDir) {
+        Path root = buildDir.toAbsolutePath().normalize();
+        long start = System.currentTimeMillis();
+
+        try {
+            Map<String, Asset> assets = toMap(scanFiles(root));
+            logger.info("Indexed {} build file(s) in {} ms", assets.size(), System.currentTimeMillis() - start);
+            return new ViteAssetIndex(root, null, assets);
+        } catch (IOException e) {
+            logger.warn("Failed to index build directory {}; ETags are disabled", root, e);
+            return new ViteAssetIndex(root, null, Map.of());
+        }
+    }
+
+    /**
+     * Read an index written at build time. The indexed files are expected in
+     * the {@value #DIST_DIR} directory next to the index.
+     */
+    public static ViteAssetIndex load(Resource index) throws IOException {
+        try (InputStream in = index.getInputStream()) {
+            Asset[] assets = objectMapper.readValue(in, Asset[].class);
+            String indexUrl = index.getURL().toString();
+            String rootUrl = indexUrl.substring(0, indexUrl.lastIndexOf('/') + 1) + DIST_DIR + "/";
+            logger.debug("Loaded asset index {} with {} file(s)", index, assets.length);
+            return new ViteAssetIndex(null, rootUrl, toMap(List.of(assets)));
+        }
+    }
+
+    /**
+     * Hash every regular file below a build directory and write the result as
+     * JSON
+     */
+    public static void write(Path buildDir, OutputStream out) throws IOException {
+        objectMapper.writer(SerializationFeature.INDENT_OUTPUT)
+                .writeValue(out, scanFiles(buildDir.toAbsolutePath().normalize()));
+    }
+
+    /**
+     * Get an asset by request path (starting with {@code /})
+     */
+    public Asset get(String path) {
+        return assets.get(path);
+    }
+
+    /**
+     * Get the asset a resolved resource was read from
+     */
+    public Asset get(Resource resource) {
+        if (resource instanceof IndexedAssetResource indexed) {
+            return indexed.getAsset();
+        }
+        try {
+            if (root != null) {
+                Path file = resource.getFile().toPath().toAbsolutePath().normalize();
+                return file.startsWith(root) ? assets.get(toRequestPath(root, file)) : null;
+            }
+            String url = resource.getURL().toString();
+            if (url.startsWith(rootUrl)) {
+                return assets.get("/" + UriUtils.decode(url.substring(rootUrl.length()), StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            logger.debug("Cannot locate resource {} in the asset index", resource, e);
+        }
+        return null;
+    }
+
+    /**
+     * Pick the representation {@link org.springframework.web.servlet.resource.EncodedResourceResolver}
+     * would serve for an {@code Accept-Encoding} header
+     */
+    public Asset select(String path, String acceptEncoding) {
+        Asset asset = assets.get(path);
+        if (asset == null || acceptEncoding == null) {
+            return asset;
+        }
+        String accepted = acceptEncoding.toLowerCase();
+        for (String[] coding : CODINGS) {
+            if (accepted.contains(coding[0])) {
+                Asset encoded = assets.get(path + coding[1]);
+                if (encoded != null) {
+                    return encoded;
+                }
+            }
+        }
+        return asset;
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    private static List<Asset> scanFiles(Path root) throws IOException {
+        List<Asset> assets = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(root)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                String path = toRequestPath(root, file);
+                String contentType = MediaTypeFactory.getMediaType(file.getFileName().toString())
+                        .map(MediaType::toString)
+                        .orElse(null);
+                assets.add(new Asset(path, Files.size(file), hash(file), contentType));
+            }
+        }
+        return assets;
+    }
+
+    private static String toRequestPath(Path root, Path file) {
+        return "/" + root.relativize(file).toString().replace('\\', '/');
+    }
+
+    private static Map<String, Asset> toMap(List<Asset> assets) {
+        Map<String, Asset> map = new HashMap<>(assets.size() * 4 / 3 + 1);
+        for (Asset asset : assets) {
+            map.put(asset.path(), asset);
+        }
+        return map;
+    }
+
+    private static String hash(Path file) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = Files.newInputStream(file)) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest(), 0, HASH_LENGTH);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * One indexed file
+     */
+    public record Asset(String path, long length, String hash, String contentType) {
+
+        /**
+         * Strong ETag, quoted
+         */
+        public String etag() {
+            return "\"" + hash + "\"";
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package io.icebrew.vite.resource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Decides the {@code Cache-Control} header for files of the Vite build.
+ * <p>
+ * Rules are checked in this order: configured glob rules, content-hashed
+ * files listed in the manifest ({@value #IMMUTABLE}), HTML documents
+ * ({@value #NO_CACHE}), then the configured default.
+ */
+public class ViteCachePolicy {
+
+    public static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    public static final String NO_CACHE = "no-cache";
+
+    private final ViteManifest manifest;
+    private final List<Rule> rules = new ArrayList<>();
+    private final String defaultCacheControl;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    public ViteCachePolicy(ViteManifest manifest, Map<String, String> globRules, String defaultCacheControl) {
+        this.manifest = manifest;
+        this.defaultCacheControl = defaultCacheControl;
+        globRules.forEach((glob, value) -> rules.add(new Rule(glob.startsWith("/") ? glob : "/" + glob, value)));
+    }
+
+    /**
+     * Get the {@code Cache-Control} value for a request path, or {@code null}
+     * to leave the header unset
+     */
+    public String cacheControlFor(String path) {
+        for (Rule rule : rules) {
+            if (pathMatcher.match(rule.glob(), path)) {
+                return emptyToNull(rule.value());
+            }
+        }
+        if (manifest.isHashedAsset(path)) {
+            return IMMUTABLE;
+        }
+        if (path.endsWith(".html") || path.endsWith("/")) {
+            return NO_CACHE;
+        }
+        return emptyToNull(defaultCacheControl);
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+
+    private record Rule(String glob, String value) {
+    }
+}
@@ -0,0 +1,125 @@
+package io.icebrew.vite.resource;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Pre-rendered production {@code index.html}.
+ * <p>
+ * For every manifest entry referenced by the page, the statically imported
+ * chunks that the HTML does not already preload get a
+ * {@code <link rel="modulepreload">} tag, and all of the entry's JS and CSS
+ * are listed in a {@code Link} header value that can be sent with the page or
+ * as a {@code 103 Early Hints} response.
+ */
+public class ViteIndexHtml {
+
+    private static final int ETAG_LENGTH = 16;
+
+    private final byte[] content;
+    private final String etag;
+    private final String linkHeader;
+
+    private ViteIndexHtml(byte[] content, String linkHeader) {
+        this.content = content;
+        this.etag = "\"" + hash(content) + "\"";
+        this.linkHeader = linkHeader;
+    }
+
+    /**
+     * Render the page as built by Vite
+     *
+     * @param html the original {@code index.html}
+     * @param manifest the build manifest
+     * @param injectPreloads whether to add {@code modulepreload} tags
+     */
+    public static ViteIndexHtml render(byte[] html, ViteManifest manifest, boolean injectPreloads) {
+        String page = new String(html, StandardCharsets.UTF_8);
+
+        Set<String> scripts = new LinkedHashSet<>();
+        Set<String> styles = new LinkedHashSet<>();
+        for (ViteManifest.Chunk entry : manifest.getEntries()) {
+            String base = findBase(page, entry.file());
+            if (base == null) {
+                continue;
+            }
+            for (String file : manifest.getPreloadFiles(entry)) {
+                (file.endsWith(".css") ? styles : scripts).add(base + file);
+            }
+        }
+
+        if (injectPreloads) {
+            page = injectModulePreloads(page, scripts);
+        }
+
+        List<String> links = new ArrayList<>();
+        scripts.forEach(href -> links.add("<" + href + ">; rel=modulepreload"));
+        styles.forEach(href -> links.add("<" + href + ">; rel=preload; as=style"));
+
+        return new ViteIndexHtml(page.getBytes(StandardCharsets.UTF_8),
+                links.isEmpty() ? null : String.join(", ", links));
+    }
+
+    public byte[] getContent() {
+        return content;
+    }
+
+    /**
+     * Strong ETag of the rendered content, quoted
+     */
+    public String getEtag() {
+        return etag;
+    }
+
+    /**
+     * {@code Link} header value for the page's critical JS and CSS, or
+     * {@code null} if the manifest lists none
+     */
+    public String getLinkHeader() {
+        return linkHeader;
+    }
+
+    /**
+     * The URL prefix (Vite's {@code base}) the page uses for an entry file, or
+     * {@code null} if the page does not reference it
+     */
+    private static String findBase(String page, String file) {
+        int index = page.indexOf(file + "\"");
+        if (index < 0) {
+            return null;
+        }
+        int start = page.lastIndexOf('"', index - 1) + 1;
+        return page.substring(start, index);
+    }
+
+    private static String injectModulePreloads(String page, Set<String> scripts) {
+        int head = page.indexOf("</head>");
+        if (head < 0) {
+            return page;
+        }
+
+        StringBuilder tags = new StringBuilder();
+        for (String href : scripts) {
+            // Vite already preloads some imports and references the entry itself
+            if (!page.contains("\"" + href + "\"")) {
+                tags.append("  <link rel=\"modulepreload\" crossorigin href=\"").append(href).append("\">\n  ");
+            }
+        }
+        return tags.isEmpty() ? page : page.substring(0, head) + tags + page.substring(head);
+    }
+
+    private static String hash(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return HexFormat.of().formatHex(digest, 0, ETAG_LENGTH);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package io.icebrew.vite.resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Parsed Vite build manifest ({@code .vite/manifest.json}, or
+ * {@code manifest.json} for Vite 4 and earlier).
+ * <p>
+ * Every file the manifest lists is emitted with a content hash in its name,
+ * which makes it safe to cache forever.
+ */
+public class ViteManifest {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteManifest.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+    private static final List<String> MANIFEST_LOCATIONS = List.of(".vite/manifest.json", "manifest.json");
+
+    private static final ViteManifest EMPTY = new ViteManifest(Map.of());
+
+    private final Map<String, Chunk> chunks;
+    private final Set<String> hashedFiles;
+
+    private ViteManifest(Map<String, Chunk> chunks) {
+        this.chunks = Collections.unmodifiableMap(chunks);
+        Set<String> files = new HashSet<>();
+        for (Chunk chunk : chunks.values()) {
+            addPath(files, chunk.file());
+            chunk.css().forEach(css -> addPath(files, css));
+            chunk.assets().forEach(asset -> addPath(files, asset));
+        }
+        this.hashedFiles = Collections.unmodifiableSet(files);
+    }
+
+    /**
+     * Load the manifest from a build directory; a missing or unreadable
+     * manifest yields an empty one
+     */
+    public static ViteManifest load(Path buildDir) {
+        for (String location : MANIFEST_LOCATIONS) {
+            Path manifestFile = buildDir.resolve(location);
+            if (Files.isRegularFile(manifestFile)) {
+                try (InputStream in = Files.newInputStream(manifestFile)) {
+                    ViteManifest manifest = read(in);
+                    logger.debug("Loaded Vite manifest {} with {} chunk(s)", manifestFile, manifest.chunks.size());
+                    return manifest;
+                } catch (IOException e) {
+                    logger.warn("Failed to read Vite manifest {}", manifestFile, e);
+                }
+            }
+        }
+        logger.debug("No Vite manifest found in {}; enable build.manifest to get immutable caching", buildDir);
+        return EMPTY;
+    }
+
+    /**
+     * Load the manifest from a build directory on the classpath or any other
+     * resource location; a missing or unreadable manifest yields an empty one
+     */
+    public static ViteManifest load(Resource buildDir) {
+        for (String location : MANIFEST_LOCATIONS) {
+            try {
+                Resource manifestFile = buildDir.createRelative(location);
+                if (manifestFile.exists()) {
+                    try (InputStream in = manifestFile.getInputStream()) {
+                        return read(in);
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to read Vite manifest {} in {}", location, buildDir, e);
+            }
+        }
+        logger.debug("No Vite manifest found in {}; enable build.manifest to get immutable caching", buildDir);
+        return EMPTY;
+    }
+
+    public static ViteManifest read(InputStream in) throws IOException {
+        Map<String, Chunk> chunks = objectMapper.readValue(in, new TypeReference<LinkedHashMap<String, Chunk>>() {
+        });
+        return new ViteManifest(chunks);
+    }
+
+    public static ViteManifest empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Whether a request path (starting with {@code /}) points to a
+     * content-hashed file
+     */
+    public boolean isHashedAsset(String path) {
+        return hashedFiles.contains(path);
+    }
+
+    /**
+     * Chunks keyed by their source path, in manifest order
+     */
+    public Map<String, Chunk> getChunks() {
+        return chunks;
+    }
+
+    /**
+     * Files an entry chunk needs on first load: the entry's own JS and CSS
+     * plus that of every statically imported chunk, in dependency order
+     *
+     * @param entry the entry chunk
+     * @return build-relative file paths
+     */
+    public Set<String> getPreloadFiles(Chunk entry) {
+        Set<String> files = new LinkedHashSet<>();
+        collectPreloadFiles(entry, files, new HashSet<>());
+        return files;
+    }
+
+    /**
+     * Chunks marked {@code isEntry}
+     */
+    public List<Chunk> getEntries() {
+        return chunks.values().stream().filter(Chunk::isEntry).toList();
+    }
+
+    public boolean isEmpty() {
+        return chunks.isEmpty();
+    }
+
+    private void collectPreloadFiles(Chunk chunk, Set<String> files, Set<Chunk> visited) {
+        if (!visited.add(chunk)) {
+            return;
+        }
+        for (String name : chunk.imports()) {
+            Chunk imported = chunks.get(name);
+            if (imported != null) {
+                collectPreloadFiles(imported, files, visited);
+            }
+        }
+        if (chunk.file() != null) {
+            files.add(chunk.file());
+        }
+        files.addAll(chunk.css());
+    }
+
+    private static void addPath(Set<String> files, String file) {
+        if (file != null && !file.isEmpty()) {
+            files.add(file.startsWith("/") ? file : "/" + file);
+        }
+    }
+
+    /**
+     * One manifest entry
+     */
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Chunk(String file, String src,
+            @JsonProperty("isEntry") boolean isEntry,
+            @JsonProperty("isDynamicEntry") boolean isDynamicEntry,
+            List<String> imports, List<String> dynamicImports, List<String> css, List<String> assets) {
+
+        public Chunk {
+            imports = imports != null ? imports : List.of();
+            dynamicImports = dynamicImports != null ? dynamicImports : List.of();
+            css = css != null ? css : List.of();
+            assets = assets != null ? assets : List.of();
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package io.icebrew.vite.service;
+
+import java.time.Instant;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+
+/**
+ * Cached health of one dev server, a circuit breaker in front of it and a
+ * bounded queue of requests waiting for it to become ready.
+ * <p>
+ * Requests only read the cached status; {@link ViteHealthTracker} updates it
+ * from a background thread, and proxied requests that cannot reach the dev
+ * server count towards opening the circuit. While the circuit is open the
+ * status is {@link Status#DOWN} and requests fail fast; the next successful
+ * background probe closes it again.
+ */
+public class ViteDevServerHealth {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteDevServerHealth.class);
+
+    public enum Status {
+
+        /**
+         * Starting or restarting; requests are held until it is ready
+         */
+        STARTING,
+
+        /**
+         * Answering requests
+         */
+        UP,
+
+        /**
+         * Not running, or not answering; requests fail fast
+         */
+        DOWN
+    }
+
+    /**
+     * Health as last observed
+     *
+     * @param since when the status last changed
+     * @param reason why it is down, or {@code null}
+     * @param consecutiveFailures failed probes and proxied requests since the
+     *        last success
+     * @param lastChecked time of the last background check, or {@code null}
+     *        before the first
+     * @param heldRequests requests waiting for the dev server to become ready
+     */
+    public record Snapshot(Status status, Instant since, String reason, int consecutiveFailures,
+            Instant lastChecked, int heldRequests) {
+    }
+
+    private final ViteFrontend frontend;
+    private final ViteDevServerService service;
+    private final ViteProperties.Health properties;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile Status status = Status.STARTING;
+    private volatile Instant since = Instant.now();
+    private volatile String reason;
+    private volatile Instant lastChecked;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final Queue<HeldRequest> held = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger heldCount = new AtomicInteger();
+    private CompletableFuture<Void> watchedStartup;
+
+    /**
+     * @param scheduler runs the hold deadlines
+     */
+    public ViteDevServerHealth(ViteFrontend frontend, ViteDevServerService service, ViteProperties.Health properties,
+            ScheduledExecutorService scheduler) {
+        this.frontend = frontend;
+        this.service = service;
+        this.properties = properties;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * Current status, without touching the process or the network
+     */
+    public Status getStatus() {
+        // A restart is visible at once rather than on the next check
+        return service.getState() == ViteDevServerService.State.STARTING ? Status.STARTING : status;
+    }
+
+    public String getFrontendName() {
+        return frontend.getName();
+    }
+
+    public String getDevServerUrl() {
+        return frontend.getDevServerUrl();
+    }
+
+    public Snapshot getSnapshot() {
+        return new Snapshot(getStatus(), since, reason, consecutiveFailures.get(), lastChecked, heldCount.get());
+    }
+
+    /**
+     * Seconds a client should wait before retrying while the dev server is
+     * down
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, (properties.getInterval().toMillis() + 999) / 1000);
+    }
+
+    /**
+     * A proxied request reached the dev server
+     */
+    public void recordSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * A proxied request or probe could not reach the dev server; opens the
+     * circuit once the failure threshold is reached
+     */
+    public void recordFailure(String cause) {
+        if (consecutiveFailures.incrementAndGet() >= properties.getFailureThreshold() && status == Status.UP) {
+            down("not answering (" + cause + ")");
+        }
+    }
+
+    /**
+     * Reserve a place in the hold queue
+     *
+     * @return {@code false} if the queue is full
+     */
+    public boolean reserveHold() {
+        if (heldCount.incrementAndGet() > properties.getMaxHeldRequests()) {
+            heldCount.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Hold a request, after {@link #reserveHold()}, until the dev server is
+     * ready or down, or the hold timeout passes
+     *
+     * @param release called once the status is no longer {@link Status#STARTING}
+     * @param expire called instead if the hold timeout passes first
+     */
+    public void hold(Runnable release, Runnable expire) {
+        HeldRequest request = new HeldRequest(release);
+        held.add(request);
+        request.deadline = scheduler.schedule(() -> {
+            if (request.claim()) {
+                held.remove(request);
+                heldCount.decrementAndGet();
+                expire.run();
+            }
+        }, properties.getHoldTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        watchStartup();
+        // The status may have changed while the request was being queued
+        if (getStatus() != Status.STARTING) {
+            releaseHeld();
+        }
+    }
+
+    void up() {
+        consecutiveFailures.set(0);
+        if (setStatus(Status.UP, null)) {
+            logger.info("Vite dev server for {} is up", frontend);
+        }
+        releaseHeld();
+    }
+
+    void down(String cause) {
+        if (setStatus(Status.DOWN, cause)) {
+            logger.warn("Vite dev server for {} is down: {}; failing requests fast until it answers again",
+                    frontend, cause);
+        }
+        releaseHeld();
+    }
+
+    void starting() {
+        setStatus(Status.STARTING, null);
+    }
+
+    void checked(Instant time) {
+        lastChecked = time;
+    }
+
+    private synchronized boolean setStatus(Status status, String reason) {
+        this.reason = reason;
+        if (this.status == status) {
+            return false;
+        }
+        this.status = status;
+        this.since = Instant.now();
+        return true;
+    }
+
+    /**
+     * Release held requests as soon as a start-up fails, not on the next
+     * check; success is reported by the ready listener
+     */
+    private synchronized void watchStartup() {
+        CompletableFuture<Void> startup = service.getReadyFuture();
+        if (startup != watchedStartup) {
+            watchedStartup = startup;
+            startup.whenComplete((result, failure) -> {
+                if (failure != null) {
+                    down("failed to start (" + failure.getMessage() + ")");
+                }
+            });
+        }
+    }
+
+    private void releaseHeld() {
+        if (getStatus() == Status.STARTING) {
+            return;
+        }
+        HeldRequest request;
+        while ((request = held.poll()) != null) {
+            if (request.claim()) {
+                heldCount.decrementAndGet();
+                ScheduledFuture<?> deadline = request.deadline;
+                if (deadline != null) {
+                    deadline.cancel(false);
+                }
+                try {
+                    request.release.run();
+                } catch (RuntimeException e) {
+                    logger.debug("Failed to release held request", e);
+                }
+            }
+        }
+    }
+
+    private static class HeldRequest {
+
+        private final Runnable release;
+        private final AtomicBoolean done = new AtomicBoolean();
+        private volatile ScheduledFuture<?> deadline;
+
+        HeldRequest(Runnable release) {
+            this.release = release;
+        }
+
+        /**
+         * @return whether the caller is the one to finish this request
+         */
+        boolean claim() {
+            return done.compareAndSet(false, true);
+        }
+    }
+}
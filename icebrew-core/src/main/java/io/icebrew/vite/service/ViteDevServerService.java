@@ -1,20 +1,40 @@
 package io.icebrew.vite.service;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import io.icebrew.vite.config.ViteFrontend;
 import io.icebrew.vite.config.ViteProperties;
-import jakarta.annotation.PreDestroy;
 
 /**
  * Service for managing Vite dev server lifecycle
@@ -24,118 +44,483 @@ public class ViteDevServerService {
 
     private static final Logger logger = LoggerFactory.getLogger(ViteDevServerService.class);
 
+    private static final Duration PROBE_TIMEOUT = Duration.ofSeconds(1);
+    private static final long INITIAL_PROBE_DELAY = 50;
+    private static final long MAX_PROBE_DELAY = 250;
+    private static final String LOG_FILE = "dev-server.log";
+    private static final long LOG_POLL_INTERVAL = 200;
+
+    /**
+     * Dev server lifecycle state
+     */
+    public enum State {
+        STOPPED, STARTING, READY, FAILED
+    }
+
     private final ViteProperties viteProperties;
-    private Process viteProcess;
-    private boolean isRunning = false;
-    private volatile boolean serverReady = false;
+    private final HttpClient probeClient;
+    private volatile Process viteProcess;
+    private volatile ProcessHandle viteHandle;
+    private volatile Thread logTailer;
+    private volatile State state = State.STOPPED;
+    private volatile CompletableFuture<Void> readyFuture = CompletableFuture.completedFuture(null);
+    private Thread shutdownHook;
+    // Held for a whole start, stop or restart; never taken while holding the monitor
+    private final Object lifecycleLock = new Object();
+    // Stops a failed start off the probe and process-exit threads; idle without a thread
+    private final ExecutorService lifecycleExecutor = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "vite-lifecycle");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private final List<Runnable> readyListeners = new CopyOnWriteArrayList<>();
+    private final ViteFrontend frontend;
+    private final ViteLogBuffer logBuffer;
 
     public ViteDevServerService(ViteProperties viteProperties) {
+        this(viteProperties, ViteFrontend.resolveAll(viteProperties).get(0),
+                new ViteLogBuffer(viteProperties.getLog(), "Vite"));
+    }
+
+    public ViteDevServerService(ViteProperties viteProperties, ViteFrontend frontend, ViteLogBuffer logBuffer) {
         this.viteProperties = viteProperties;
+        this.frontend = frontend;
+        this.logBuffer = logBuffer;
+        this.probeClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(PROBE_TIMEOUT)
+                .build();
     }
 
     /**
-     * Start Vite dev server
+     * Start Vite dev server and wait until it answers HTTP requests
      */
     public void startDevServer() {
-        if (isRunning) {
+        try {
+            startDevServerAsync().join();
+        } catch (CompletionException e) {
+            // Already logged
+        }
+    }
+
+    /**
+     * Start Vite dev server in the background. The returned future completes
+     * when the server first answers a readiness probe, and completes
+     * exceptionally if the process exits or the startup timeout passes first.
+     * Start-up that is skipped (disabled, port in use, no frontend directory)
+     * leaves the service {@link State#STOPPED} and completes the future
+     * immediately.
+     * <p>
+     * With {@code icebrew.vite.reuse-dev-server}, a Vite dev server left
+     * running by a previous start is attached to instead.
+     */
+    public CompletableFuture<Void> startDevServerAsync() {
+        synchronized (lifecycleLock) {
+            return start();
+        }
+    }
+
+    /**
+     * Called holding the lifecycle lock, which keeps other starts and stops
+     * out; the monitor is only taken to publish the new state, so probe and
+     * exit callbacks never wait on the port check or the process start
+     */
+    private CompletableFuture<Void> start() {
+        if (state == State.STARTING || state == State.READY) {
             logger.info("Vite dev server is already running");
-            return;
+            return readyFuture;
         }
 
         if (!viteProperties.isEnabled() || !viteProperties.isAutoStart()) {
             logger.info("Vite dev server auto-start is disabled");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
+        File frontendDir = new File(frontend.getFrontendDir());
+
         // Check if port is already in use
-        if (isPortInUse(viteProperties.getHost(), viteProperties.getPort())) {
-            logger.warn("Port {} is already in use. Skipping Vite dev server start.", viteProperties.getPort());
+        if (isPortInUse(frontend.getHost(), frontend.getPort())) {
+            ProcessHandle existing = viteProperties.isReuseDevServer() ? findReusableServer(frontendDir) : null;
+            if (existing != null) {
+                return attach(existing, frontendDir);
+            }
+            logger.warn("Port {} is already in use. Skipping Vite dev server start.", frontend.getPort());
             logger.warn("Please stop the existing process or change the port in application.properties");
-            return;
+            return CompletableFuture.completedFuture(null);
         }
 
-        try {
-            File frontendDir = new File(viteProperties.getFrontendDir());
-            if (!frontendDir.exists()) {
-                logger.warn("Frontend directory does not exist: {}", frontendDir.getAbsolutePath());
-                return;
-            }
+        if (!frontendDir.exists()) {
+            logger.warn("Frontend directory does not exist: {}", frontendDir.getAbsolutePath());
+            return CompletableFuture.completedFuture(null);
+        }
 
-            logger.info("Starting Vite dev server at {}:{}", viteProperties.getHost(), viteProperties.getPort());
+        logger.info("Starting Vite dev server for {} at {}:{}", frontend, frontend.getHost(), frontend.getPort());
 
-            List<String> command = buildStartCommand();
-            ProcessBuilder processBuilder = new ProcessBuilder(command);
-            processBuilder.directory(frontendDir);
-            processBuilder.redirectErrorStream(true);
+        List<String> command = buildStartCommand();
+        ProcessBuilder processBuilder = new ProcessBuilder(command);
+        processBuilder.directory(frontendDir);
+        processBuilder.redirectErrorStream(true);
 
-            // Add environment variables
-            Map<String, String> environment = processBuilder.environment();
-            environment.putAll(viteProperties.getEnv());
+        // Add environment variables
+        Map<String, String> environment = processBuilder.environment();
+        environment.putAll(viteProperties.getEnv());
 
+        Path logFile = getLogFile(frontendDir);
+        if (viteProperties.isReuseDevServer()) {
+            // A pipe would break when this JVM exits; a file keeps Vite writable across restarts
+            try {
+                Files.createDirectories(logFile.getParent());
+            } catch (IOException e) {
+                logger.warn("Failed to create {}", logFile.getParent(), e);
+            }
+            processBuilder.redirectOutput(logFile.toFile());
+        }
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
             viteProcess = processBuilder.start();
+        } catch (IOException e) {
+            logger.error("Failed to start Vite dev server", e);
+            state = State.FAILED;
+            future.completeExceptionally(e);
+            return future;
+        }
+        synchronized (this) {
+            viteHandle = viteProcess.toHandle();
+            state = State.STARTING;
+            readyFuture = future;
+        }
 
-            // Register shutdown hook for cleanup
-            registerShutdownHook();
+        // Register shutdown hook for cleanup
+        registerShutdownHook();
 
+        if (viteProperties.isReuseDevServer()) {
+            writeLock(frontendDir);
+            startLogTailer(logFile, 0);
+        } else {
             // Start log reader thread
-            startLogReader();
+            startLogReader(viteProcess);
+        }
 
-            // Wait for server to be ready
-            waitForServerReady();
+        Process process = viteProcess;
+        long startedAt = System.nanoTime();
+        process.onExit().thenRun(() -> fail(future,
+                new IllegalStateException("Vite dev server exited with code " + process.exitValue())));
+        probe(future, startedAt, INITIAL_PROBE_DELAY);
+        return future;
+    }
 
-            isRunning = true;
-            logger.info("Vite dev server started successfully at {}", viteProperties.getDevServerUrl());
+    /**
+     * Attach to a dev server started by an earlier run, once it answers a
+     * readiness probe
+     */
+    private CompletableFuture<Void> attach(ProcessHandle existing, File frontendDir) {
+        logger.info("Attaching to running Vite dev server (pid {}) at {}", existing.pid(),
+                frontend.getDevServerUrl());
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        synchronized (this) {
+            viteProcess = null;
+            viteHandle = existing;
+            state = State.STARTING;
+            readyFuture = future;
+        }
 
-        } catch (IOException | InterruptedException e) {
-            logger.error("Failed to start Vite dev server", e);
-            stopDevServer();
+        registerShutdownHook();
+
+        // Earlier output was already logged by the previous run
+        Path logFile = getLogFile(frontendDir);
+        startLogTailer(logFile, logFile.toFile().length());
+
+        long startedAt = System.nanoTime();
+        existing.onExit().thenRun(() -> fail(future,
+                new IllegalStateException("Attached Vite dev server (pid " + existing.pid() + ") exited")));
+        probe(future, startedAt, INITIAL_PROBE_DELAY);
+        return future;
+    }
+
+    /**
+     * The dev server recorded in the lock file, if it is still alive and
+     * listens on the configured host and port
+     */
+    private ProcessHandle findReusableServer(File frontendDir) {
+        Optional<ViteServerLock> lock = ViteServerLock.read(frontendDir.toPath());
+        if (lock.isEmpty()) {
+            return null;
+        }
+        if (!lock.get().isFor(frontend.getHost(), frontend.getPort())) {
+            logger.info("Vite dev server lock is for {}:{}; not reusing it", lock.get().getHost(),
+                    lock.get().getPort());
+            return null;
+        }
+        Optional<ProcessHandle> process = lock.get().findProcess();
+        if (process.isEmpty()) {
+            ViteServerLock.delete(frontendDir.toPath());
+            return null;
         }
+        return process.get();
+    }
+
+    private void writeLock(File frontendDir) {
+        try {
+            new ViteServerLock(viteHandle, frontend.getHost(), frontend.getPort())
+                    .write(frontendDir.toPath());
+        } catch (IOException e) {
+            logger.warn("Failed to write Vite dev server lock; the next start cannot reuse this server", e);
+        }
+    }
+
+    private Path getLogFile(File frontendDir) {
+        return frontendDir.toPath().resolve(ViteServerLock.STATE_DIR).resolve(LOG_FILE);
     }
 
     /**
-     * Stop Vite dev server
+     * Stop Vite dev server. With {@code icebrew.vite.reuse-dev-server} a
+     * healthy server is left running for the next start to attach to.
+     * Called on shutdown by {@link ViteDevServers#close()}.
      */
-    @PreDestroy
     public void stopDevServer() {
-        if (viteProcess != null && viteProcess.isAlive()) {
+        synchronized (lifecycleLock) {
+            ProcessHandle handle = viteHandle;
+            if (handle != null && handle.isAlive() && viteProperties.isReuseDevServer() && state != State.FAILED) {
+                logger.info("Leaving Vite dev server (pid {}) running for the next start", handle.pid());
+                detach();
+                return;
+            }
+            terminate();
+        }
+    }
+
+    /**
+     * Stop Vite dev server, even one that would be kept for reuse
+     */
+    public void terminateDevServer() {
+        synchronized (lifecycleLock) {
+            terminate();
+        }
+    }
+
+    private void terminate() {
+        ProcessHandle handle = viteHandle;
+        if (handle != null && handle.isAlive()) {
             logger.info("Stopping Vite dev server");
 
-            // Try graceful shutdown first
-            viteProcess.destroy();
+            // Try graceful shutdown first; npm does not always pass the signal on
+            handle.descendants().forEach(ProcessHandle::destroy);
+            handle.destroy();
 
             try {
-                boolean exited = viteProcess.waitFor(5, TimeUnit.SECONDS);
-                if (!exited) {
-                    logger.warn("Vite process did not terminate gracefully, forcing shutdown");
-                    killViteProcessTree();
-                    viteProcess.destroyForcibly();
-                    viteProcess.waitFor(5, TimeUnit.SECONDS);
-                }
+                handle.onExit().get(5, TimeUnit.SECONDS);
+            } catch (TimeoutException | ExecutionException e) {
+                logger.warn("Vite process did not terminate gracefully, forcing shutdown");
+                killViteProcessTree();
+                handle.destroyForcibly();
             } catch (InterruptedException e) {
                 logger.warn("Interrupted while waiting for Vite process to terminate");
                 Thread.currentThread().interrupt();
                 killViteProcessTree();
-                viteProcess.destroyForcibly();
+                handle.destroyForcibly();
             }
 
-            isRunning = false;
-            serverReady = false;
+            if (viteProperties.isReuseDevServer()) {
+                ViteServerLock.delete(new File(frontend.getFrontendDir()).toPath());
+            }
             logger.info("Vite dev server stopped");
         }
+        detach();
+    }
+
+    /**
+     * Stop the dev server, even one kept for reuse, and start it again. A
+     * server that is not {@link State#READY}, because it is still starting,
+     * failed or is being stopped, is left alone.
+     *
+     * @return whether the server was restarted
+     */
+    public boolean restartDevServer() {
+        synchronized (lifecycleLock) {
+            if (state != State.READY) {
+                logger.info("Vite dev server is {}; not restarting it", state.name().toLowerCase(Locale.ROOT));
+                return false;
+            }
+            terminate();
+            start();
+            return true;
+        }
+    }
+
+    private synchronized void detach() {
+        if (state != State.FAILED) {
+            state = State.STOPPED;
+        }
+        viteHandle = null;
+        viteProcess = null;
+        removeShutdownHook();
+        Thread tailer = logTailer;
+        logTailer = null;
+        if (tailer != null) {
+            tailer.interrupt();
+        }
     }
 
     /**
-     * Check if Vite dev server is running
+     * Check if Vite dev server is running and has answered a readiness probe
      */
     public boolean isRunning() {
-        return isRunning && viteProcess != null && viteProcess.isAlive();
+        ProcessHandle handle = viteHandle;
+        return state == State.READY && handle != null && handle.isAlive();
+    }
+
+    /**
+     * The dev server's root process (npm or node), if one is started or
+     * attached
+     */
+    public Optional<ProcessHandle> getProcessHandle() {
+        return Optional.ofNullable(viteHandle);
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Future of the current start-up, completed the moment Vite first answers
+     * a readiness probe, before the ready listeners run
+     */
+    public CompletableFuture<Void> getReadyFuture() {
+        return readyFuture;
+    }
+
+    /**
+     * Wait for a start-up in progress to finish
+     *
+     * @return whether the dev server is running
+     */
+    public boolean awaitReady(Duration timeout) {
+        if (state == State.STARTING) {
+            try {
+                readyFuture.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException | TimeoutException e) {
+                // Reported by the state
+            }
+        }
+        return isRunning();
+    }
+
+    /**
+     * Register a callback that runs each time the dev server becomes ready
+     */
+    public void addReadyListener(Runnable listener) {
+        readyListeners.add(listener);
+    }
+
+    /**
+     * Register a callback that runs before all others each time the dev
+     * server becomes ready; for quick state changes that requests wait on,
+     * which must not be delayed by slower listeners such as connection
+     * pre-warming
+     */
+    public void addFirstReadyListener(Runnable listener) {
+        readyListeners.add(0, listener);
+    }
+
+    public ViteFrontend getFrontend() {
+        return frontend;
+    }
+
+    /**
+     * Recent output of the dev server
+     */
+    public ViteLogBuffer getLogBuffer() {
+        return logBuffer;
     }
 
     /**
      * Get dev server URL
      */
     public String getDevServerUrl() {
-        return viteProperties.getDevServerUrl();
+        return frontend.getDevServerUrl();
+    }
+
+    /**
+     * Request {@code /@vite/client}, which Vite serves as soon as it accepts
+     * requests; retry with a growing delay until the startup timeout
+     */
+    private void probe(CompletableFuture<Void> future, long startedAt, long delayMillis) {
+        if (future.isDone()) {
+            return;
+        }
+        HttpRequest request = HttpRequest.newBuilder(getReadinessProbeUri())
+                .timeout(PROBE_TIMEOUT)
+                .GET()
+                .build();
+        probeClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, failure) -> {
+                    if (failure == null && response.statusCode() < 500) {
+                        ready(future, startedAt);
+                        return;
+                    }
+                    long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+                    if (elapsed >= viteProperties.getStartupTimeout() * 1000L) {
+                        fail(future, new TimeoutException("Vite dev server did not start within "
+                                + viteProperties.getStartupTimeout() + " seconds"));
+                        return;
+                    }
+                    CompletableFuture.delayedExecutor(delayMillis, TimeUnit.MILLISECONDS)
+                            .execute(() -> probe(future, startedAt,
+                                    Math.min(delayMillis * 2, MAX_PROBE_DELAY)));
+                });
+    }
+
+    private URI getReadinessProbeUri() {
+        return URI.create(frontend.getDevServerUrl() + frontend.getBasePath() + "/@vite/client");
+    }
+
+    private void ready(CompletableFuture<Void> future, long startedAt) {
+        synchronized (this) {
+            if (future != readyFuture || state != State.STARTING) {
+                return;
+            }
+            state = State.READY;
+        }
+        logger.info("Vite dev server is ready at {} ({} ms)", frontend.getDevServerUrl(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt));
+        // Callers waiting for start-up do not wait for pre-warming and warm-up as well
+        future.complete(null);
+        notifyReadyListeners();
+    }
+
+    private void fail(CompletableFuture<Void> future, Throwable failure) {
+        synchronized (this) {
+            if (future != readyFuture || state != State.STARTING) {
+                return;
+            }
+            state = State.FAILED;
+        }
+        logger.error("Failed to start Vite dev server: {}", failure.getMessage());
+        future.completeExceptionally(failure);
+        // Killing the process tree waits for it; not on the probe or process-exit thread
+        lifecycleExecutor.execute(() -> {
+            synchronized (lifecycleLock) {
+                // Unless a new start has replaced the failed one meanwhile
+                if (future == readyFuture) {
+                    terminate();
+                }
+            }
+        });
+    }
+
+    private void notifyReadyListeners() {
+        for (Runnable listener : readyListeners) {
+            try {
+                listener.run();
+            } catch (RuntimeException e) {
+                logger.warn("Vite dev server ready listener failed", e);
+            }
+        }
     }
 
     private List<String> buildStartCommand() {
@@ -155,9 +540,14 @@ public class ViteDevServerService {
         command.add("dev");
         command.add("--");
         command.add("--host");
-        command.add(viteProperties.getHost());
+        command.add(frontend.getHost());
         command.add("--port");
-        command.add(String.valueOf(viteProperties.getPort()));
+        command.add(String.valueOf(frontend.getPort()));
+        // Only named frontends; the default one keeps the base set in vite.config
+        if (!frontend.getPath().equals("/")) {
+            command.add("--base");
+            command.add(frontend.getPath());
+        }
 
         return command;
     }
@@ -171,21 +561,44 @@ public class ViteDevServerService {
         }
     }
 
-    private void registerShutdownHook() {
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+    /**
+     * Stop the dev server if the JVM exits without closing the context. The
+     * hook is removed again when the server stops, so restarts, e.g. by
+     * devtools, do not pile up hooks that keep old services reachable.
+     */
+    private synchronized void registerShutdownHook() {
+        if (shutdownHook != null) {
+            return;
+        }
+        shutdownHook = new Thread(() -> {
             logger.info("Shutdown hook triggered, stopping Vite dev server");
             stopDevServer();
-        }));
+        }, "vite-shutdown");
+        Runtime.getRuntime().addShutdownHook(shutdownHook);
+    }
+
+    private synchronized void removeShutdownHook() {
+        Thread hook = shutdownHook;
+        shutdownHook = null;
+        if (hook == null || hook == Thread.currentThread()) {
+            return;
+        }
+        try {
+            Runtime.getRuntime().removeShutdownHook(hook);
+        } catch (IllegalStateException e) {
+            // The JVM is already shutting down and runs the hook anyway
+        }
     }
 
     private void killViteProcessTree() {
-        if (viteProcess == null) {
+        ProcessHandle handle = viteHandle;
+        if (handle == null) {
             return;
         }
 
         try {
             String os = System.getProperty("os.name").toLowerCase();
-            long pid = viteProcess.pid();
+            long pid = handle.pid();
 
             if (os.contains("win")) {
                 // Windows: Kill process tree using taskkill
@@ -205,45 +618,62 @@ public class ViteDevServerService {
         }
     }
 
-    private void startLogReader() {
+    private void startLogReader(Process process) {
         Thread logThread = new Thread(() -> {
             try (BufferedReader reader = new BufferedReader(
-                    new InputStreamReader(viteProcess.getInputStream()))) {
+                    new InputStreamReader(process.getInputStream()))) {
                 String line;
                 while ((line = reader.readLine()) != null) {
-                    logger.info("[Vite] {}", line);
-                    // Detect when Vite is ready - check for various patterns
-                    String cleanLine = line.replaceAll("\\u001B\\[[;\\d]*m", "").trim(); // Remove ANSI codes
-                    if (cleanLine.contains("ready in") ||
-                            cleanLine.contains("Local:") ||
-                            cleanLine.contains("VITE") && cleanLine.contains("ready")) {
-                        logger.info("Vite dev server is ready!");
-                        serverReady = true;
-                    }
+                    logBuffer.append(line);
                 }
             } catch (IOException e) {
                 logger.debug("Vite log reader closed", e);
             }
-        });
+        }, "vite-log-reader");
         logThread.setDaemon(true);
         logThread.start();
     }
 
-    private void waitForServerReady() throws InterruptedException {
-        int timeout = viteProperties.getStartupTimeout();
-        int elapsed = 0;
-        int checkInterval = 500; // milliseconds
-
-        logger.info("Waiting for Vite dev server to be ready...");
-
-        while (elapsed < timeout * 1000) {
-            if (serverReady) {
-                return;
+    /**
+     * Follow the log file of a dev server that writes to a file instead of a
+     * pipe, until the service detaches from it
+     */
+    private void startLogTailer(Path logFile, long offset) {
+        Thread tailer = new Thread(() -> {
+            long position = offset;
+            byte[] buffer = new byte[8192];
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            while (!Thread.currentThread().isInterrupted()) {
+                try (RandomAccessFile file = new RandomAccessFile(logFile.toFile(), "r")) {
+                    if (file.length() < position) {
+                        // Truncated by a new start
+                        position = 0;
+                    }
+                    file.seek(position);
+                    int read;
+                    while ((read = file.read(buffer)) > 0) {
+                        position += read;
+                        for (int i = 0; i < read; i++) {
+                            if (buffer[i] == '\n') {
+                                logBuffer.append(line.toString(StandardCharsets.UTF_8));
+                                line.reset();
+                            } else if (buffer[i] != '\r') {
+                                line.write(buffer[i]);
+                            }
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.debug("Failed to read {}", logFile, e);
+                }
+                try {
+                    Thread.sleep(LOG_POLL_INTERVAL);
+                } catch (InterruptedException e) {
+                    return;
+                }
             }
-            Thread.sleep(checkInterval);
-            elapsed += checkInterval;
-        }
-
-        throw new RuntimeException("Vite dev server did not start within " + timeout + " seconds");
+        }, "vite-log-reader");
+        tailer.setDaemon(true);
+        logTailer = tailer;
+        tailer.start();
     }
 }
@@ -0,0 +1,72 @@
+package io.icebrew.vite.service;
+
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.List;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.proxy.ViteDepsCache;
+import io.icebrew.vite.proxy.ViteUpstreamClient;
+
+/**
+ * The dev servers of all frontends, each with its own process and upstream
+ * connection pool, routed by request path
+ */
+public class ViteDevServers implements Closeable {
+
+    /**
+     * Dev server of one frontend
+     *
+     * @param depsCache cache of the frontend's pre-bundled dependencies, or
+     *        {@code null} if disabled; each dev server has its own
+     *        dependency hash, so caches are not shared
+     */
+    public record DevServer(ViteFrontend frontend, ViteDevServerService service, ViteUpstreamClient upstreamClient,
+            ViteDepsCache depsCache) {
+    }
+
+    private final ViteFrontendRouter<DevServer> router;
+
+    public ViteDevServers(List<DevServer> devServers) {
+        this.router = new ViteFrontendRouter<>(devServers, DevServer::frontend);
+    }
+
+    /**
+     * The dev server serving a request path, or {@code null} if the path is
+     * outside every frontend
+     */
+    public DevServer route(String path) {
+        return router.route(path);
+    }
+
+    public Collection<DevServer> getAll() {
+        return router.getAll();
+    }
+
+    /**
+     * The first configured frontend's dev server; the only one unless
+     * {@code icebrew.vite.frontends} is set
+     */
+    public DevServer getDefault() {
+        return router.getAll().iterator().next();
+    }
+
+    /**
+     * Start every dev server in the background
+     */
+    public void startAll() {
+        for (DevServer devServer : getAll()) {
+            devServer.service().startDevServerAsync();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (DevServer devServer : getAll()) {
+            devServer.service().stopDevServer();
+            devServer.upstreamClient().close();
+            devServer.service().getLogBuffer().close();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package io.icebrew.vite.service;
+
+import java.io.Closeable;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.service.ViteDevServers.DevServer;
+
+/**
+ * Keeps the {@link ViteDevServerHealth} of each dev server up to date from one
+ * background thread, so that requests and health endpoints read a cached
+ * status instead of probing the dev server themselves.
+ * <p>
+ * Every {@code icebrew.vite.health.interval} a running dev server is asked
+ * for {@code /@vite/client}; a server that failed or whose process has exited
+ * is marked down without a request. A server IceBrew did not start, e.g.
+ * because one started with {@code npm run dev} already holds the port, is
+ * asked as well and marked down only if nothing answers.
+ */
+public class ViteHealthTracker implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteHealthTracker.class);
+
+    private final ViteDevServers devServers;
+    private final ViteProperties.Health properties;
+    private final Map<String, ViteDevServerHealth> healths = new LinkedHashMap<>();
+    private final ScheduledExecutorService scheduler;
+    // Apart from the checks, so a probe waiting on a hanging dev server never delays a hold timeout
+    private final ScheduledExecutorService holdScheduler;
+    private final HttpClient probeClient;
+
+    public ViteHealthTracker(ViteDevServers devServers, ViteProperties.Health properties) {
+        this.devServers = devServers;
+        this.properties = properties;
+        this.scheduler = newScheduler("vite-health");
+        this.holdScheduler = newScheduler("vite-health-hold");
+        this.probeClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(properties.getProbeTimeout())
+                .build();
+        for (DevServer devServer : devServers.getAll()) {
+            ViteDevServerHealth health = new ViteDevServerHealth(devServer.frontend(), devServer.service(),
+                    properties, holdScheduler);
+            // Held requests are released the moment Vite answers, not after pre-warming and warm-up
+            devServer.service().addFirstReadyListener(health::up);
+            healths.put(devServer.frontend().getName(), health);
+        }
+        long interval = Math.max(1, properties.getInterval().toMillis());
+        scheduler.scheduleWithFixedDelay(this::checkAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Health of a frontend's dev server
+     */
+    public ViteDevServerHealth get(String frontendName) {
+        return healths.get(frontendName);
+    }
+
+    public Collection<ViteDevServerHealth> getAll() {
+        return healths.values();
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        holdScheduler.shutdownNow();
+    }
+
+    private static ScheduledExecutorService newScheduler(String name) {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    void checkAll() {
+        for (DevServer devServer : devServers.getAll()) {
+            try {
+                check(devServer, healths.get(devServer.frontend().getName()));
+            } catch (RuntimeException e) {
+                logger.debug("Failed to check Vite dev server health", e);
+            }
+        }
+    }
+
+    private void check(DevServer devServer, ViteDevServerHealth health) {
+        ViteDevServerService service = devServer.service();
+        health.checked(Instant.now());
+        switch (service.getState()) {
+            case STARTING -> health.starting();
+            case STOPPED -> {
+                String failure = probe(devServer.frontend());
+                if (failure == null) {
+                    health.up();
+                } else {
+                    health.down("stopped");
+                }
+            }
+            case FAILED -> health.down("failed to start");
+            case READY -> {
+                if (service.getProcessHandle().filter(ProcessHandle::isAlive).isEmpty()) {
+                    health.down("process exited");
+                    return;
+                }
+                String failure = probe(devServer.frontend());
+                if (failure == null) {
+                    health.up();
+                } else {
+                    health.recordFailure(failure);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ask for {@code /@vite/client}; the check thread waits for the answer so
+     * that probes never pile up behind a hanging dev server
+     *
+     * @return why the probe failed, or {@code null} if the dev server answered
+     */
+    private String probe(ViteFrontend frontend) {
+        HttpRequest request = HttpRequest.newBuilder(
+                URI.create(frontend.getDevServerUrl() + frontend.getBasePath() + "/@vite/client"))
+                .timeout(properties.getProbeTimeout())
+                .GET()
+                .build();
+        try {
+            int status = probeClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            return status < 500 ? null : "status " + status;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "interrupted";
+        } catch (Exception e) {
+            return e.getClass().getSimpleName();
+        }
+    }
+}
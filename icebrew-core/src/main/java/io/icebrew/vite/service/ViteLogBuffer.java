@@ -0,0 +1,250 @@
+package io.icebrew.vite.service;
+
+import java.io.Closeable;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.icebrew.vite.config.ViteProperties;
+
+/**
+ * Bounded in-memory buffer of the Vite dev server's output.
+ * <p>
+ * The thread reading Vite's output only strips ANSI escapes and stores the
+ * line; a background task passes new lines to the logger in batches, at most
+ * {@code max-lines-per-second} of them, and counts the rest as suppressed.
+ * The most recent lines stay available through {@link #getRecentLines(int)}
+ * whether or not they were logged.
+ */
+public class ViteLogBuffer implements Closeable {
+
+    // Same logger as before, so existing logging configuration still applies
+    private static final Logger logger = LoggerFactory.getLogger(ViteDevServerService.class);
+
+    /**
+     * Severity of a line, guessed from its text
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR
+    }
+
+    /**
+     * One line of output
+     */
+    public record Line(long sequence, Instant time, Level level, String text) {
+    }
+
+    private final String prefix;
+    private final Line[] lines;
+    private final int maxLinesPerSecond;
+    private final ScheduledExecutorService publisher;
+    private final Object publishLock = new Object();
+
+    private long written;
+    private long published;
+    private long windowStart = System.nanoTime();
+    private int windowCount;
+    private long suppressed;
+
+    /**
+     * @param label shown in front of every logged line, e.g. {@code Vite}
+     */
+    public ViteLogBuffer(ViteProperties.Log properties, String label) {
+        this.prefix = "[" + label + "] ";
+        this.lines = new Line[Math.max(1, properties.getBufferLines())];
+        this.maxLinesPerSecond = properties.getMaxLinesPerSecond();
+        this.publisher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vite-log-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, properties.getFlushInterval().toMillis());
+        publisher.scheduleWithFixedDelay(this::publish, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Store a raw line of Vite output; never blocks on logging
+     */
+    public void append(String rawLine) {
+        String text = stripAnsi(rawLine);
+        Level level = levelOf(text);
+        synchronized (this) {
+            lines[(int) (written % lines.length)] = new Line(written, Instant.now(), level, text);
+            written++;
+        }
+    }
+
+    /**
+     * The most recent lines, oldest first
+     */
+    public synchronized List<Line> getRecentLines(int max) {
+        int count = (int) Math.min(Math.min(max, written), lines.length);
+        List<Line> recent = new ArrayList<>(count);
+        for (long sequence = written - count; sequence < written; sequence++) {
+            recent.add(lines[(int) (sequence % lines.length)]);
+        }
+        return recent;
+    }
+
+    /**
+     * Number of lines received so far
+     */
+    public synchronized long getLineCount() {
+        return written;
+    }
+
+    @Override
+    public void close() {
+        publisher.shutdown();
+        publish();
+    }
+
+    /**
+     * Log the lines received since the last run, one logger call per run of
+     * lines with the same level
+     */
+    void publish() {
+        synchronized (publishLock) {
+            publishBatch();
+        }
+    }
+
+    private void publishBatch() {
+        List<Line> batch = new ArrayList<>();
+        long overwritten;
+        synchronized (this) {
+            long oldest = Math.max(published, written - lines.length);
+            overwritten = oldest - published;
+            for (long sequence = oldest; sequence < written; sequence++) {
+                batch.add(lines[(int) (sequence % lines.length)]);
+            }
+            published = written;
+        }
+
+        long now = System.nanoTime();
+        if (now - windowStart >= TimeUnit.SECONDS.toNanos(1)) {
+            reportSuppressed();
+            windowStart = now;
+            windowCount = 0;
+        }
+        suppressed += overwritten;
+
+        StringBuilder message = new StringBuilder();
+        Level messageLevel = null;
+        for (Line line : batch) {
+            if (maxLinesPerSecond > 0 && windowCount >= maxLinesPerSecond) {
+                suppressed++;
+                continue;
+            }
+            windowCount++;
+            if (messageLevel != line.level() && messageLevel != null) {
+                log(messageLevel, message);
+                message.setLength(0);
+            }
+            messageLevel = line.level();
+            if (!message.isEmpty()) {
+                message.append('\n');
+            }
+            message.append(prefix).append(line.text());
+        }
+        if (messageLevel != null) {
+            log(messageLevel, message);
+        }
+    }
+
+    private void reportSuppressed() {
+        if (suppressed > 0) {
+            logger.warn("{}{} line(s) not logged to stay within icebrew.vite.log.max-lines-per-second; "
+                    + "recent output is kept in the ViteLogBuffer", prefix, suppressed);
+            suppressed = 0;
+        }
+    }
+
+    private static void log(Level level, CharSequence message) {
+        switch (level) {
+            case ERROR -> logger.error("{}", message);
+            case WARN -> logger.warn("{}", message);
+            case INFO -> logger.info("{}", message);
+            case DEBUG -> logger.debug("{}", message);
+        }
+    }
+
+    static Level levelOf(String text) {
+        String lower = text.toLowerCase(Locale.ROOT);
+        // Emitted for every saved file; checked first, as the file name may read like an error
+        if (lower.contains("hmr update") || lower.contains("page reload") || lower.contains("hmr invalidate")) {
+            return Level.DEBUG;
+        }
+        if (lower.contains("error") || lower.contains("✘") || lower.contains("failed")) {
+            return Level.ERROR;
+        }
+        if (lower.contains("warn")) {
+            return Level.WARN;
+        }
+        return Level.INFO;
+    }
+
+    /**
+     * Remove ANSI escape sequences (colors, cursor movement, OSC links) and
+     * other control characters except tabs
+     */
+    static String stripAnsi(String line) {
+        if (!hasControlCharacters(line)) {
+            return line;
+        }
+        StringBuilder text = new StringBuilder(line.length());
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            if (c != '\u001B') {
+                if (c >= ' ' || c == '\t') {
+                    text.append(c);
+                }
+                i++;
+                continue;
+            }
+            i++;
+            if (i >= length) {
+                break;
+            }
+            char type = line.charAt(i++);
+            if (type == '[') {
+                // CSI: parameters and intermediates, then one final byte in @..~
+                while (i < length && (line.charAt(i) < '@' || line.charAt(i) > '~')) {
+                    i++;
+                }
+                i++;
+            } else if (type == ']') {
+                // OSC: up to BEL or ESC \
+                while (i < length && line.charAt(i) != '\u0007'
+                        && !(line.charAt(i) == '\u001B' && i + 1 < length && line.charAt(i + 1) == '\\')) {
+                    i++;
+                }
+                i += i < length && line.charAt(i) == '\u001B' ? 2 : 1;
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Whether a line contains anything {@link #stripAnsi} removes: any control
+     * character other than a tab, which covers ESC and CR
+     */
+    private static boolean hasControlCharacters(String line) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c < ' ' && c != '\t') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,238 @@
+package io.icebrew.vite.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.util.unit.DataSize;
+
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.service.ViteDevServers.DevServer;
+
+/**
+ * Samples the resource usage of each dev server's process tree (npm, node
+ * and anything they start) and acts on the configured soft limits.
+ * <p>
+ * CPU time comes from {@link ProcessHandle}; resident memory, threads and
+ * open file descriptors from {@code /proc}, so they are only known on Linux.
+ * Sampling reads a few small files per process on one background thread,
+ * every {@code icebrew.vite.process-monitor.interval}.
+ */
+public class ViteProcessMonitor implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteProcessMonitor.class);
+
+    private static final Path PROC = Path.of("/proc");
+
+    // A server over the limit right after starting would otherwise restart on every sample
+    private static final Duration RESTART_BACKOFF = Duration.ofMinutes(5);
+
+    /**
+     * Resource usage of a process tree; {@code -1} where unknown
+     *
+     * @param processes number of live processes in the tree
+     * @param rssBytes resident memory
+     * @param cpuTime user and system CPU time consumed so far
+     * @param threads number of threads
+     * @param openFiles number of open file descriptors
+     */
+    public record Sample(Instant time, int processes, long rssBytes, Duration cpuTime, int threads, int openFiles) {
+
+        static final Sample NONE = new Sample(Instant.EPOCH, 0, 0, Duration.ZERO, 0, 0);
+    }
+
+    private final ViteDevServers devServers;
+    private final ViteProperties.ProcessMonitor properties;
+    private final Map<String, Sample> samples = new ConcurrentHashMap<>();
+    private final Set<String> overLimit = ConcurrentHashMap.newKeySet();
+    private final Map<String, Instant> lastRestart = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sampler;
+
+    public ViteProcessMonitor(ViteDevServers devServers, ViteProperties.ProcessMonitor properties) {
+        this.devServers = devServers;
+        this.properties = properties;
+        this.sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "vite-process-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = Math.max(1, properties.getInterval().toMillis());
+        sampler.scheduleWithFixedDelay(this::sampleAll, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * The latest sample of a frontend's dev server; all zero while it is not
+     * running
+     */
+    public Sample getSample(String frontendName) {
+        return samples.getOrDefault(frontendName, Sample.NONE);
+    }
+
+    @Override
+    public void close() {
+        sampler.shutdownNow();
+    }
+
+    void sampleAll() {
+        for (DevServer devServer : devServers.getAll()) {
+            try {
+                String name = devServer.frontend().getName();
+                Sample sample = devServer.service().getProcessHandle()
+                        .filter(ProcessHandle::isAlive)
+                        .map(ViteProcessMonitor::sample)
+                        .orElse(Sample.NONE);
+                samples.put(name, sample);
+                checkLimits(devServer, sample);
+            } catch (RuntimeException e) {
+                logger.debug("Failed to sample Vite dev server process", e);
+            }
+        }
+    }
+
+    /**
+     * Sample a process and all of its descendants
+     */
+    static Sample sample(ProcessHandle root) {
+        List<ProcessHandle> tree;
+        try (Stream<ProcessHandle> descendants = root.descendants()) {
+            tree = Stream.concat(Stream.of(root), descendants).filter(ProcessHandle::isAlive).toList();
+        }
+
+        boolean proc = Files.isDirectory(PROC);
+        long rss = proc ? 0 : -1;
+        int threads = proc ? 0 : -1;
+        int openFiles = proc ? 0 : -1;
+        Duration cpuTime = Duration.ZERO;
+        for (ProcessHandle process : tree) {
+            cpuTime = cpuTime.plus(process.info().totalCpuDuration().orElse(Duration.ZERO));
+            if (proc) {
+                Path dir = PROC.resolve(Long.toString(process.pid()));
+                long[] status = readStatus(dir.resolve("status"));
+                rss += status[0];
+                threads += (int) status[1];
+                int fds = countEntries(dir.resolve("fd"));
+                // One unreadable process makes the total unknown, not smaller
+                openFiles = openFiles < 0 || fds < 0 ? -1 : openFiles + fds;
+            }
+        }
+        return new Sample(Instant.now(), tree.size(), rss, cpuTime, threads, openFiles);
+    }
+
+    /**
+     * {@code VmRSS} in bytes and {@code Threads} from {@code /proc/<pid>/status}
+     */
+    private static long[] readStatus(Path status) {
+        long[] values = new long[2];
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    // Reported in kB
+                    values[0] = parseLeadingNumber(line, "VmRSS:".length()) * 1024;
+                } else if (line.startsWith("Threads:")) {
+                    values[1] = parseLeadingNumber(line, "Threads:".length());
+                }
+            }
+        } catch (IOException e) {
+            // The process exited between listing and reading
+        }
+        return values;
+    }
+
+    static long parseLeadingNumber(String line, int from) {
+        long value = 0;
+        for (int i = from; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (c >= '0' && c <= '9') {
+                value = value * 10 + (c - '0');
+            } else if (value > 0) {
+                break;
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Number of entries in a directory; {@code 0} if it is gone because the
+     * process exited, {@code -1} if it cannot be read, e.g. because the
+     * process belongs to another user
+     */
+    static int countEntries(Path dir) {
+        int count = 0;
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(dir)) {
+            for (Path ignored : entries) {
+                count++;
+            }
+        } catch (NoSuchFileException e) {
+            return 0;
+        } catch (IOException e) {
+            return -1;
+        }
+        return count;
+    }
+
+    void checkLimits(DevServer devServer, Sample sample) {
+        String name = devServer.frontend().getName();
+        String exceeded = exceededLimit(sample);
+        if (exceeded == null) {
+            overLimit.remove(name);
+            return;
+        }
+
+        ViteDevServerService service = devServer.service();
+        if (properties.getLimitAction() != ViteProperties.ProcessMonitor.LimitAction.RESTART) {
+            // Once per excursion, not on every sample
+            if (overLimit.add(name)) {
+                logger.warn("Vite dev server for {} is {}", devServer.frontend(), exceeded);
+            }
+            return;
+        }
+        if (service.getState() != ViteDevServerService.State.READY) {
+            // Checked again once it is ready
+            return;
+        }
+        Instant restarted = lastRestart.get(name);
+        if (restarted != null && restarted.plus(RESTART_BACKOFF).isAfter(sample.time())) {
+            // Warned once; the excursion is still handled when the backoff expires
+            if (overLimit.add(name)) {
+                logger.warn("Vite dev server for {} is {}; not restarting it again within {} minutes",
+                        devServer.frontend(), exceeded, RESTART_BACKOFF.toMinutes());
+            }
+            return;
+        }
+        logger.warn("Vite dev server for {} is {}; restarting it", devServer.frontend(), exceeded);
+        if (service.restartDevServer()) {
+            lastRestart.put(name, sample.time());
+            overLimit.remove(name);
+            samples.remove(name);
+        }
+    }
+
+    String exceededLimit(Sample sample) {
+        DataSize maxRss = properties.getMaxRss();
+        if (maxRss != null && sample.rssBytes() > maxRss.toBytes()) {
+            return "using " + sample.rssBytes() / (1024 * 1024) + " MB of resident memory, above "
+                    + "icebrew.vite.process-monitor.max-rss=" + maxRss.toMegabytes() + "MB";
+        }
+        Integer maxOpenFiles = properties.getMaxOpenFiles();
+        if (maxOpenFiles != null && sample.openFiles() > maxOpenFiles) {
+            return "holding " + sample.openFiles() + " open files, above "
+                    + "icebrew.vite.process-monitor.max-open-files=" + maxOpenFiles;
+        }
+        return null;
+    }
+}
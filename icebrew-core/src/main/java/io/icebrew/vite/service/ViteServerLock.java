@@ -0,0 +1,128 @@
+package io.icebrew.vite.service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.Optional;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Lock file describing a Vite dev server that outlives the application, so a
+ * restarted application can find it and attach instead of starting another.
+ * <p>
+ * A lock only counts if its process is still alive and started at the
+ * recorded instant, which rules out a reused pid.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ViteServerLock {
+
+    /**
+     * Directory under the frontend directory that holds the lock and log files
+     */
+    public static final String STATE_DIR = ".icebrew";
+
+    private static final String LOCK_FILE = "dev-server.json";
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private long pid;
+    private String host;
+    private int port;
+    private Long startedAt;
+
+    public ViteServerLock() {
+    }
+
+    ViteServerLock(ProcessHandle process, String host, int port) {
+        this.pid = process.pid();
+        this.host = host;
+        this.port = port;
+        this.startedAt = process.info().startInstant().map(Instant::toEpochMilli).orElse(null);
+    }
+
+    /**
+     * Read the lock in a frontend directory
+     *
+     * @return the lock, or empty if there is none or it cannot be read
+     */
+    public static Optional<ViteServerLock> read(Path frontendDir) {
+        Path file = frontendDir.resolve(STATE_DIR).resolve(LOCK_FILE);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(file.toFile(), ViteServerLock.class));
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Write this lock to a frontend directory, replacing any previous one
+     */
+    public void write(Path frontendDir) throws IOException {
+        Path dir = Files.createDirectories(frontendDir.resolve(STATE_DIR));
+        Path temp = Files.createTempFile(dir, LOCK_FILE, ".tmp");
+        objectMapper.writeValue(temp.toFile(), this);
+        Files.move(temp, dir.resolve(LOCK_FILE), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static void delete(Path frontendDir) {
+        try {
+            Files.deleteIfExists(frontendDir.resolve(STATE_DIR).resolve(LOCK_FILE));
+        } catch (IOException e) {
+            // Ignored; a stale lock fails verification
+        }
+    }
+
+    /**
+     * The recorded process, if it is still the same live process
+     */
+    public Optional<ProcessHandle> findProcess() {
+        return ProcessHandle.of(pid)
+                .filter(ProcessHandle::isAlive)
+                .filter(process -> startedAt == null || process.info().startInstant()
+                        .map(start -> start.toEpochMilli() == startedAt)
+                        .orElse(true));
+    }
+
+    public boolean isFor(String host, int port) {
+        return this.port == port && this.host != null && this.host.equals(host);
+    }
+
+    public long getPid() {
+        return pid;
+    }
+
+    public void setPid(long pid) {
+        this.pid = pid;
+    }
+
+    public String getHost() {
+        return host;
+    }
+
+    public void setHost(String host) {
+        this.host = host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    public Long getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Long startedAt) {
+        this.startedAt = startedAt;
+    }
+}
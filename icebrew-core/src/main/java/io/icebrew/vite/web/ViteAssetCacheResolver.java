@@ -0,0 +1,45 @@
+package io.icebrew.vite.web;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import io.icebrew.vite.resource.CachedAssetResource;
+import io.icebrew.vite.resource.ViteAssetCache;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resource resolver that serves resolved build files through the
+ * {@link ViteAssetCache}
+ */
+public class ViteAssetCacheResolver extends AbstractResourceResolver {
+
+    private final ViteAssetCache assetCache;
+
+    public ViteAssetCacheResolver(ViteAssetCache assetCache) {
+        this.assetCache = assetCache;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        Resource resource = chain.resolveResource(request, requestPath, locations);
+        if (resource == null || !resource.isFile()) {
+            return resource;
+        }
+        try {
+            return new CachedAssetResource(resource, assetCache);
+        } catch (IOException e) {
+            return resource;
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+}
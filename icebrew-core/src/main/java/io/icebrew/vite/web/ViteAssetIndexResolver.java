@@ -0,0 +1,67 @@
+package io.icebrew.vite.web;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.springframework.core.io.Resource;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.servlet.resource.AbstractResourceResolver;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+import org.springframework.web.util.ServletRequestPathUtils;
+import org.springframework.web.util.UriUtils;
+
+import io.icebrew.vite.resource.IndexedAssetResource;
+import io.icebrew.vite.resource.ViteAssetIndex;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Resource resolver that answers packaged build files from the site's
+ * {@link ViteAssetIndex}: paths the index does not list are not found without
+ * a classpath lookup, and listed ones resolve to an
+ * {@link IndexedAssetResource}. Falls back to the rest of the chain while the
+ * site has no index.
+ */
+public class ViteAssetIndexResolver extends AbstractResourceResolver {
+
+    private final ViteSite site;
+
+    public ViteAssetIndexResolver(ViteSite site) {
+        this.site = site;
+    }
+
+    @Override
+    protected Resource resolveResourceInternal(HttpServletRequest request, String requestPath,
+            List<? extends Resource> locations, ResourceResolverChain chain) {
+        ViteAssetIndex index = site.getAssetIndex();
+        if (index == null || locations.isEmpty()) {
+            return chain.resolveResource(request, requestPath, locations);
+        }
+
+        String path = isEncoded(request) ? UriUtils.decode(requestPath, StandardCharsets.UTF_8) : requestPath;
+        ViteAssetIndex.Asset asset = index.get("/" + path);
+        if (asset == null) {
+            return null;
+        }
+        try {
+            return new IndexedAssetResource(locations.get(0).createRelative(path), asset, index);
+        } catch (IOException e) {
+            return chain.resolveResource(request, requestPath, locations);
+        }
+    }
+
+    @Override
+    protected String resolveUrlPathInternal(String resourceUrlPath, List<? extends Resource> locations,
+            ResourceResolverChain chain) {
+        return chain.resolveUrlPath(resourceUrlPath, locations);
+    }
+
+    /**
+     * Whether the path was matched by a parsed pattern, which leaves it
+     * encoded, as PathResourceResolver does
+     */
+    private static boolean isEncoded(HttpServletRequest request) {
+        return request != null && ServletRequestPathUtils.hasCachedPath(request)
+                && ServletRequestPathUtils.getCachedPath(request) instanceof PathContainer;
+    }
+}
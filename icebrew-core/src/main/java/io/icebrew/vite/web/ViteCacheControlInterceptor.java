@@ -0,0 +1,41 @@
+package io.icebrew.vite.web;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.util.UrlPathHelper;
+
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.resource.ViteCachePolicy;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Sets {@code Cache-Control} on responses for Vite build assets according to
+ * the {@link ViteCachePolicy} of the frontend the request belongs to
+ */
+public class ViteCacheControlInterceptor implements HandlerInterceptor {
+
+    private final ViteFrontendRouter<ViteSite> sites;
+
+    public ViteCacheControlInterceptor(ViteFrontendRouter<ViteSite> sites) {
+        this.sites = sites;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof ResourceHttpRequestHandler) {
+            // Decoded, as cache policy globs and manifest files are
+            String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+            ViteSite site = sites.route(path);
+            if (site == null) {
+                return true;
+            }
+            String cacheControl = site.getCachePolicy().cacheControlFor(site.getFrontend().relativize(path));
+            if (cacheControl != null) {
+                response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+            }
+        }
+        return true;
+    }
+}
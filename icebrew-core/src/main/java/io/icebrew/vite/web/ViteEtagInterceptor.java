@@ -0,0 +1,65 @@
+package io.icebrew.vite.web;
+
+import java.util.Enumeration;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+import org.springframework.web.util.UrlPathHelper;
+
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.resource.EntityTags;
+import io.icebrew.vite.resource.ViteAssetIndex;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Answers conditional requests for Vite build assets from the
+ * {@link ViteAssetIndex}, before the resource chain resolves any file
+ */
+public class ViteEtagInterceptor implements HandlerInterceptor {
+
+    private final ViteFrontendRouter<ViteSite> sites;
+    private final boolean precompressed;
+
+    public ViteEtagInterceptor(ViteFrontendRouter<ViteSite> sites, boolean precompressed) {
+        this.sites = sites;
+        this.precompressed = precompressed;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof ResourceHttpRequestHandler)) {
+            return true;
+        }
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return true;
+        }
+
+        Enumeration<String> ifNoneMatch = request.getHeaders(HttpHeaders.IF_NONE_MATCH);
+        if (!ifNoneMatch.hasMoreElements()) {
+            return true;
+        }
+
+        // Decoded, like the path the resource handler resolves, so "a%20b.js" finds "a b.js"
+        String path = UrlPathHelper.defaultInstance.getPathWithinApplication(request);
+        ViteSite site = sites.route(path);
+        ViteAssetIndex assetIndex = site != null ? site.getAssetIndex() : null;
+        if (assetIndex == null) {
+            return true;
+        }
+        String acceptEncoding = precompressed ? request.getHeader(HttpHeaders.ACCEPT_ENCODING) : null;
+        ViteAssetIndex.Asset asset = assetIndex.select(site.getFrontend().relativize(path), acceptEncoding);
+        if (asset == null || !EntityTags.matches(ifNoneMatch, asset.etag())) {
+            return true;
+        }
+
+        response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+        response.setHeader(HttpHeaders.ETAG, asset.etag());
+        if (precompressed) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        return false;
+    }
+}
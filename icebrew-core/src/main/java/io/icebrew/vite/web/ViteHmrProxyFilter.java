@@ -1,14 +1,11 @@
 package io.icebrew.vite.web;
 
 import java.io.IOException;
-import java.util.Arrays;
-import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.env.Environment;
 
-import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.proxy.HmrWebSocketRelay;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -18,18 +15,19 @@ import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 /**
- * Filter for proxying WebSocket and HMR requests to Vite dev server
+ * Filter for proxying WebSocket and HMR requests to Vite dev server. Only
+ * registered in development mode.
  */
 public class ViteHmrProxyFilter implements Filter {
 
     private static final Logger logger = LoggerFactory.getLogger(ViteHmrProxyFilter.class);
 
-    private final ViteProperties viteProperties;
-    private final Environment environment;
+    private final ViteRequestClassifier requestClassifier;
+    private final HmrWebSocketRelay webSocketRelay;
 
-    public ViteHmrProxyFilter(ViteProperties viteProperties, Environment environment) {
-        this.viteProperties = viteProperties;
-        this.environment = environment;
+    public ViteHmrProxyFilter(ViteRequestClassifier requestClassifier, HmrWebSocketRelay webSocketRelay) {
+        this.requestClassifier = requestClassifier;
+        this.webSocketRelay = webSocketRelay;
     }
 
     @Override
@@ -40,7 +38,7 @@ public class ViteHmrProxyFilter implements Filter {
         HttpServletResponse httpResponse = (HttpServletResponse) response;
 
         // Check if this is a WebSocket upgrade request for HMR
-        if (isWebSocketRequest(httpRequest) && isDevelopmentMode()) {
+        if (requestClassifier.classify(httpRequest) == ViteRequestClassifier.RequestType.HMR) {
             logger.debug("WebSocket/HMR request detected: {}", httpRequest.getRequestURI());
             proxyWebSocketRequest(httpRequest, httpResponse);
             return;
@@ -49,25 +47,8 @@ public class ViteHmrProxyFilter implements Filter {
         chain.doFilter(request, response);
     }
 
-    private boolean isWebSocketRequest(HttpServletRequest request) {
-        String upgrade = request.getHeader("Upgrade");
-        String connection = request.getHeader("Connection");
-
-        return upgrade != null && upgrade.toLowerCase().contains("websocket") &&
-                connection != null && connection.toLowerCase().contains("upgrade");
-    }
-
-    private boolean isDevelopmentMode() {
-        List<String> activeProfiles = Arrays.asList(environment.getActiveProfiles());
-        return activeProfiles.isEmpty() || activeProfiles.contains("dev") || activeProfiles.contains("development");
-    }
-
-    private void proxyWebSocketRequest(HttpServletRequest request, HttpServletResponse response) {
-        // For WebSocket connections, we need to let the client know to connect directly
-        // to Vite
-        // This is handled by injecting the Vite client script which manages HMR
-        // connections
-        response.setStatus(HttpServletResponse.SC_SWITCHING_PROTOCOLS);
-        logger.info("WebSocket upgrade for HMR - client should connect to: {}", viteProperties.getDevServerUrl());
+    private void proxyWebSocketRequest(HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        webSocketRelay.relay(request, response);
     }
 }
@@ -0,0 +1,186 @@
+package io.icebrew.vite.web;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.HttpRequestHandler;
+
+import io.icebrew.vite.resource.EntityTags;
+import io.icebrew.vite.resource.ViteIndexHtml;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Serves the pre-rendered production {@code index.html} from memory, with
+ * {@code Link} preload headers and optional {@code 103 Early Hints}.
+ * <p>
+ * The source file is checked for changes at most once per check interval and
+ * re-rendered when its modification time changes. Since every build rewrites
+ * it, reload listeners can use this to pick up the rest of a rebuilt output.
+ */
+public class ViteIndexHtmlHandler implements HttpRequestHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteIndexHtmlHandler.class);
+
+    private static final int SC_EARLY_HINTS = 103;
+
+    private final Resource source;
+    private final Function<byte[], ViteIndexHtml> renderer;
+    private final long checkIntervalNanos;
+    private final String cacheControl;
+    private final boolean linkHeader;
+    private final boolean earlyHints;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+
+    private volatile ViteIndexHtml indexHtml;
+    private volatile long lastModified;
+    private volatile long nextCheck;
+
+    /**
+     * @param source the built {@code index.html}
+     * @param renderer renders the page from the file contents
+     * @param checkInterval how often to check the source for changes; zero
+     * disables the check
+     */
+    public ViteIndexHtmlHandler(Resource source, Function<byte[], ViteIndexHtml> renderer, Duration checkInterval,
+            String cacheControl, boolean linkHeader, boolean earlyHints) throws IOException {
+        this.source = source;
+        this.renderer = renderer;
+        this.checkIntervalNanos = checkInterval.toNanos();
+        this.cacheControl = cacheControl;
+        this.linkHeader = linkHeader;
+        this.earlyHints = earlyHints && linkHeader;
+        this.lastModified = lastModified();
+        this.indexHtml = render();
+        this.nextCheck = System.nanoTime() + checkIntervalNanos;
+    }
+
+    /**
+     * Whether the servlet container can send {@code 103 Early Hints}. Recent
+     * Tomcat releases support it through {@code sendError(103)}; older ones and
+     * other containers would turn that into an error response.
+     */
+    public static boolean isEarlyHintsSupported() {
+        try {
+            Class<?> actionCode = Class.forName("org.apache.coyote.ActionCode");
+            for (Object code : actionCode.getEnumConstants()) {
+                if ("EARLY_HINTS".equals(code.toString())) {
+                    return true;
+                }
+            }
+        } catch (ClassNotFoundException e) {
+            // Not Tomcat
+        }
+        return false;
+    }
+
+    /**
+     * Run a listener each time the source is re-rendered, before the new page
+     * is served
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    @Override
+    public void handleRequest(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            response.setHeader(HttpHeaders.ALLOW, "GET, HEAD");
+            response.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+            return;
+        }
+
+        ViteIndexHtml page = getIndexHtml();
+        if (EntityTags.matches(request.getHeaders(HttpHeaders.IF_NONE_MATCH), page.getEtag())) {
+            setCacheHeaders(response, page);
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        if (linkHeader && page.getLinkHeader() != null) {
+            // Same hrefs as the page itself, so they follow Vite's base
+            response.setHeader(HttpHeaders.LINK, page.getLinkHeader());
+            if (earlyHints && !request.getProtocol().equals("HTTP/1.0")) {
+                // Sent with the headers set so far, so only the links go out on the 103
+                try {
+                    response.sendError(SC_EARLY_HINTS);
+                } catch (IOException | IllegalStateException e) {
+                    logger.debug("Failed to send 103 Early Hints", e);
+                }
+            }
+        }
+
+        setCacheHeaders(response, page);
+        byte[] content = page.getContent();
+        response.setContentType(MediaType.TEXT_HTML_VALUE + ";charset=UTF-8");
+        response.setContentLength(content.length);
+        if ("GET".equals(method)) {
+            response.getOutputStream().write(content);
+        }
+    }
+
+    private void setCacheHeaders(HttpServletResponse response, ViteIndexHtml page) {
+        if (cacheControl != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl);
+        }
+        response.setHeader(HttpHeaders.ETAG, page.getEtag());
+    }
+
+    /**
+     * Get the rendered page, re-rendering it first if the source changed
+     */
+    public ViteIndexHtml getIndexHtml() {
+        if (checkIntervalNanos > 0 && System.nanoTime() - nextCheck >= 0) {
+            refresh();
+        }
+        return indexHtml;
+    }
+
+    private synchronized void refresh() {
+        long now = System.nanoTime();
+        if (now - nextCheck < 0) {
+            return;
+        }
+        nextCheck = now + checkIntervalNanos;
+
+        try {
+            long modified = lastModified();
+            if (modified != lastModified) {
+                ViteIndexHtml rendered = render();
+                for (Runnable listener : reloadListeners) {
+                    listener.run();
+                }
+                indexHtml = rendered;
+                lastModified = modified;
+                logger.info("Reloaded {}", source);
+            }
+        } catch (IOException e) {
+            // Keep serving the last good copy, e.g. while a build replaces the file
+            logger.debug("Failed to reload {}", source, e);
+        }
+    }
+
+    private ViteIndexHtml render() throws IOException {
+        try (InputStream in = source.getInputStream()) {
+            return renderer.apply(in.readAllBytes());
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return source.lastModified();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
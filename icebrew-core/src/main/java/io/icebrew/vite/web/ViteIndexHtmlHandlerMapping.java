@@ -0,0 +1,54 @@
+package io.icebrew.vite.web;
+
+import org.springframework.web.servlet.handler.AbstractHandlerMapping;
+
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.resource.ViteAssetIndex;
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Maps each frontend's path (e.g. {@code /} or {@code /admin/}), its
+ * {@code index.html} and, with the SPA fallback enabled, its client-side
+ * routes to that frontend's {@link ViteIndexHtmlHandler}.
+ * <p>
+ * A client-side route is a GET or HEAD request for a path outside the API
+ * prefixes whose last segment has no file extension and that is not a file of
+ * the build output.
+ */
+public class ViteIndexHtmlHandlerMapping extends AbstractHandlerMapping {
+
+    private final ViteFrontendRouter<ViteSite> sites;
+    private final boolean spaFallback;
+    private final ViteRequestClassifier requestClassifier;
+
+    public ViteIndexHtmlHandlerMapping(ViteFrontendRouter<ViteSite> sites, boolean spaFallback,
+            ViteRequestClassifier requestClassifier) {
+        this.sites = sites;
+        this.spaFallback = spaFallback;
+        this.requestClassifier = requestClassifier;
+    }
+
+    @Override
+    protected Object getHandlerInternal(HttpServletRequest request) {
+        String path = ViteRequestClassifier.getPath(request);
+        ViteSite site = sites.route(path);
+        ViteIndexHtmlHandler handler = site != null ? site.getIndexHtmlHandler() : null;
+        if (handler == null) {
+            return null;
+        }
+        String relativePath = site.getFrontend().relativize(path);
+        if (relativePath.equals("/") || relativePath.equals("/index.html")) {
+            return handler;
+        }
+        return spaFallback && isClientRoute(request, site, relativePath) ? handler : null;
+    }
+
+    private boolean isClientRoute(HttpServletRequest request, ViteSite site, String relativePath) {
+        if (requestClassifier.classify(request) != ViteRequestClassifier.RequestType.SPA_ROUTE) {
+            return false;
+        }
+        // Without an index, the file extension check alone decides
+        ViteAssetIndex assetIndex = site.getAssetIndex();
+        return assetIndex == null || assetIndex.get(relativePath) == null;
+    }
+}
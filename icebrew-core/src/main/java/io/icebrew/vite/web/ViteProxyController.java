@@ -1,49 +1,76 @@
 package io.icebrew.vite.web;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.Enumeration;
-import java.util.List;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.env.Environment;
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.StreamingHttpOutputMessage;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import io.icebrew.vite.config.ViteProperties;
-import io.icebrew.vite.service.ViteDevServerService;
+import io.icebrew.vite.metrics.ViteMetrics;
+import io.icebrew.vite.metrics.ViteMetrics.ProxyExchange;
+import io.icebrew.vite.proxy.ProxyBufferPool;
+import io.icebrew.vite.proxy.ProxyBufferPool.ClientDisconnectedException;
+import io.icebrew.vite.proxy.ProxyHeaders;
+import io.icebrew.vite.proxy.ViteAsyncProxy;
+import io.icebrew.vite.proxy.ViteDepsCache;
+import io.icebrew.vite.proxy.ViteProxyExecutor;
+import io.icebrew.vite.service.ViteDevServerHealth;
+import io.icebrew.vite.service.ViteDevServers;
+import io.icebrew.vite.service.ViteDevServers.DevServer;
+import io.icebrew.vite.service.ViteHealthTracker;
+import jakarta.servlet.AsyncContext;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 /**
- * Controller that proxies requests to Vite dev server in development mode
+ * Controller that proxies requests to Vite dev server. Only registered in
+ * development mode.
  */
 @RestController
 public class ViteProxyController {
 
     private static final Logger logger = LoggerFactory.getLogger(ViteProxyController.class);
-    private static final List<String> EXCLUDED_HEADERS = List.of(
-            "host", "connection", "content-length", "transfer-encoding");
+
+    // Set on a held request whose hold timeout passed before it was released
+    private static final String HOLD_EXPIRED_ATTRIBUTE = ViteProxyController.class.getName() + ".holdExpired";
 
     private final ViteProperties viteProperties;
-    private final ViteDevServerService devServerService;
-    private final Environment environment;
-    private final RestTemplate restTemplate;
+    private final ViteDevServers devServers;
+    private final ViteRequestClassifier requestClassifier;
+    private final ViteProxyExecutor proxyExecutor;
+    private final ViteAsyncProxy asyncProxy;
+    private final ViteMetrics metrics;
+    private final ViteHealthTracker healthTracker;
+    private final ProxyBufferPool bufferPool;
 
     public ViteProxyController(ViteProperties viteProperties,
-            ViteDevServerService devServerService,
-            Environment environment) {
+            ViteDevServers devServers,
+            ViteRequestClassifier requestClassifier,
+            ViteProxyExecutor proxyExecutor,
+            ViteAsyncProxy asyncProxy,
+            ViteMetrics metrics,
+            ViteHealthTracker healthTracker) {
         this.viteProperties = viteProperties;
-        this.devServerService = devServerService;
-        this.environment = environment;
-        this.restTemplate = new RestTemplate();
+        this.devServers = devServers;
+        this.requestClassifier = requestClassifier;
+        this.proxyExecutor = proxyExecutor;
+        this.asyncProxy = asyncProxy;
+        this.metrics = metrics;
+        this.healthTracker = healthTracker;
+        this.bufferPool = new ProxyBufferPool(
+                viteProperties.getProxy().getBufferSize(),
+                viteProperties.getProxy().getMaxPooledBuffers());
     }
 
     /**
@@ -52,92 +79,249 @@ public class ViteProxyController {
     @RequestMapping("/**")
     public void proxyToVite(HttpServletRequest request, HttpServletResponse response) throws IOException {
 
-        // Skip if not in development mode or if it's an API request
-        String requestUri = request.getRequestURI();
-        if (!isDevelopmentMode() || isApiRequest(requestUri)) {
+        // Unmapped API paths stay 404 rather than reaching Vite
+        String path = ViteRequestClassifier.getPath(request);
+        DevServer devServer = requestClassifier.isApiPath(path) ? null : devServers.route(path);
+        if (devServer == null) {
             response.setStatus(HttpServletResponse.SC_NOT_FOUND);
             return;
         }
 
-        if (!devServerService.isRunning()) {
-            logger.warn("Vite dev server is not running");
-            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
-            response.getWriter().write("Vite dev server is not running");
+        String frontendName = devServer.frontend().getName();
+        ViteDevServerHealth health = healthTracker.get(frontendName);
+        ViteDevServerHealth.Status status = health.getStatus();
+        if (status == ViteDevServerHealth.Status.STARTING && request.getAttribute(HOLD_EXPIRED_ATTRIBUTE) == null
+                && health.reserveHold()) {
+            // Hold the request without holding a thread; it runs again the moment Vite answers
+            AsyncContext asyncContext = request.startAsync(request, response);
+            asyncContext.setTimeout(0);
+            health.hold(asyncContext::dispatch, () -> {
+                request.setAttribute(HOLD_EXPIRED_ATTRIBUTE, Boolean.TRUE);
+                asyncContext.dispatch();
+            });
+            return;
+        }
+        if (status != ViteDevServerHealth.Status.UP) {
+            // Down, still starting after the hold timeout, or too many requests already held
+            rejectUnavailable(health, response, metrics.startProxy(frontendName, path));
+            return;
+        }
+
+        ProxyExchange exchange = new HealthReportingExchange(metrics.startProxy(frontendName, path), health);
+        if (asyncProxy != null) {
+            proxyAsync(devServer, request, response, exchange);
+        } else if (proxyExecutor == null) {
+            proxy(devServer, request, response, exchange);
+        } else if (proxyExecutor.isSynchronous()) {
+            proxyExecutor.execute(() -> proxyQuietly(devServer, request, response, exchange));
+        } else {
+            // Release the container thread; the upstream round trip runs on the executor
+            AsyncContext asyncContext = request.startAsync(request, response);
+            asyncContext.setTimeout(0);
+            proxyExecutor.execute(() -> {
+                try {
+                    proxyQuietly(devServer, request, response, exchange);
+                } finally {
+                    asyncContext.complete();
+                }
+            });
+        }
+    }
+
+    /**
+     * Hand the exchange to the non-blocking proxy; the container thread
+     * returns as soon as the upstream request is sent
+     */
+    private void proxyAsync(DevServer devServer, HttpServletRequest request, HttpServletResponse response,
+            ProxyExchange exchange) throws IOException {
+        ViteDepsCache depsCache = devServer.depsCache();
+        String cacheKey = depsCache != null ? depsCache.cacheKey(request) : null;
+        long cached = cacheKey != null ? depsCache.serve(cacheKey, request, response) : -1;
+        if (cached >= 0) {
+            exchange.completed(response.getStatus(), 0, cached);
             return;
         }
 
+        HttpHeaders headers = ProxyHeaders.fromRequest(request);
+        if (cacheKey != null) {
+            headers.remove(HttpHeaders.IF_NONE_MATCH);
+            headers.remove(HttpHeaders.IF_MODIFIED_SINCE);
+        }
+        asyncProxy.proxy(request.startAsync(request, response), buildTargetUri(devServer, request), headers,
+                depsCache, cacheKey, exchange);
+    }
+
+    private void proxyQuietly(DevServer devServer, HttpServletRequest request, HttpServletResponse response,
+            ProxyExchange exchange) {
         try {
-            String targetUrl = buildTargetUrl(request);
-            HttpHeaders headers = buildProxyHeaders(request);
-            HttpMethod method = HttpMethod.valueOf(request.getMethod());
+            proxy(devServer, request, response, exchange);
+        } catch (IOException e) {
+            logger.debug("Failed to write response for {}", request.getRequestURI(), e);
+        }
+    }
 
-            logger.debug("Proxying {} {} to {}", method, requestUri, targetUrl);
+    private void proxy(DevServer devServer, HttpServletRequest request, HttpServletResponse response,
+            ProxyExchange exchange) throws IOException {
+        String requestUri = request.getRequestURI();
+        ViteDepsCache depsCache = devServer.depsCache();
+        long bytes = 0;
+        try {
+            String cacheKey = depsCache != null ? depsCache.cacheKey(request) : null;
+            long cached = cacheKey != null ? depsCache.serve(cacheKey, request, response) : -1;
+            if (cached >= 0) {
+                logger.debug("Served {} from the dependency cache", requestUri);
+                exchange.completed(response.getStatus(), 0, cached);
+                return;
+            }
 
-            ResponseEntity<byte[]> responseEntity = restTemplate.exchange(
-                    targetUrl,
-                    method,
-                    new HttpEntity<>(headers),
-                    byte[].class);
+            URI targetUri = buildTargetUri(devServer, request);
+            HttpMethod method = HttpMethod.valueOf(request.getMethod());
 
-            // Copy response
-            response.setStatus(responseEntity.getStatusCode().value());
+            logger.debug("Proxying {} {} to {}", method, requestUri, targetUri);
 
-            // Copy headers
-            responseEntity.getHeaders().forEach((name, values) -> {
-                if (!EXCLUDED_HEADERS.contains(name.toLowerCase())) {
-                    values.forEach(value -> response.addHeader(name, value));
-                }
-            });
+            ClientHttpRequest upstreamRequest = devServer.upstreamClient().getRequestFactory()
+                    .createRequest(targetUri, method);
+            upstreamRequest.getHeaders().addAll(ProxyHeaders.fromRequest(request));
+            if (cacheKey != null) {
+                // Ask for the full body so it can be cached, even if the browser has a copy
+                upstreamRequest.getHeaders().remove(HttpHeaders.IF_NONE_MATCH);
+                upstreamRequest.getHeaders().remove(HttpHeaders.IF_MODIFIED_SINCE);
+            }
+            forwardRequestBody(request, upstreamRequest);
 
-            // Copy body
-            byte[] body = responseEntity.getBody();
-            if (body != null && body.length > 0) {
-                response.getOutputStream().write(body);
+            try (ClientHttpResponse upstreamResponse = upstreamRequest.execute()) {
+                exchange.upstreamResponded();
+                bytes = streamResponse(devServer, upstreamResponse, response, cacheKey);
             }
+            exchange.completed(response.getStatus(), bytes, bytes);
 
+        } catch (ClientDisconnectedException e) {
+            logger.debug("Client disconnected while proxying {}", requestUri);
+            exchange.completed(response.getStatus(), bytes, bytes);
         } catch (Exception e) {
+            exchange.failed(e);
             logger.error("Error proxying request to Vite dev server", e);
-            response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
-            response.getWriter().write("Error proxying to Vite dev server: " + e.getMessage());
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+                response.getWriter().write("Error proxying to Vite dev server: " + e.getMessage());
+            }
         }
     }
 
-    private boolean isDevelopmentMode() {
-        List<String> activeProfiles = List.of(environment.getActiveProfiles());
-        return activeProfiles.isEmpty() || activeProfiles.contains("dev") || activeProfiles.contains("development");
+    /**
+     * Answer 503 without contacting Vite, telling the client when to retry
+     */
+    private void rejectUnavailable(ViteDevServerHealth health, HttpServletResponse response, ProxyExchange exchange)
+            throws IOException {
+        response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(health.getRetryAfterSeconds()));
+        response.getWriter().write(health.getStatus() == ViteDevServerHealth.Status.STARTING
+                ? "Vite dev server is starting"
+                : "Vite dev server is not running");
+        exchange.completed(HttpServletResponse.SC_SERVICE_UNAVAILABLE, 0, 0);
     }
 
-    private boolean isApiRequest(String uri) {
-        return uri.startsWith("/api/") || uri.startsWith("/actuator/");
+    /**
+     * Stream the client request body to Vite without holding it in memory. A
+     * known length is passed on as-is; otherwise the body goes out chunked.
+     */
+    private void forwardRequestBody(HttpServletRequest request, ClientHttpRequest upstreamRequest) {
+        long contentLength = request.getContentLengthLong();
+        boolean chunked = request.getHeader(HttpHeaders.TRANSFER_ENCODING) != null;
+        if (contentLength <= 0 && !chunked) {
+            return;
+        }
+
+        if (contentLength > 0) {
+            upstreamRequest.getHeaders().setContentLength(contentLength);
+        }
+
+        if (upstreamRequest instanceof StreamingHttpOutputMessage streamingRequest) {
+            streamingRequest.setBody(out -> bufferPool.upload(request.getInputStream(), out));
+        } else {
+            logger.warn("Upstream request does not support streaming; body of {} is dropped",
+                    request.getRequestURI());
+        }
     }
 
-    private String buildTargetUrl(HttpServletRequest request) {
+    /**
+     * Copy status and headers, then stream the upstream body to the client as it
+     * arrives instead of buffering it in memory
+     *
+     * @return number of body bytes streamed
+     */
+    private long streamResponse(DevServer devServer, ClientHttpResponse upstreamResponse,
+            HttpServletResponse response, String cacheKey) throws IOException {
+        int status = upstreamResponse.getStatusCode().value();
+        response.setStatus(status);
+
+        HttpHeaders headers = ProxyHeaders.copyResponseHeaders(upstreamResponse.getHeaders(), response);
+
+        InputStream body = upstreamResponse.getBody();
+        try {
+            OutputStream out = response.getOutputStream();
+            if (cacheKey != null && status == HttpServletResponse.SC_OK) {
+                out = devServer.depsCache().record(cacheKey, headers, out);
+            }
+            long bytes = bufferPool.transfer(body, out);
+            out.close();
+            return bytes;
+        } catch (ClientDisconnectedException e) {
+            // Drop the upstream connection rather than draining the remaining body
+            devServer.upstreamClient().abort(body);
+            throw e;
+        }
+    }
+
+    private URI buildTargetUri(DevServer devServer, HttpServletRequest request) {
         String queryString = request.getQueryString();
         UriComponentsBuilder builder = UriComponentsBuilder
-                .fromHttpUrl(devServerService.getDevServerUrl())
+                .fromHttpUrl(devServer.service().getDevServerUrl())
                 .path(request.getRequestURI());
 
         if (queryString != null && !queryString.isEmpty()) {
             builder.query(queryString);
         }
 
-        return builder.build().toUriString();
+        return builder.build().toUri();
     }
 
-    private HttpHeaders buildProxyHeaders(HttpServletRequest request) {
-        HttpHeaders headers = new HttpHeaders();
-        Enumeration<String> headerNames = request.getHeaderNames();
+    /**
+     * Reports to the dev server's health whether Vite answered: a response
+     * resets the failure count, and a connect or response error before any
+     * response adds to it. Errors on the client's side of the exchange say
+     * nothing about Vite and are not counted.
+     */
+    private static class HealthReportingExchange implements ProxyExchange {
 
-        if (headerNames != null) {
-            while (headerNames.hasMoreElements()) {
-                String headerName = headerNames.nextElement();
-                if (!EXCLUDED_HEADERS.contains(headerName.toLowerCase())) {
-                    List<String> headerValues = Collections.list(request.getHeaders(headerName));
-                    headers.addAll(headerName, headerValues);
-                }
-            }
+        private final ProxyExchange delegate;
+        private final ViteDevServerHealth health;
+        private volatile boolean responded;
+
+        HealthReportingExchange(ProxyExchange delegate, ViteDevServerHealth health) {
+            this.delegate = delegate;
+            this.health = health;
+        }
+
+        @Override
+        public void upstreamResponded() {
+            responded = true;
+            health.recordSuccess();
+            delegate.upstreamResponded();
         }
 
-        return headers;
+        @Override
+        public void completed(int status, long bytesReceived, long bytesSent) {
+            delegate.completed(status, bytesReceived, bytesSent);
+        }
+
+        @Override
+        public void failed(Throwable error) {
+            if (!responded && !ClientDisconnectedException.isCauseOf(error)) {
+                health.recordFailure(error.getClass().getSimpleName());
+            }
+            delegate.failed(error);
+        }
     }
 }
@@ -0,0 +1,143 @@
+package io.icebrew.vite.web;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+
+import org.springframework.http.HttpHeaders;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Sorts requests into the kinds IceBrew treats differently. The API prefixes
+ * are normalized once up front, so classifying a request allocates nothing
+ * beyond its path.
+ */
+public class ViteRequestClassifier {
+
+    public enum RequestType {
+
+        /**
+         * Under one of the API prefixes; always left to the backend
+         */
+        API,
+
+        /**
+         * Vite's HMR connection: a WebSocket upgrade asking for the
+         * {@code vite-hmr} or {@code vite-ping} subprotocol
+         */
+        HMR,
+
+        /**
+         * A file: the last path segment has an extension, or a Vite virtual
+         * module such as {@code /@vite/client}
+         */
+        ASSET,
+
+        /**
+         * A GET or HEAD request for any other path, i.e. a client-side route
+         */
+        SPA_ROUTE,
+
+        /**
+         * Anything else, including the application's own WebSocket upgrades
+         */
+        OTHER
+    }
+
+    private static final String SEC_WEBSOCKET_PROTOCOL = "Sec-WebSocket-Protocol";
+
+    private final String[] apiPrefixes;
+
+    public ViteRequestClassifier(List<String> apiPrefixes) {
+        this.apiPrefixes = normalize(apiPrefixes);
+    }
+
+    public RequestType classify(HttpServletRequest request) {
+        String path = getPath(request);
+        if (isApiPath(path)) {
+            return RequestType.API;
+        }
+        if (isWebSocketUpgrade(request)) {
+            return isViteSubprotocol(request) ? RequestType.HMR : RequestType.OTHER;
+        }
+        if (isAssetPath(path)) {
+            return RequestType.ASSET;
+        }
+        String method = request.getMethod();
+        return "GET".equals(method) || "HEAD".equals(method) ? RequestType.SPA_ROUTE : RequestType.OTHER;
+    }
+
+    /**
+     * Path of the request within the application, without the context path
+     */
+    public static String getPath(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+        return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+    }
+
+    public boolean isApiPath(String path) {
+        for (String prefix : apiPrefixes) {
+            if (path.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isAssetPath(String path) {
+        return path.startsWith("/@") || path.lastIndexOf('.') > path.lastIndexOf('/');
+    }
+
+    private static boolean isWebSocketUpgrade(HttpServletRequest request) {
+        String upgrade = request.getHeader(HttpHeaders.UPGRADE);
+        if (upgrade == null || !containsIgnoreCase(upgrade, "websocket")) {
+            return false;
+        }
+        String connection = request.getHeader(HttpHeaders.CONNECTION);
+        return connection != null && containsIgnoreCase(connection, "upgrade");
+    }
+
+    /**
+     * Vite's client asks for {@code vite-hmr}, and for {@code vite-ping} to
+     * check whether the server is back after a restart
+     */
+    private static boolean isViteSubprotocol(HttpServletRequest request) {
+        Enumeration<String> protocols = request.getHeaders(SEC_WEBSOCKET_PROTOCOL);
+        while (protocols != null && protocols.hasMoreElements()) {
+            String protocol = protocols.nextElement();
+            if (containsIgnoreCase(protocol, "vite-hmr") || containsIgnoreCase(protocol, "vite-ping")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean containsIgnoreCase(String value, String token) {
+        for (int i = 0; i <= value.length() - token.length(); i++) {
+            if (value.regionMatches(true, i, token, 0, token.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Leading slash added, duplicates and prefixes covered by a shorter one
+     * dropped, shortest first
+     */
+    private static String[] normalize(List<String> prefixes) {
+        String[] sorted = prefixes.stream()
+                .filter(prefix -> prefix != null && !prefix.isBlank())
+                .map(prefix -> prefix.startsWith("/") ? prefix : "/" + prefix)
+                .distinct()
+                .sorted(Comparator.comparingInt(String::length))
+                .toArray(String[]::new);
+        return Arrays.stream(sorted)
+                .filter(prefix -> Arrays.stream(sorted)
+                        .noneMatch(other -> other != prefix && prefix.startsWith(other)))
+                .toArray(String[]::new);
+    }
+}
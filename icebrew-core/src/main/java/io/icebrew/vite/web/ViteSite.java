@@ -0,0 +1,310 @@
+package io.icebrew.vite.web;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.StringUtils;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.resource.ViteAssetIndex;
+import io.icebrew.vite.resource.ViteCachePolicy;
+import io.icebrew.vite.resource.ViteIndexHtml;
+import io.icebrew.vite.resource.ViteManifest;
+
+/**
+ * Production build output of one frontend: where it is served from, its
+ * manifest, asset index, cache policy and {@code index.html} handler, each
+ * loaded on first use.
+ * <p>
+ * {@link #load()} is called during startup so that requests only read; a
+ * request that comes first loads under the site's lock. A rebuilt file system
+ * output is picked up when its {@code index.html} is reloaded: it is indexed
+ * again in the background and swapped in when done.
+ */
+public class ViteSite {
+
+    private static final Logger logger = LoggerFactory.getLogger(ViteSite.class);
+
+    private final ViteFrontend frontend;
+    private final ViteProperties.Assets assets;
+    private final List<Runnable> reloadListeners = new CopyOnWriteArrayList<>();
+    private final AtomicBoolean reloadPending = new AtomicBoolean();
+    // One re-index at a time; holds no thread while idle
+    private final ExecutorService reloadExecutor = new ThreadPoolExecutor(0, 1, 30, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, "vite-site-reload");
+                thread.setDaemon(true);
+                return thread;
+            });
+    private volatile ViteManifest manifest;
+    private volatile ViteAssetIndex assetIndex;
+    private volatile boolean assetIndexLoaded;
+    private volatile ViteCachePolicy cachePolicy;
+    private volatile ViteIndexHtmlHandler indexHtmlHandler;
+    private volatile boolean indexHtmlHandlerCreated;
+
+    public ViteSite(ViteFrontend frontend, ViteProperties.Assets assets) {
+        this.frontend = frontend;
+        this.assets = assets;
+    }
+
+    /**
+     * Load everything requests need
+     */
+    public void load() {
+        getAssetIndex();
+        getCachePolicy();
+        getIndexHtmlHandler();
+    }
+
+    /**
+     * Run a listener after a rebuilt output was picked up, on the thread that
+     * indexed it
+     */
+    public void addReloadListener(Runnable listener) {
+        reloadListeners.add(listener);
+    }
+
+    public ViteFrontend getFrontend() {
+        return frontend;
+    }
+
+    /**
+     * Resource location of the build output, or {@code null} if there is none
+     */
+    public String getAssetLocation() {
+        if (isClasspathSource()) {
+            if (!getPackagedIndex().exists()) {
+                logger.warn("No packaged frontend found at classpath:{}; run ViteAssetPackager during the build",
+                        getClasspathLocation());
+                return null;
+            }
+            return "classpath:" + getClasspathLocation() + ViteAssetIndex.DIST_DIR + "/";
+        }
+
+        File buildDir = frontend.getBuildDirectory();
+        if (!buildDir.isDirectory()) {
+            logger.warn("Vite build directory {} not found; static frontend files will not be served",
+                    buildDir.getAbsolutePath());
+            return null;
+        }
+        return "file:" + buildDir.getAbsolutePath() + File.separator;
+    }
+
+    /**
+     * Content index of the build output, or {@code null} if content ETags are
+     * disabled or there is no build output
+     */
+    public ViteAssetIndex getAssetIndex() {
+        if (!assetIndexLoaded && assets.isContentEtags()) {
+            loadAssetIndex();
+        }
+        return assetIndex;
+    }
+
+    private synchronized void loadAssetIndex() {
+        if (assetIndexLoaded) {
+            return;
+        }
+        if (isClasspathSource()) {
+            Resource index = getPackagedIndex();
+            if (index.exists()) {
+                try {
+                    assetIndex = ViteAssetIndex.load(index);
+                } catch (IOException e) {
+                    logger.warn("Failed to read asset index {}; ETags are disabled", index, e);
+                }
+            }
+        } else {
+            File buildDir = frontend.getBuildDirectory();
+            if (buildDir.isDirectory()) {
+                assetIndex = ViteAssetIndex.scan(buildDir.toPath());
+            }
+        }
+        // Only after the index, so a reader that sees the flag sees the index too
+        assetIndexLoaded = true;
+    }
+
+    public ViteCachePolicy getCachePolicy() {
+        if (cachePolicy == null) {
+            cachePolicy = new ViteCachePolicy(getManifest(), assets.getCacheControl(), assets.getDefaultCacheControl());
+        }
+        return cachePolicy;
+    }
+
+    /**
+     * Handler for {@code index.html}, or {@code null} if the build output has
+     * none
+     */
+    public ViteIndexHtmlHandler getIndexHtmlHandler() {
+        if (!indexHtmlHandlerCreated) {
+            synchronized (this) {
+                if (!indexHtmlHandlerCreated) {
+                    indexHtmlHandler = createIndexHtmlHandler();
+                    indexHtmlHandlerCreated = true;
+                }
+            }
+        }
+        return indexHtmlHandler;
+    }
+
+    /**
+     * index.html and everything the manifest entries load up front, including
+     * precompressed variants
+     */
+    public List<File> getPreloadFiles() {
+        File buildDir = frontend.getBuildDirectory();
+        Set<String> paths = new LinkedHashSet<>();
+        paths.add("index.html");
+        ViteManifest manifest = getManifest();
+        for (ViteManifest.Chunk entry : manifest.getEntries()) {
+            paths.addAll(manifest.getPreloadFiles(entry));
+        }
+
+        List<File> files = new ArrayList<>();
+        for (String path : paths) {
+            files.add(new File(buildDir, path));
+            if (assets.isPrecompressed()) {
+                files.add(new File(buildDir, path + ".br"));
+                files.add(new File(buildDir, path + ".gz"));
+            }
+        }
+        return files.stream().filter(File::isFile).toList();
+    }
+
+    public boolean isClasspathSource() {
+        return assets.getSource() == ViteProperties.Assets.Source.CLASSPATH;
+    }
+
+    private ViteIndexHtmlHandler createIndexHtmlHandler() {
+        if (getAssetLocation() == null) {
+            return null;
+        }
+        Resource resource = getAssetResource("index.html");
+        if (!resource.exists()) {
+            return null;
+        }
+
+        boolean earlyHints = assets.isEarlyHints();
+        if (earlyHints && !ViteIndexHtmlHandler.isEarlyHintsSupported()) {
+            logger.warn("The servlet container does not support 103 Early Hints; sending Link headers only");
+            earlyHints = false;
+        }
+
+        try {
+            ViteIndexHtmlHandler handler = new ViteIndexHtmlHandler(resource,
+                    html -> ViteIndexHtml.render(html, loadManifest(), assets.isPreloadLinks()),
+                    isClasspathSource() ? Duration.ZERO : assets.getIndexHtmlCheckInterval(),
+                    getCachePolicy().cacheControlFor("/index.html"), assets.isPreloadLinks(), earlyHints);
+            if (!isClasspathSource()) {
+                handler.addReloadListener(this::scheduleReload);
+            }
+            return handler;
+        } catch (IOException e) {
+            logger.warn("Failed to read {}; index.html is served by the resource handler", resource, e);
+            return null;
+        }
+    }
+
+    /**
+     * Hashing the whole output must not hold up the request that noticed the
+     * new index.html, so it runs in the background while the previous index
+     * keeps answering; rebuilds noticed meanwhile are folded into one
+     */
+    private void scheduleReload() {
+        if (reloadPending.compareAndSet(false, true)) {
+            reloadExecutor.execute(() -> {
+                reloadPending.set(false);
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to index rebuilt output of {}", frontend, e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Index the rebuilt output again: unhashed files keep their names, so only
+     * their content hash tells a client that its copy is stale
+     */
+    private void reload() {
+        File buildDir = frontend.getBuildDirectory();
+        if (!buildDir.isDirectory()) {
+            return;
+        }
+        ViteManifest reloaded = ViteManifest.load(buildDir.toPath());
+        if (assets.isContentEtags()) {
+            assetIndex = ViteAssetIndex.scan(buildDir.toPath());
+            assetIndexLoaded = true;
+        }
+        manifest = reloaded;
+        cachePolicy = new ViteCachePolicy(reloaded, assets.getCacheControl(), assets.getDefaultCacheControl());
+        for (Runnable listener : reloadListeners) {
+            listener.run();
+        }
+    }
+
+    /**
+     * Read the manifest again, for a rebuilt index.html
+     */
+    private ViteManifest loadManifest() {
+        if (manifest == null || isClasspathSource()) {
+            return getManifest();
+        }
+        File buildDir = frontend.getBuildDirectory();
+        return buildDir.isDirectory() ? ViteManifest.load(buildDir.toPath()) : ViteManifest.empty();
+    }
+
+    private ViteManifest getManifest() {
+        if (manifest == null) {
+            if (isClasspathSource()) {
+                String dist = getClasspathLocation() + ViteAssetIndex.DIST_DIR + "/";
+                manifest = ViteManifest.load(new ClassPathResource(dist));
+            } else {
+                File buildDir = frontend.getBuildDirectory();
+                manifest = buildDir.isDirectory() ? ViteManifest.load(buildDir.toPath()) : ViteManifest.empty();
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * A file of the build output, from whichever source is configured
+     */
+    private Resource getAssetResource(String path) {
+        if (isClasspathSource()) {
+            return new ClassPathResource(getClasspathLocation() + ViteAssetIndex.DIST_DIR + "/" + path);
+        }
+        return new FileSystemResource(new File(frontend.getBuildDirectory(), path));
+    }
+
+    /**
+     * Classpath location of the packaged frontend, with a trailing slash
+     */
+    private String getClasspathLocation() {
+        String location = StringUtils.trimLeadingCharacter(frontend.getClasspathLocation(), '/');
+        return location.endsWith("/") ? location : location + "/";
+    }
+
+    private Resource getPackagedIndex() {
+        return new ClassPathResource(getClasspathLocation() + ViteAssetIndex.INDEX_FILE);
+    }
+}
@@ -0,0 +1,53 @@
+package io.icebrew.vite.web;
+
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.metrics.ViteMetrics;
+import io.icebrew.vite.metrics.ViteMetrics.StaticResult;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts hits, misses and {@code 304} responses of the build output handlers
+ * by the status they end with. Registered ahead of the other interceptors so
+ * it also sees requests they answer themselves.
+ */
+public class ViteStaticMetricsInterceptor implements HandlerInterceptor {
+
+    private final ViteFrontendRouter<ViteSite> sites;
+    private final ViteMetrics metrics;
+
+    public ViteStaticMetricsInterceptor(ViteFrontendRouter<ViteSite> sites, ViteMetrics metrics) {
+        this.sites = sites;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (!(handler instanceof ResourceHttpRequestHandler) && !(handler instanceof ViteIndexHtmlHandler)) {
+            return;
+        }
+        StaticResult result = resultOf(response.getStatus());
+        if (result == null) {
+            return;
+        }
+        String path = ViteRequestClassifier.getPath(request);
+        ViteSite site = sites.route(path);
+        if (site != null) {
+            metrics.recordStatic(site.getFrontend().getName(), path, result);
+        }
+    }
+
+    private static StaticResult resultOf(int status) {
+        if (status == HttpServletResponse.SC_NOT_MODIFIED) {
+            return StaticResult.NOT_MODIFIED;
+        }
+        if (status == HttpServletResponse.SC_NOT_FOUND) {
+            return StaticResult.MISS;
+        }
+        return status >= 200 && status < 300 ? StaticResult.HIT : null;
+    }
+}
@@ -1,48 +1,142 @@
 package io.icebrew.vite.web;
 
-import java.io.File;
-import java.util.Arrays;
 import java.util.List;
 
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.env.Environment;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.Resource;
+import org.springframework.web.servlet.HandlerMapping;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.ResourceChainRegistration;
+import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistration;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.resource.EncodedResourceResolver;
 
+import io.icebrew.vite.autoconfigure.ConditionalOnViteMode;
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.config.ViteMode;
 import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.metrics.ViteMetrics;
+import io.icebrew.vite.resource.ViteAssetCache;
+import io.icebrew.vite.resource.ViteAssetIndex;
 
 /**
  * Configuration for serving static files from Vite build output in production
  * mode
  */
 @Configuration
+@ConditionalOnViteMode(ViteMode.PRODUCTION)
 public class ViteStaticResourceConfiguration implements WebMvcConfigurer {
 
     private final ViteProperties viteProperties;
-    private final Environment environment;
+    private final ViteRequestClassifier requestClassifier;
+    private final ViteAssetCache assetCache;
+    private final ViteFrontendRouter<ViteSite> sites;
+    private final ViteStaticMetricsInterceptor metricsInterceptor;
 
-    public ViteStaticResourceConfiguration(ViteProperties viteProperties, Environment environment) {
+    public ViteStaticResourceConfiguration(ViteProperties viteProperties, ViteRequestClassifier requestClassifier,
+            ObjectProvider<ViteAssetCache> assetCache, ObjectProvider<ViteMetrics> metrics) {
         this.viteProperties = viteProperties;
-        this.environment = environment;
+        this.requestClassifier = requestClassifier;
+        this.assetCache = assetCache.getIfAvailable();
+        List<ViteSite> sites = ViteFrontend.resolveAll(viteProperties).stream()
+                .map(frontend -> new ViteSite(frontend, viteProperties.getAssets()))
+                .toList();
+        this.sites = new ViteFrontendRouter<>(sites, ViteSite::getFrontend);
+        ViteMetrics viteMetrics = metrics.getIfAvailable(() -> ViteMetrics.NONE);
+        this.metricsInterceptor = viteMetrics.isEnabled()
+                ? new ViteStaticMetricsInterceptor(this.sites, viteMetrics)
+                : null;
     }
 
     @Override
     public void addResourceHandlers(ResourceHandlerRegistry registry) {
-        if (isProductionMode()) {
-            String buildPath = viteProperties.getFrontendDir() + File.separator + viteProperties.getBuildDir();
-            File buildDir = new File(buildPath);
-
-            if (buildDir.exists() && buildDir.isDirectory()) {
-                registry.addResourceHandler("/**")
-                        .addResourceLocations("file:" + buildDir.getAbsolutePath() + File.separator)
-                        .setCachePeriod(3600)
-                        .resourceChain(true);
+        for (ViteSite site : sites.getAll()) {
+            addResourceHandler(registry, site);
+        }
+    }
+
+    private void addResourceHandler(ResourceHandlerRegistry registry, ViteSite site) {
+        String location = site.getAssetLocation();
+
+        if (location != null) {
+            // Cache-Control is set per file by ViteCacheControlInterceptor
+            ResourceHandlerRegistration registration = registry
+                    .addResourceHandler(site.getFrontend().getPath() + "**")
+                    .addResourceLocations(location);
+
+            if (site.getAssetIndex() != null) {
+                // Timestamps change on every rebuild; content hashes don't.
+                // Looked up per request, since a rebuild replaces the index.
+                registration.setUseLastModified(false)
+                        .setEtagGenerator(resource -> etagFor(site.getAssetIndex(), resource));
+            }
+
+            ResourceChainRegistration chain = registration.resourceChain(true);
+
+            if (viteProperties.getAssets().isPrecompressed()) {
+                // Picks a .br or .gz sibling based on Accept-Encoding
+                chain.addResolver(new EncodedResourceResolver());
+            }
+
+            if (site.isClasspathSource()) {
+                // Answers existence, length and type from the index, not the class loader
+                chain.addResolver(new ViteAssetIndexResolver(site));
             }
+
+            if (assetCache != null && !site.isClasspathSource()) {
+                // Wraps resolved files (and their .br/.gz siblings) so reads hit memory
+                chain.addResolver(new ViteAssetCacheResolver(assetCache));
+                boolean preload = viteProperties.getAssets().getMemoryCache().isPreload();
+                if (preload) {
+                    assetCache.preload(site.getPreloadFiles());
+                }
+                site.addReloadListener(() -> {
+                    assetCache.invalidateStale();
+                    if (preload) {
+                        assetCache.preload(site.getPreloadFiles());
+                    }
+                });
+            }
+        }
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (metricsInterceptor != null) {
+            // First, so that it also sees the 304 responses of ViteEtagInterceptor
+            registry.addInterceptor(metricsInterceptor);
+        }
+        registry.addInterceptor(new ViteCacheControlInterceptor(sites));
+        if (viteProperties.getAssets().isContentEtags()) {
+            // Runs after Cache-Control is set so 304 responses carry it too
+            registry.addInterceptor(new ViteEtagInterceptor(sites, viteProperties.getAssets().isPrecompressed()));
+        }
+    }
+
+    /**
+     * Serves each frontend's {@code index.html} for its path and its
+     * client-side routes from memory. Ordered after controller mappings and
+     * before the resource handlers.
+     */
+    @Bean
+    public HandlerMapping viteIndexHtmlHandlerMapping() {
+        sites.getAll().forEach(ViteSite::load);
+        ViteIndexHtmlHandlerMapping mapping = new ViteIndexHtmlHandlerMapping(sites,
+                viteProperties.getAssets().isSpaFallback(), requestClassifier);
+        mapping.setOrder(Ordered.LOWEST_PRECEDENCE - 2);
+        if (metricsInterceptor != null) {
+            mapping.setInterceptors(metricsInterceptor);
         }
+        return mapping;
     }
 
-    private boolean isProductionMode() {
-        List<String> activeProfiles = Arrays.asList(environment.getActiveProfiles());
-        return activeProfiles.contains("prod") || activeProfiles.contains("production");
+    private static String etagFor(ViteAssetIndex assetIndex, Resource resource) {
+        ViteAssetIndex.Asset asset = assetIndex.get(resource);
+        return asset != null ? asset.etag() : null;
     }
 }
@@ -0,0 +1,47 @@
+package io.icebrew.vite.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import io.icebrew.vite.health.ViteHealthIndicator;
+import io.icebrew.vite.service.ViteDevServers;
+import io.icebrew.vite.service.ViteHealthTracker;
+import io.icebrew.vite.web.ViteProxyController;
+
+class ViteAutoConfigurationTest {
+
+    private final WebApplicationContextRunner contextRunner = new WebApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(ViteAutoConfiguration.class));
+
+    @Test
+    void tracksHealthOfStartedDevServer() {
+        contextRunner.run(context -> {
+            assertThat(context).hasSingleBean(ViteProxyController.class);
+            assertThat(context).hasSingleBean(ViteHealthTracker.class);
+            assertThat(context).hasSingleBean(ViteHealthIndicator.class);
+        });
+    }
+
+    @Test
+    void leavesHealthAloneWithoutAutoStart() {
+        contextRunner.withPropertyValues("icebrew.vite.auto-start=false").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(ViteDevServers.class);
+            assertThat(context).doesNotHaveBean(ViteProxyController.class);
+            assertThat(context).doesNotHaveBean(ViteHealthTracker.class);
+            assertThat(context).doesNotHaveBean(ViteHealthIndicator.class);
+        });
+    }
+
+    @Test
+    void registersNoDevServerBeansInProduction() {
+        contextRunner.withPropertyValues("spring.profiles.active=prod").run(context -> {
+            assertThat(context).hasNotFailed();
+            assertThat(context).doesNotHaveBean(ViteDevServers.class);
+            assertThat(context).doesNotHaveBean(ViteHealthIndicator.class);
+        });
+    }
+}
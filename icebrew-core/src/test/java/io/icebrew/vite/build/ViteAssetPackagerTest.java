@@ -0,0 +1,55 @@
+package io.icebrew.vite.build;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+
+import io.icebrew.vite.resource.ViteAssetIndex;
+
+class ViteAssetPackagerTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void copiesBuildOutputAndWritesIndex() throws IOException {
+        Path buildDir = Files.createDirectories(dir.resolve("frontend/dist/assets")).getParent();
+        Files.writeString(buildDir.resolve("index.html"), "<html></html>");
+        Files.writeString(buildDir.resolve("assets/app-B1a2c3.js"), "console.log(\"app\");\n");
+        Path target = dir.resolve("classes").resolve(ViteAssetPackager.DEFAULT_LOCATION);
+
+        int count = ViteAssetPackager.pack(buildDir, target);
+
+        assertThat(count).isEqualTo(2);
+        assertThat(target.resolve("dist/assets/app-B1a2c3.js")).hasContent("console.log(\"app\");");
+        ViteAssetIndex index = ViteAssetIndex.load(new FileSystemResource(target.resolve(ViteAssetIndex.INDEX_FILE)));
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.get("/index.html").length()).isEqualTo(13);
+        assertThat(index.get("/assets/app-B1a2c3.js")).isNotNull();
+    }
+
+    @Test
+    void removesFilesOfThePreviousBuild() throws IOException {
+        Path buildDir = Files.createDirectories(dir.resolve("frontend/dist/assets")).getParent();
+        Files.writeString(buildDir.resolve("index.html"), "<html></html>");
+        Files.writeString(buildDir.resolve("assets/app-B1a2c3.js"), "old");
+        Path target = dir.resolve("classes").resolve(ViteAssetPackager.DEFAULT_LOCATION);
+        ViteAssetPackager.pack(buildDir, target);
+
+        Files.delete(buildDir.resolve("assets/app-B1a2c3.js"));
+        Files.writeString(buildDir.resolve("assets/app-D4e5f6.js"), "new");
+        ViteAssetPackager.pack(buildDir, target);
+
+        assertThat(target.resolve("dist/assets/app-B1a2c3.js")).doesNotExist();
+        assertThat(target.resolve("dist/assets/app-D4e5f6.js")).hasContent("new");
+        ViteAssetIndex index = ViteAssetIndex.load(new FileSystemResource(target.resolve(ViteAssetIndex.INDEX_FILE)));
+        assertThat(index.get("/assets/app-B1a2c3.js")).isNull();
+        assertThat(index.get("/assets/app-D4e5f6.js")).isNotNull();
+    }
+}
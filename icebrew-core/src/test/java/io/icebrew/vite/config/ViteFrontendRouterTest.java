@@ -0,0 +1,73 @@
+package io.icebrew.vite.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+class ViteFrontendRouterTest {
+
+    private final ViteFrontend web = frontend("web", "/");
+    private final ViteFrontend admin = frontend("admin", "/admin/");
+    private final ViteFrontend reports = frontend("reports", "/admin/reports/");
+
+    @Test
+    void routesToLongestMatchingPrefix() {
+        ViteFrontendRouter<ViteFrontend> router = router(web, admin, reports);
+
+        assertThat(router.route("/")).isSameAs(web);
+        assertThat(router.route("/src/main.tsx")).isSameAs(web);
+        assertThat(router.route("/admin/")).isSameAs(admin);
+        assertThat(router.route("/admin/src/main.tsx")).isSameAs(admin);
+        assertThat(router.route("/admin/reports/@vite/client")).isSameAs(reports);
+        assertThat(router.route("/administrator")).isSameAs(web);
+    }
+
+    @Test
+    void routesPathWithoutTrailingSlashToItsFrontend() {
+        ViteFrontendRouter<ViteFrontend> router = router(web, admin, reports);
+
+        assertThat(router.route("/admin")).isSameAs(admin);
+        assertThat(router.route("/admin/reports")).isSameAs(reports);
+    }
+
+    @Test
+    void singleRootFrontendTakesEveryPath() {
+        ViteFrontendRouter<ViteFrontend> router = router(web);
+
+        assertThat(router.route("/")).isSameAs(web);
+        assertThat(router.route("/any/nested/path.js")).isSameAs(web);
+    }
+
+    @Test
+    void returnsNullOutsideEveryFrontend() {
+        ViteFrontendRouter<ViteFrontend> router = router(admin, reports);
+
+        assertThat(router.route("/")).isNull();
+        assertThat(router.route("/api/users")).isNull();
+        assertThat(router.route("/adminx/main.js")).isNull();
+        assertThat(router.route("/admin/reports/x.js")).isSameAs(reports);
+    }
+
+    @Test
+    void basePathDoesNotMoveDefaultFrontend() {
+        ViteProperties properties = new ViteProperties();
+        properties.setBasePath("/app");
+        ViteFrontend frontend = ViteFrontend.resolveAll(properties).get(0);
+
+        assertThat(frontend.getPath()).isEqualTo("/");
+        assertThat(frontend.getBasePath()).isEqualTo("/app");
+        assertThat(router(frontend).route("/")).isSameAs(frontend);
+        assertThat(router(frontend).route("/app/src/main.tsx")).isSameAs(frontend);
+    }
+
+    private static ViteFrontendRouter<ViteFrontend> router(ViteFrontend... frontends) {
+        return new ViteFrontendRouter<>(List.of(frontends), Function.identity());
+    }
+
+    private static ViteFrontend frontend(String name, String path) {
+        return new ViteFrontend(name, path, "localhost", 5173, name, "dist", "META-INF/icebrew/" + name);
+    }
+}
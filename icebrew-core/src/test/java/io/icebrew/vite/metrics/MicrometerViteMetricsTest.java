@@ -0,0 +1,93 @@
+package io.icebrew.vite.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.ConnectException;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MicrometerViteMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MicrometerViteMetrics metrics = new MicrometerViteMetrics(registry);
+
+    @Test
+    void tagsProxyMetersByFrontendAndType() {
+        ViteMetrics.ProxyExchange exchange = metrics.startProxy("admin", "/admin/src/main.ts");
+        exchange.upstreamResponded();
+        exchange.completed(200, 100, 120);
+
+        assertThat(timer("icebrew.vite.proxy.upstream", "admin", "script").count()).isEqualTo(1);
+        assertThat(registry.get("icebrew.vite.proxy.requests").tag("frontend", "admin").tag("type", "script")
+                .tag("status", "2xx").timer().count()).isEqualTo(1);
+        assertThat(registry.get("icebrew.vite.proxy.bytes.received").tag("frontend", "admin").tag("type", "script")
+                .counter().count()).isEqualTo(100);
+        assertThat(registry.get("icebrew.vite.proxy.bytes.sent").tag("frontend", "admin").tag("type", "script")
+                .counter().count()).isEqualTo(120);
+
+        metrics.startProxy("admin", "/admin/node_modules/.vite/deps/vue.js").completed(200, 0, 0);
+        assertThat(timer("icebrew.vite.proxy.upstream", "admin", "dependency")).isNotNull();
+    }
+
+    @Test
+    void bucketsStatusClasses() {
+        for (int status : new int[] { 101, 200, 204, 304, 404, 503, 99, 600, 0 }) {
+            metrics.startProxy("default", "/index.html").completed(status, 0, 0);
+        }
+
+        assertThat(requests("1xx").count()).isEqualTo(1);
+        assertThat(requests("2xx").count()).isEqualTo(2);
+        assertThat(requests("3xx").count()).isEqualTo(1);
+        assertThat(requests("4xx").count()).isEqualTo(1);
+        // 503 and the three out-of-range statuses
+        assertThat(requests("5xx").count()).isEqualTo(4);
+        assertThat(registry.find("icebrew.vite.proxy.requests").timers()).hasSize(5);
+    }
+
+    @Test
+    void countsErrorsPerExceptionClass() {
+        metrics.startProxy("default", "/src/App.vue").failed(new ConnectException("refused"));
+        metrics.startProxy("default", "/src/App.vue").failed(new ConnectException("refused"));
+        metrics.startProxy("default", "/src/App.vue").failed(new IOException("reset"));
+
+        assertThat(errors("ConnectException").count()).isEqualTo(2);
+        assertThat(errors("IOException").count()).isEqualTo(1);
+        assertThat(registry.find("icebrew.vite.proxy.errors").counters()).hasSize(2);
+        // Failures are timed as 502
+        assertThat(requests("5xx").count()).isEqualTo(3);
+    }
+
+    @Test
+    void tagsStaticRequestsByResult() {
+        metrics.recordStatic("default", "/assets/index-B1a2c3.js", ViteMetrics.StaticResult.HIT);
+        metrics.recordStatic("default", "/assets/index-B1a2c3.js", ViteMetrics.StaticResult.NOT_MODIFIED);
+        metrics.recordStatic("default", "/missing.png", ViteMetrics.StaticResult.MISS);
+
+        assertThat(staticRequests("script", "hit").count()).isEqualTo(1);
+        assertThat(staticRequests("script", "not-modified").count()).isEqualTo(1);
+        assertThat(staticRequests("image", "miss").count()).isEqualTo(1);
+    }
+
+    private Timer timer(String name, String frontend, String type) {
+        return registry.get(name).tag("frontend", frontend).tag("type", type).timer();
+    }
+
+    private Timer requests(String status) {
+        return registry.get("icebrew.vite.proxy.requests").tag("frontend", "default").tag("status", status).timer();
+    }
+
+    private Counter errors(String exception) {
+        return registry.get("icebrew.vite.proxy.errors").tag("frontend", "default").tag("type", "script")
+                .tag("exception", exception).counter();
+    }
+
+    private Counter staticRequests(String type, String result) {
+        return registry.get("icebrew.vite.static.requests").tag("frontend", "default").tag("type", type)
+                .tag("result", result).counter();
+    }
+}
@@ -0,0 +1,158 @@
+package io.icebrew.vite.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.http.WebSocket;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.service.ViteDevServerService;
+import io.icebrew.vite.service.ViteDevServers;
+import io.icebrew.vite.service.ViteLogBuffer;
+import jakarta.websocket.CloseReason;
+import jakarta.websocket.CloseReason.CloseCodes;
+import jakarta.websocket.RemoteEndpoint;
+import jakarta.websocket.SendHandler;
+import jakarta.websocket.SendResult;
+import jakarta.websocket.Session;
+import jakarta.websocket.server.ServerContainer;
+
+class HmrWebSocketRelayTest {
+
+    private final WebSocket upstream = mock(WebSocket.class);
+    private final Session browser = mock(Session.class);
+    private final RemoteEndpoint.Async remote = mock(RemoteEndpoint.Async.class);
+    private final List<Object> sent = new ArrayList<>();
+    private HmrWebSocketRelay.Connection connection;
+    private HmrWebSocketRelay.UpstreamListener listener;
+
+    @BeforeEach
+    void connect() {
+        when(browser.isOpen()).thenReturn(true);
+        when(browser.getAsyncRemote()).thenReturn(remote);
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            invocation.<SendHandler>getArgument(1).onResult(new SendResult());
+            return null;
+        }).when(remote).sendText(anyString(), any(SendHandler.class));
+        doAnswer(invocation -> {
+            sent.add(invocation.getArgument(0));
+            invocation.<SendHandler>getArgument(1).onResult(new SendResult());
+            return null;
+        }).when(remote).sendBinary(any(ByteBuffer.class), any(SendHandler.class));
+        when(upstream.sendClose(any(Integer.class), anyString()))
+                .thenReturn(CompletableFuture.completedFuture(upstream));
+
+        connection = new HmrWebSocketRelay.Connection(Duration.ofSeconds(1));
+        connection.connected(upstream);
+        assertThat(connection.browserOpened(browser)).isTrue();
+        listener = new HmrWebSocketRelay.UpstreamListener(connection);
+    }
+
+    @Test
+    void reassemblesFragmentedText() {
+        listener.onText(upstream, "{\"type\":", false);
+        listener.onText(upstream, "\"full-", false);
+        listener.onText(upstream, "reload\"}", true);
+
+        assertThat(sent).containsExactly("{\"type\":\"full-reload\"}");
+    }
+
+    @Test
+    void reassemblesFragmentedBinary() {
+        listener.onBinary(upstream, ByteBuffer.wrap(new byte[] { 1, 2, 3 }), false);
+        listener.onBinary(upstream, ByteBuffer.wrap(new byte[] { 4, 5 }), false);
+        listener.onBinary(upstream, ByteBuffer.wrap(new byte[] { 6 }), true);
+        listener.onBinary(upstream, ByteBuffer.wrap(new byte[] { 7 }), true);
+
+        assertThat(sent).hasSize(2);
+        assertThat(bytes(sent.get(0))).containsExactly(1, 2, 3, 4, 5, 6);
+        assertThat(bytes(sent.get(1))).containsExactly(7);
+    }
+
+    @Test
+    void closesOversizedBinaryMessage() throws IOException {
+        int half = HmrWebSocketRelay.MAX_MESSAGE_SIZE / 2 + 1;
+        listener.onBinary(upstream, ByteBuffer.allocate(half), false);
+        listener.onBinary(upstream, ByteBuffer.allocate(half), false);
+        // Dropped: the rest of the message arrives after the close
+        listener.onBinary(upstream, ByteBuffer.allocate(1), true);
+
+        assertThat(sent).isEmpty();
+        assertCloseTooBig();
+    }
+
+    @Test
+    void closesOversizedTextMessage() throws IOException {
+        String half = "x".repeat(HmrWebSocketRelay.MAX_MESSAGE_SIZE / 2 + 1);
+        listener.onText(upstream, half, false);
+        listener.onText(upstream, half, true);
+
+        assertThat(sent).isEmpty();
+        assertCloseTooBig();
+    }
+
+    @Test
+    void answersBadGatewayWhenViteIsUnreachable() throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        ViteProperties properties = new ViteProperties();
+        properties.setPort(port);
+        properties.getProxy().setConnectTimeout(Duration.ofSeconds(1));
+        ViteFrontend frontend = ViteFrontend.resolveAll(properties).get(0);
+        ViteLogBuffer logBuffer = new ViteLogBuffer(properties.getLog(), "Vite");
+        ViteDevServers devServers = new ViteDevServers(List.of(new ViteDevServers.DevServer(frontend,
+                new ViteDevServerService(properties, frontend, logBuffer), null, null)));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        ServerContainer serverContainer = mock(ServerContainer.class);
+        request.getServletContext().setAttribute(ServerContainer.class.getName(), serverContainer);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        try {
+            new HmrWebSocketRelay(properties, devServers).relay(request, response);
+        } finally {
+            logBuffer.close();
+        }
+
+        assertThat(response.getStatus()).isEqualTo(502);
+        verify(serverContainer, never()).upgradeHttpToWebSocket(any(), any(), any(), any());
+    }
+
+    private void assertCloseTooBig() throws IOException {
+        ArgumentCaptor<CloseReason> reason = ArgumentCaptor.forClass(CloseReason.class);
+        verify(browser).close(reason.capture());
+        assertThat(reason.getValue().getCloseCode()).isEqualTo(CloseCodes.TOO_BIG);
+        verify(upstream, timeout(1000)).sendClose(eq(1009), anyString());
+    }
+
+    private static byte[] bytes(Object message) {
+        ByteBuffer buffer = ((ByteBuffer) message).duplicate();
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.get(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,250 @@
+package io.icebrew.vite.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.RepeatedTest;
+import org.junit.jupiter.api.Test;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+class RequestBodyPublisherTest {
+
+    private final ExecutorService client = Executors.newFixedThreadPool(2);
+    private final ProxyBufferPool bufferPool = new ProxyBufferPool(1024, 4);
+
+    @AfterEach
+    void shutdown() {
+        client.shutdownNow();
+    }
+
+    @RepeatedTest(20)
+    void deliversBodyInOrderWithoutOverlappingSignals() throws Exception {
+        byte[] body = new byte[64 * 1024];
+        for (int i = 0; i < body.length; i++) {
+            body[i] = (byte) (i * 31 + i / 251);
+        }
+        TrickleInputStream in = new TrickleInputStream();
+        RecordingSubscriber subscriber = new RecordingSubscriber(client);
+        RequestBodyPublisher publisher = new RequestBodyPublisher(in, bufferPool, failure -> {
+        });
+        publisher.subscribe(subscriber);
+
+        // The container delivers data while the client thread asks for more
+        for (int offset = 0; offset < body.length; offset += 700) {
+            in.append(body, offset, Math.min(700, body.length - offset));
+        }
+        in.finish();
+
+        assertThat(subscriber.done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(subscriber.overlapping.get()).isFalse();
+        assertThat(subscriber.completions.get()).isEqualTo(1);
+        assertThat(subscriber.error.get()).isNull();
+        assertThat(subscriber.received.toByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    void readsNothingWithoutDemand() throws IOException {
+        TrickleInputStream in = new TrickleInputStream();
+        List<ByteBuffer> chunks = new ArrayList<>();
+        RequestBodyPublisher publisher = new RequestBodyPublisher(in, bufferPool, failure -> {
+        });
+        publisher.subscribe(new Flow.Subscriber<>() {
+
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+            }
+
+            @Override
+            public void onNext(ByteBuffer item) {
+                chunks.add(item);
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        });
+
+        in.append(new byte[100], 0, 100);
+
+        assertThat(chunks).isEmpty();
+        assertThat(in.available()).isEqualTo(100);
+    }
+
+    @Test
+    void reportsReadFailureOnce() throws Exception {
+        TrickleInputStream in = new TrickleInputStream();
+        AtomicInteger failures = new AtomicInteger();
+        RecordingSubscriber subscriber = new RecordingSubscriber(client);
+        RequestBodyPublisher publisher = new RequestBodyPublisher(in, bufferPool,
+                failure -> failures.incrementAndGet());
+        publisher.subscribe(subscriber);
+
+        in.fail(new IOException("client went away"));
+        assertThat(subscriber.done.await(10, TimeUnit.SECONDS)).isTrue();
+        // The container reports the same failure once more
+        publisher.onError(new IOException("reported twice"));
+
+        assertThat(subscriber.error.get()).hasMessage("client went away");
+        assertThat(subscriber.completions.get()).isZero();
+        assertThat(failures.get()).isEqualTo(1);
+    }
+
+    /**
+     * Requests one chunk at a time from another thread, as the HTTP client
+     * does, and notes whether two signals ever overlap
+     */
+    private static class RecordingSubscriber implements Flow.Subscriber<ByteBuffer> {
+
+        private final ExecutorService client;
+        private final ByteArrayOutputStream received = new ByteArrayOutputStream();
+        private final AtomicBoolean inSignal = new AtomicBoolean();
+        private final AtomicBoolean overlapping = new AtomicBoolean();
+        private final AtomicInteger completions = new AtomicInteger();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private Flow.Subscription subscription;
+
+        RecordingSubscriber(ExecutorService client) {
+            this.client = client;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            client.execute(() -> subscription.request(1));
+        }
+
+        @Override
+        public void onNext(ByteBuffer item) {
+            enter();
+            try {
+                byte[] bytes = new byte[item.remaining()];
+                item.get(bytes);
+                synchronized (received) {
+                    received.write(bytes, 0, bytes.length);
+                }
+                client.execute(() -> subscription.request(1));
+                Thread.yield();
+            } finally {
+                inSignal.set(false);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            enter();
+            error.set(throwable);
+            inSignal.set(false);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            enter();
+            completions.incrementAndGet();
+            inSignal.set(false);
+            done.countDown();
+        }
+
+        private void enter() {
+            if (!inSignal.compareAndSet(false, true)) {
+                overlapping.set(true);
+            }
+        }
+    }
+
+    /**
+     * Servlet input whose data arrives in pieces; each arrival is announced
+     * with {@link ReadListener#onDataAvailable()} like a container would
+     */
+    private static class TrickleInputStream extends ServletInputStream {
+
+        private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+        private int position;
+        private boolean finished;
+        private IOException failure;
+        private ReadListener listener;
+
+        void append(byte[] data, int offset, int length) throws IOException {
+            synchronized (this) {
+                pending.write(data, offset, length);
+            }
+            listener.onDataAvailable();
+        }
+
+        void finish() throws IOException {
+            synchronized (this) {
+                finished = true;
+            }
+            listener.onAllDataRead();
+        }
+
+        void fail(IOException e) throws IOException {
+            synchronized (this) {
+                failure = e;
+            }
+            listener.onDataAvailable();
+        }
+
+        @Override
+        public synchronized boolean isFinished() {
+            return finished && position == pending.size();
+        }
+
+        @Override
+        public synchronized boolean isReady() {
+            return failure != null || position < pending.size();
+        }
+
+        @Override
+        public synchronized int available() {
+            return pending.size() - position;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            this.listener = readListener;
+        }
+
+        @Override
+        public synchronized int read() throws IOException {
+            byte[] one = new byte[1];
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xff;
+        }
+
+        @Override
+        public synchronized int read(byte[] b, int off, int len) throws IOException {
+            if (failure != null) {
+                throw failure;
+            }
+            int available = pending.size() - position;
+            if (available == 0) {
+                return finished ? -1 : 0;
+            }
+            int length = Math.min(len, Math.min(available, 300));
+            System.arraycopy(pending.toByteArray(), position, b, off, length);
+            position += length;
+            return length;
+        }
+    }
+}
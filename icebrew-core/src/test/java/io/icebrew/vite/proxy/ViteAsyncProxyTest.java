@@ -0,0 +1,95 @@
+package io.icebrew.vite.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.metrics.ViteMetrics;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+
+class ViteAsyncProxyTest {
+
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ViteAsyncProxy.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private final AsyncContext asyncContext = mock(AsyncContext.class);
+    private final HttpServletResponse response = mock(HttpServletResponse.class);
+    private final ServletOutputStream out = mock(ServletOutputStream.class);
+    private Level previousLevel;
+    private ViteAsyncProxy proxy;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        appender.start();
+        logger.addAppender(appender);
+        when(asyncContext.getRequest()).thenReturn(new MockHttpServletRequest("GET", "/src/main.ts"));
+        when(asyncContext.getResponse()).thenReturn(response);
+        when(response.getOutputStream()).thenReturn(out);
+        proxy = new ViteAsyncProxy(new ViteProperties.Proxy());
+    }
+
+    @AfterEach
+    void tearDown() {
+        proxy.close();
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+    }
+
+    @Test
+    void logsUnreachableUpstreamAsError() throws IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        proxy(port);
+
+        verify(asyncContext, timeout(5000)).complete();
+        verify(response).setStatus(HttpServletResponse.SC_BAD_GATEWAY);
+        assertThat(appender.list).extracting(ILoggingEvent::getLevel).containsExactly(Level.ERROR);
+    }
+
+    @Test
+    void logsClientDisconnectAtDebug() throws IOException {
+        // Accepts the connection but never answers
+        try (ServerSocket upstream = new ServerSocket(0)) {
+            proxy(upstream.getLocalPort());
+            ArgumentCaptor<WriteListener> writeListener = ArgumentCaptor.forClass(WriteListener.class);
+            verify(out).setWriteListener(writeListener.capture());
+
+            writeListener.getValue().onError(new IOException("Broken pipe"));
+
+            verify(asyncContext, timeout(5000)).complete();
+            assertThat(appender.list).extracting(ILoggingEvent::getLevel).containsExactly(Level.DEBUG);
+            assertThat(appender.list.get(0).getMessage()).isEqualTo("Client disconnected while proxying");
+        }
+    }
+
+    private void proxy(int port) throws IOException {
+        proxy.proxy(asyncContext, URI.create("http://localhost:" + port + "/src/main.ts"), new HttpHeaders(),
+                null, null, ViteMetrics.ProxyExchange.NONE);
+    }
+}
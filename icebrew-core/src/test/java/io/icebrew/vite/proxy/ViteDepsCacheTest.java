@@ -0,0 +1,172 @@
+package io.icebrew.vite.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.unit.DataSize;
+
+import io.icebrew.vite.config.ViteProperties;
+
+class ViteDepsCacheTest {
+
+    private final ViteProperties.Proxy.DepsCache properties = new ViteProperties.Proxy.DepsCache();
+
+    @Test
+    void servesStoredResponse() throws IOException {
+        ViteDepsCache cache = new ViteDepsCache(properties);
+        store(cache, "react.js", "aaaa", "export default React");
+
+        MockHttpServletResponse response = serve(cache, "react.js", "aaaa");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("export default React");
+        assertThat(response.getHeader(HttpHeaders.CONTENT_TYPE)).isEqualTo("text/javascript");
+        assertThat(cache.getHitCount()).isEqualTo(1);
+    }
+
+    @Test
+    void onlyCachesVersionedDeps() {
+        ViteDepsCache cache = new ViteDepsCache(properties);
+
+        assertThat(cache.cacheKey(request("/node_modules/.vite/deps/react.js", "v=aaaa"))).isNotNull();
+        assertThat(cache.cacheKey(request("/node_modules/.vite/deps/react.js", null))).isNull();
+        assertThat(cache.cacheKey(request("/src/main.tsx", "v=aaaa"))).isNull();
+        MockHttpServletRequest post = request("/node_modules/.vite/deps/react.js", "v=aaaa");
+        post.setMethod("POST");
+        assertThat(cache.cacheKey(post)).isNull();
+    }
+
+    @Test
+    void newHashReplacesOldEntries() throws IOException {
+        ViteDepsCache cache = new ViteDepsCache(properties);
+        store(cache, "react.js", "aaaa", "old");
+        store(cache, "react.js", "bbbb", "new");
+
+        assertThat(cache.getEntryCount()).isEqualTo(1);
+        assertThat(serve(cache, "react.js", "aaaa").getStatus()).isEqualTo(-1);
+        assertThat(serve(cache, "react.js", "bbbb").getContentAsString()).isEqualTo("new");
+    }
+
+    @Test
+    void staleHashDoesNotRollBack() throws IOException {
+        ViteDepsCache cache = new ViteDepsCache(properties);
+        store(cache, "react.js", "aaaa", "old");
+        store(cache, "react.js", "bbbb", "new");
+        store(cache, "vue.js", "bbbb", "vue");
+
+        // A tab that has not reloaded since Vite re-optimized
+        for (int i = 0; i < 3; i++) {
+            serve(cache, "react.js", "aaaa");
+            store(cache, "react.js", "aaaa", "old");
+        }
+
+        assertThat(cache.getEntryCount()).isEqualTo(2);
+        assertThat(serve(cache, "react.js", "bbbb").getContentAsString()).isEqualTo("new");
+        assertThat(serve(cache, "vue.js", "bbbb").getContentAsString()).isEqualTo("vue");
+    }
+
+    @Test
+    void clearForgetsHashes() throws IOException {
+        ViteDepsCache cache = new ViteDepsCache(properties);
+        store(cache, "react.js", "aaaa", "old");
+        store(cache, "react.js", "bbbb", "new");
+
+        // After a restart Vite may hand out the old hash again
+        cache.clear();
+        store(cache, "react.js", "aaaa", "old");
+
+        assertThat(serve(cache, "react.js", "aaaa").getContentAsString()).isEqualTo("old");
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedBeyondMaxSize() throws IOException {
+        properties.setMaxSize(DataSize.ofBytes(25));
+        ViteDepsCache cache = new ViteDepsCache(properties);
+        store(cache, "a.js", "aaaa", "0123456789");
+        store(cache, "b.js", "aaaa", "0123456789");
+        serve(cache, "a.js", "aaaa");
+        store(cache, "c.js", "aaaa", "0123456789");
+
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getSize()).isEqualTo(20);
+        assertThat(serve(cache, "a.js", "aaaa").getStatus()).isEqualTo(200);
+        assertThat(serve(cache, "b.js", "aaaa").getStatus()).isEqualTo(-1);
+    }
+
+    @Test
+    void answersMatchingEntityTagInList() throws IOException {
+        ViteDepsCache cache = new ViteDepsCache(properties);
+        store(cache, "react.js", "aaaa", "export default React");
+
+        MockHttpServletResponse response = serve(cache, "react.js", "aaaa", "\"other\", W/\"react.js-aaaa\"");
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getContentLength()).isZero();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo("W/\"react.js-aaaa\"");
+    }
+
+    @Test
+    void comparesEntityTagsWeakly() throws IOException {
+        ViteDepsCache cache = new ViteDepsCache(properties);
+        store(cache, "react.js", "aaaa", "export default React");
+
+        assertThat(serve(cache, "react.js", "aaaa", "\"react.js-aaaa\"").getStatus()).isEqualTo(304);
+        assertThat(serve(cache, "react.js", "aaaa", "*").getStatus()).isEqualTo(304);
+    }
+
+    @Test
+    void servesBodyForOtherEntityTags() throws IOException {
+        ViteDepsCache cache = new ViteDepsCache(properties);
+        store(cache, "react.js", "aaaa", "export default React");
+
+        MockHttpServletResponse response = serve(cache, "react.js", "aaaa", "W/\"react.js-bbbb\", \"react.js\"");
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isEqualTo("export default React");
+    }
+
+    private static void store(ViteDepsCache cache, String file, String hash, String body) throws IOException {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_TYPE, "text/javascript");
+        // Vite sends weak ETags
+        headers.set(HttpHeaders.ETAG, "W/\"" + file + "-" + hash + "\"");
+        String key = cache.cacheKey(request("/node_modules/.vite/deps/" + file, "v=" + hash));
+        try (OutputStream out = cache.record(key, headers, OutputStream.nullOutputStream())) {
+            out.write(body.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * @return the response, with status {@code -1} on a miss
+     */
+    private static MockHttpServletResponse serve(ViteDepsCache cache, String file, String hash)
+            throws IOException {
+        return serve(cache, file, hash, null);
+    }
+
+    private static MockHttpServletResponse serve(ViteDepsCache cache, String file, String hash, String ifNoneMatch)
+            throws IOException {
+        MockHttpServletRequest request = request("/node_modules/.vite/deps/" + file, "v=" + hash);
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        if (cache.serve(cache.cacheKey(request), request, response) < 0) {
+            response.setStatus(-1);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest request(String uri, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.setQueryString(query);
+        return request;
+    }
+}
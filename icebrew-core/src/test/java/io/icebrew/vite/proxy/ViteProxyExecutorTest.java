@@ -0,0 +1,85 @@
+package io.icebrew.vite.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.Test;
+
+class ViteProxyExecutorTest {
+
+    @Test
+    void limitsRequestsInFlight() throws InterruptedException {
+        ViteProxyExecutor executor = ViteProxyExecutor.callerThread(2);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger completed = new AtomicInteger();
+        List<Thread> callers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Thread caller = new Thread(() -> executor.execute(() -> {
+                awaitUninterruptibly(release);
+                completed.incrementAndGet();
+            }));
+            caller.start();
+            callers.add(caller);
+        }
+
+        waitFor(() -> executor.getActiveCount() == 2 && executor.getQueueLength() == 1);
+        assertThat(completed).hasValue(0);
+
+        release.countDown();
+        for (Thread caller : callers) {
+            caller.join(5_000);
+        }
+        assertThat(completed).hasValue(3);
+        assertThat(executor.getActiveCount()).isZero();
+        assertThat(executor.getQueueLength()).isZero();
+    }
+
+    @Test
+    void releasesPermitWhenTaskThrows() {
+        ViteProxyExecutor executor = ViteProxyExecutor.callerThread(1);
+
+        assertThatThrownBy(() -> executor.execute(() -> {
+            throw new IllegalStateException("upstream broke");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(executor.getActiveCount()).isZero();
+
+        // The only permit is available again
+        AtomicInteger ran = new AtomicInteger();
+        executor.execute(ran::incrementAndGet);
+        assertThat(ran).hasValue(1);
+    }
+
+    @Test
+    void callerThreadRunsSynchronously() {
+        ViteProxyExecutor executor = ViteProxyExecutor.callerThread(1);
+        Thread[] ranOn = new Thread[1];
+
+        executor.execute(() -> ranOn[0] = Thread.currentThread());
+
+        assertThat(executor.isSynchronous()).isTrue();
+        assertThat(ranOn[0]).isSameAs(Thread.currentThread());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitFor(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).as("condition met in time").isLessThan(deadline);
+            Thread.sleep(10);
+        }
+    }
+}
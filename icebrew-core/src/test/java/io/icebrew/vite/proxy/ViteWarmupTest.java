@@ -0,0 +1,125 @@
+package io.icebrew.vite.proxy;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.icebrew.vite.config.ViteProperties;
+
+class ViteWarmupTest {
+
+    private final ViteProperties properties = new ViteProperties();
+    private final Map<String, String> modules = new HashMap<>();
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private HttpServer server;
+    private ViteUpstreamClient upstreamClient;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String path = exchange.getRequestURI().toString();
+            requests.computeIfAbsent(path, key -> new AtomicInteger()).incrementAndGet();
+            String body = modules.get(path);
+            if (body == null) {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+                return;
+            }
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type",
+                    path.endsWith("/") ? "text/html" : "text/javascript");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        });
+        server.start();
+        upstreamClient = new ViteUpstreamClient(properties.getProxy());
+    }
+
+    @AfterEach
+    void stopServer() {
+        upstreamClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    void followsImportsFromIndexHtmlOnce() {
+        graph("");
+
+        int requested = new ViteWarmup(properties, upstreamClient).warmUp(devServerUrl(), "");
+
+        assertThat(requested).isEqualTo(5);
+        assertThat(requests.keySet()).containsExactlyInAnyOrder("/", "/src/main.ts", "/src/a.ts", "/src/b.ts",
+                "/src/lazy.ts?import");
+        // The import cycle back to main.ts is requested only once
+        assertThat(requests.values()).allSatisfy(count -> assertThat(count).hasValue(1));
+    }
+
+    @Test
+    void skipsPreBundledDependencies() {
+        graph("");
+
+        new ViteWarmup(properties, upstreamClient).warmUp(devServerUrl(), "");
+
+        assertThat(requests.keySet()).noneMatch(path -> path.contains("/node_modules/.vite/deps/"));
+    }
+
+    @Test
+    void stopsAtMaxModules() {
+        graph("");
+        properties.getWarmup().setMaxModules(2);
+        properties.getWarmup().setParallelism(1);
+
+        int requested = new ViteWarmup(properties, upstreamClient).warmUp(devServerUrl(), "");
+
+        assertThat(requested).isEqualTo(2);
+        assertThat(requests).hasSize(2);
+    }
+
+    @Test
+    void resolvesEntriesUnderBasePath() {
+        graph("/admin");
+        properties.getWarmup().setEntries(List.of("src/main.ts"));
+
+        int requested = new ViteWarmup(properties, upstreamClient).warmUp(devServerUrl(), "/admin");
+
+        assertThat(requested).isEqualTo(4);
+        assertThat(requests.keySet()).containsExactlyInAnyOrder("/admin/src/main.ts", "/admin/src/a.ts",
+                "/admin/src/b.ts", "/admin/src/lazy.ts?import");
+    }
+
+    /**
+     * A small app as Vite serves it: absolute imports, a cycle, a relative
+     * re-export, a dynamic import and a pre-bundled dependency
+     */
+    private void graph(String base) {
+        modules.put(base + "/", "<html><head><script type=\"module\" src=\"" + base
+                + "/src/main.ts\"></script></head></html>");
+        modules.put(base + "/src/main.ts", "import { a } from \"" + base + "/src/a.ts\";\n"
+                + "import React from \"" + base + "/node_modules/.vite/deps/react.js?v=1a2b\";\n"
+                + "const lazy = () => import(\"" + base + "/src/lazy.ts?import\");\n");
+        modules.put(base + "/src/a.ts", "import \"" + base + "/src/main.ts\";\nexport * from \"./b.ts\";\n");
+        modules.put(base + "/src/b.ts", "export const b = 1;\n");
+        modules.put(base + "/src/lazy.ts?import", "export default 1;\n");
+    }
+
+    private String devServerUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+}
@@ -0,0 +1,110 @@
+package io.icebrew.vite.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import io.icebrew.vite.config.ViteProperties;
+
+class ViteAssetCacheTest {
+
+    private final ViteProperties.Assets.MemoryCache properties = new ViteProperties.Assets.MemoryCache();
+
+    @TempDir
+    Path buildDir;
+
+    @Test
+    void evictsLeastRecentlyUsed() throws IOException {
+        ViteAssetCache cache = cache(ViteProperties.Assets.Eviction.LRU);
+        File a = file("a.js");
+        File b = file("b.js");
+        cache.get(a);
+        cache.get(b);
+        cache.get(a);
+
+        cache.get(file("c.js"));
+
+        assertThat(cache.peek(a)).isNotNull();
+        assertThat(cache.peek(b)).isNull();
+        assertThat(cache.getEvictionCount()).isEqualTo(1);
+        assertThat(cache.getSize()).isEqualTo(200);
+    }
+
+    @Test
+    void evictsLeastFrequentlyUsed() throws IOException {
+        ViteAssetCache cache = cache(ViteProperties.Assets.Eviction.LFU);
+        File a = file("a.js");
+        File b = file("b.js");
+        cache.get(a);
+        cache.get(a);
+        cache.get(a);
+        cache.get(b);
+        cache.get(b);
+        // Most recent, but used least
+        cache.get(a);
+
+        File c = file("c.js");
+        cache.get(c);
+
+        assertThat(cache.peek(a)).isNotNull();
+        assertThat(cache.peek(b)).isNull();
+        assertThat(cache.peek(c)).isNotNull();
+    }
+
+    @Test
+    void keepsNewEntryOverOlderOnes() throws IOException {
+        ViteAssetCache cache = cache(ViteProperties.Assets.Eviction.LFU);
+        File a = file("a.js");
+        for (int i = 0; i < 10; i++) {
+            cache.get(a);
+        }
+        cache.get(file("b.js"));
+        File c = file("c.js");
+
+        assertThat(cache.get(c)).isNotNull();
+        assertThat(cache.getEntryCount()).isEqualTo(2);
+        assertThat(cache.peek(a)).isNotNull();
+    }
+
+    @Test
+    void skipsFilesLargerThanBudget() throws IOException {
+        properties.setMaxFileSize(DataSize.ofBytes(50));
+        ViteAssetCache cache = cache(ViteProperties.Assets.Eviction.LRU);
+
+        assertThat(cache.get(file("a.js"))).isNull();
+        assertThat(cache.getEntryCount()).isZero();
+    }
+
+    @Test
+    void invalidatesRebuiltAndRemovedFiles() throws IOException {
+        ViteAssetCache cache = cache(ViteProperties.Assets.Eviction.LRU);
+        File a = file("a.js");
+        File b = file("b.js");
+        cache.get(a);
+        cache.get(b);
+
+        Files.write(a.toPath(), new byte[50]);
+        Files.delete(b.toPath());
+
+        assertThat(cache.invalidateStale()).isEqualTo(2);
+        assertThat(cache.getSize()).isZero();
+        assertThat(cache.get(a).length()).isEqualTo(50);
+    }
+
+    private ViteAssetCache cache(ViteProperties.Assets.Eviction eviction) {
+        properties.setMaxSize(DataSize.ofBytes(250));
+        properties.setEviction(eviction);
+        return new ViteAssetCache(properties);
+    }
+
+    private File file(String name) throws IOException {
+        return Files.write(buildDir.resolve(name), new byte[100]).toFile();
+    }
+}
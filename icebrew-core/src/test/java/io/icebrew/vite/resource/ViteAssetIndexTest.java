@@ -0,0 +1,88 @@
+package io.icebrew.vite.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.UrlResource;
+
+class ViteAssetIndexTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void loadsWhatWasWritten() throws IOException {
+        Path dist = dist();
+        ViteAssetIndex scanned = ViteAssetIndex.scan(dist);
+
+        ViteAssetIndex loaded = ViteAssetIndex.load(new FileSystemResource(writeIndex(dist)));
+
+        assertThat(loaded.size()).isEqualTo(3);
+        for (String path : new String[] { "/index.html", "/assets/app-B1a2c3.js", "/assets/hello world.svg" }) {
+            assertThat(loaded.get(path)).isEqualTo(scanned.get(path));
+        }
+        ViteAssetIndex.Asset app = loaded.get("/assets/app-B1a2c3.js");
+        assertThat(app.length()).isEqualTo(20);
+        assertThat(app.contentType()).isEqualTo("application/javascript");
+        assertThat(app.hash()).hasSize(32);
+    }
+
+    @Test
+    void mapsResourcesToEntriesByUrl() throws IOException {
+        Path dist = dist();
+        ViteAssetIndex index = ViteAssetIndex.load(new FileSystemResource(writeIndex(dist)));
+
+        assertThat(index.get(new UrlResource(dist.resolve("assets/app-B1a2c3.js").toUri())))
+                .isEqualTo(index.get("/assets/app-B1a2c3.js"));
+        // Percent-encoded in the URL, decoded in the index
+        assertThat(index.get(new UrlResource(dist.resolve("assets/hello world.svg").toUri())))
+                .isEqualTo(index.get("/assets/hello world.svg"));
+        // Outside the dist directory
+        assertThat(index.get(new UrlResource(dir.resolve(ViteAssetIndex.INDEX_FILE).toUri()))).isNull();
+    }
+
+    @Test
+    void mapsScannedResourcesByFile() throws IOException {
+        Path dist = dist();
+        ViteAssetIndex index = ViteAssetIndex.scan(dist);
+
+        assertThat(index.get(new FileSystemResource(dist.resolve("index.html"))))
+                .isEqualTo(index.get("/index.html"));
+        assertThat(index.get(new FileSystemResource(dir.resolve("other.html")))).isNull();
+    }
+
+    @Test
+    void selectsPrecompressedVariant() throws IOException {
+        Path dist = dist();
+        Files.writeString(dist.resolve("assets/app-B1a2c3.js.gz"), "gzip");
+        ViteAssetIndex index = ViteAssetIndex.scan(dist);
+
+        assertThat(index.select("/assets/app-B1a2c3.js", "gzip, deflate").path())
+                .isEqualTo("/assets/app-B1a2c3.js.gz");
+        assertThat(index.select("/assets/app-B1a2c3.js", "br").path()).isEqualTo("/assets/app-B1a2c3.js");
+        assertThat(index.select("/assets/app-B1a2c3.js", null).path()).isEqualTo("/assets/app-B1a2c3.js");
+    }
+
+    private Path dist() throws IOException {
+        Path dist = Files.createDirectories(dir.resolve(ViteAssetIndex.DIST_DIR).resolve("assets")).getParent();
+        Files.writeString(dist.resolve("index.html"), "<html></html>");
+        Files.writeString(dist.resolve("assets/app-B1a2c3.js"), "console.log(\"app\");\n");
+        Files.writeString(dist.resolve("assets/hello world.svg"), "<svg/>");
+        return dist;
+    }
+
+    private Path writeIndex(Path dist) throws IOException {
+        Path index = dir.resolve(ViteAssetIndex.INDEX_FILE);
+        try (OutputStream out = Files.newOutputStream(index)) {
+            ViteAssetIndex.write(dist, out);
+        }
+        return index;
+    }
+}
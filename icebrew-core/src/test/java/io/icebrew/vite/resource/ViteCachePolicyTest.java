@@ -0,0 +1,82 @@
+package io.icebrew.vite.resource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class ViteCachePolicyTest {
+
+    private static final String MANIFEST = """
+            {
+              "index.html": {
+                "file": "assets/index-B1a2c3.js",
+                "src": "index.html",
+                "isEntry": true,
+                "css": ["assets/index-D4e5f6.css"],
+                "assets": ["assets/logo-A7b8c9.svg", "assets/hello world-E1f2g3.png"]
+              }
+            }
+            """;
+
+    @Test
+    void marksManifestFilesImmutable() throws IOException {
+        ViteCachePolicy policy = new ViteCachePolicy(manifest(), Map.of(), "public, max-age=3600");
+
+        assertThat(policy.cacheControlFor("/assets/index-B1a2c3.js")).isEqualTo(ViteCachePolicy.IMMUTABLE);
+        assertThat(policy.cacheControlFor("/assets/index-D4e5f6.css")).isEqualTo(ViteCachePolicy.IMMUTABLE);
+        assertThat(policy.cacheControlFor("/assets/logo-A7b8c9.svg")).isEqualTo(ViteCachePolicy.IMMUTABLE);
+    }
+
+    @Test
+    void revalidatesHtmlAndFallsBackToDefault() throws IOException {
+        ViteCachePolicy policy = new ViteCachePolicy(manifest(), Map.of(), "public, max-age=3600");
+
+        assertThat(policy.cacheControlFor("/index.html")).isEqualTo(ViteCachePolicy.NO_CACHE);
+        assertThat(policy.cacheControlFor("/docs/")).isEqualTo(ViteCachePolicy.NO_CACHE);
+        // Not in the manifest, so not known to be content-hashed
+        assertThat(policy.cacheControlFor("/assets/other-X1y2z3.js")).isEqualTo("public, max-age=3600");
+        assertThat(policy.cacheControlFor("/favicon.svg")).isEqualTo("public, max-age=3600");
+    }
+
+    @Test
+    void globRulesComeFirst() throws IOException {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("assets/logo-*.svg", "public, max-age=60");
+        rules.put("/**/*.html", "no-store");
+        ViteCachePolicy policy = new ViteCachePolicy(manifest(), rules, "public, max-age=3600");
+
+        assertThat(policy.cacheControlFor("/assets/logo-A7b8c9.svg")).isEqualTo("public, max-age=60");
+        assertThat(policy.cacheControlFor("/index.html")).isEqualTo("no-store");
+        assertThat(policy.cacheControlFor("/assets/index-B1a2c3.js")).isEqualTo(ViteCachePolicy.IMMUTABLE);
+    }
+
+    @Test
+    void matchesDecodedPaths() throws IOException {
+        ViteCachePolicy policy = new ViteCachePolicy(manifest(), Map.of("/fonts/my font.woff2", "public, max-age=60"),
+                "public, max-age=3600");
+
+        assertThat(policy.cacheControlFor("/assets/hello world-E1f2g3.png")).isEqualTo(ViteCachePolicy.IMMUTABLE);
+        assertThat(policy.cacheControlFor("/fonts/my font.woff2")).isEqualTo("public, max-age=60");
+        // Callers decode first; the encoded form is not a manifest file
+        assertThat(policy.cacheControlFor("/assets/hello%20world-E1f2g3.png")).isEqualTo("public, max-age=3600");
+    }
+
+    @Test
+    void blankValueLeavesHeaderUnset() throws IOException {
+        ViteCachePolicy policy = new ViteCachePolicy(manifest(), Map.of("/assets/**", ""), " ");
+
+        assertThat(policy.cacheControlFor("/assets/index-B1a2c3.js")).isNull();
+        assertThat(policy.cacheControlFor("/favicon.svg")).isNull();
+        assertThat(policy.cacheControlFor("/index.html")).isEqualTo(ViteCachePolicy.NO_CACHE);
+    }
+
+    private static ViteManifest manifest() throws IOException {
+        return ViteManifest.read(new ByteArrayInputStream(MANIFEST.getBytes(StandardCharsets.UTF_8)));
+    }
+}
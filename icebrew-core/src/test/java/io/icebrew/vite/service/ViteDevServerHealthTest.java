@@ -0,0 +1,207 @@
+package io.icebrew.vite.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.service.ViteDevServerHealth.Status;
+
+class ViteDevServerHealthTest {
+
+    private final ViteProperties properties = new ViteProperties();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private ViteLogBuffer logBuffer;
+
+    @AfterEach
+    void shutdown() {
+        scheduler.shutdownNow();
+        if (logBuffer != null) {
+            logBuffer.close();
+        }
+    }
+
+    @Test
+    void holdsRequestsUntilUp() {
+        ViteDevServerHealth health = health();
+        List<Integer> released = new ArrayList<>();
+        AtomicInteger expired = new AtomicInteger();
+        for (int i = 0; i < 3; i++) {
+            int request = i;
+            assertThat(health.reserveHold()).isTrue();
+            health.hold(() -> released.add(request), expired::incrementAndGet);
+        }
+        assertThat(health.getStatus()).isEqualTo(Status.STARTING);
+        assertThat(health.getSnapshot().heldRequests()).isEqualTo(3);
+        assertThat(released).isEmpty();
+
+        health.up();
+
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(released).containsExactly(0, 1, 2);
+        assertThat(expired.get()).isZero();
+        assertThat(health.getSnapshot().heldRequests()).isZero();
+    }
+
+    @Test
+    void releasesHeldRequestsWhenDown() {
+        ViteDevServerHealth health = health();
+        AtomicInteger released = new AtomicInteger();
+        health.reserveHold();
+        health.hold(released::incrementAndGet, () -> {
+        });
+
+        health.down("failed to start");
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getSnapshot().reason()).isEqualTo("failed to start");
+        assertThat(released.get()).isEqualTo(1);
+    }
+
+    @Test
+    void releasesAtOnceWhenNoLongerStarting() {
+        ViteDevServerHealth health = health();
+        health.up();
+        AtomicInteger released = new AtomicInteger();
+
+        health.reserveHold();
+        health.hold(released::incrementAndGet, () -> {
+        });
+
+        assertThat(released.get()).isEqualTo(1);
+        assertThat(health.getSnapshot().heldRequests()).isZero();
+    }
+
+    @Test
+    void expiresHeldRequestAfterHoldTimeout() throws InterruptedException {
+        properties.getHealth().setHoldTimeout(Duration.ofMillis(20));
+        ViteDevServerHealth health = health();
+        CountDownLatch expired = new CountDownLatch(1);
+        AtomicInteger released = new AtomicInteger();
+        health.reserveHold();
+        health.hold(released::incrementAndGet, expired::countDown);
+
+        assertThat(expired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(health.getSnapshot().heldRequests()).isZero();
+
+        health.up();
+        assertThat(released.get()).isZero();
+    }
+
+    @Test
+    void boundsHeldRequests() {
+        properties.getHealth().setMaxHeldRequests(2);
+        ViteDevServerHealth health = health();
+
+        assertThat(health.reserveHold()).isTrue();
+        assertThat(health.reserveHold()).isTrue();
+        assertThat(health.reserveHold()).isFalse();
+        health.hold(() -> {
+        }, () -> {
+        });
+        health.hold(() -> {
+        }, () -> {
+        });
+        health.up();
+
+        assertThat(health.reserveHold()).isTrue();
+    }
+
+    @Test
+    void finishesEachHeldRequestExactlyOnce() throws InterruptedException {
+        properties.getHealth().setHoldTimeout(Duration.ofMillis(1));
+        properties.getHealth().setMaxHeldRequests(10_000);
+        ViteDevServerHealth health = health();
+        int requests = 2_000;
+        AtomicInteger finished = new AtomicInteger();
+        AtomicInteger twice = new AtomicInteger();
+        CountDownLatch all = new CountDownLatch(requests);
+        for (int i = 0; i < requests; i++) {
+            AtomicInteger calls = new AtomicInteger();
+            Runnable finish = () -> {
+                if (calls.incrementAndGet() > 1) {
+                    twice.incrementAndGet();
+                }
+                finished.incrementAndGet();
+                all.countDown();
+            };
+            health.reserveHold();
+            health.hold(finish, finish);
+            if (i == requests / 2) {
+                // Releases race with deadlines on the scheduler thread
+                health.up();
+                health.starting();
+            }
+        }
+        health.up();
+
+        assertThat(all.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(twice.get()).isZero();
+        assertThat(finished.get()).isEqualTo(requests);
+        assertThat(health.getSnapshot().heldRequests()).isZero();
+    }
+
+    @Test
+    void opensCircuitAfterConsecutiveFailures() {
+        properties.getHealth().setFailureThreshold(3);
+        ViteDevServerHealth health = health();
+        health.up();
+
+        health.recordFailure("ConnectException");
+        health.recordFailure("ConnectException");
+        health.recordSuccess();
+        health.recordFailure("ConnectException");
+        health.recordFailure("ConnectException");
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+
+        health.recordFailure("ConnectException");
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getSnapshot().reason()).contains("ConnectException");
+        assertThat(health.getSnapshot().consecutiveFailures()).isEqualTo(3);
+
+        // A successful probe closes it again
+        health.up();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getSnapshot().consecutiveFailures()).isZero();
+        assertThat(health.getSnapshot().reason()).isNull();
+    }
+
+    @Test
+    void failuresWhileStartingDoNotOpenCircuit() {
+        properties.getHealth().setFailureThreshold(1);
+        ViteDevServerHealth health = health();
+
+        health.recordFailure("ConnectException");
+
+        assertThat(health.getStatus()).isEqualTo(Status.STARTING);
+    }
+
+    @Test
+    void retryAfterRoundsIntervalUp() {
+        properties.getHealth().setInterval(Duration.ofMillis(1500));
+        assertThat(health().getRetryAfterSeconds()).isEqualTo(2);
+        properties.getHealth().setInterval(Duration.ofMillis(100));
+        assertThat(health().getRetryAfterSeconds()).isEqualTo(1);
+    }
+
+    private ViteDevServerHealth health() {
+        ViteFrontend frontend = ViteFrontend.resolveAll(properties).get(0);
+        if (logBuffer == null) {
+            logBuffer = new ViteLogBuffer(properties.getLog(), "Vite");
+        }
+        // Never started, so only the cached status counts
+        ViteDevServerService service = new ViteDevServerService(properties, frontend, logBuffer);
+        return new ViteDevServerHealth(frontend, service, properties.getHealth(), scheduler);
+    }
+}
@@ -0,0 +1,107 @@
+package io.icebrew.vite.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.service.ViteDevServerHealth.Status;
+import io.icebrew.vite.service.ViteDevServers.DevServer;
+
+class ViteHealthTrackerTest {
+
+    private final ViteProperties properties = new ViteProperties();
+    private HttpServer server;
+    private ViteLogBuffer logBuffer;
+    private ViteHealthTracker tracker;
+
+    @AfterEach
+    void shutdown() {
+        if (tracker != null) {
+            tracker.close();
+        }
+        if (logBuffer != null) {
+            logBuffer.close();
+        }
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void reportsExternallyStartedDevServerUp() throws IOException {
+        // Started with npm run dev, so IceBrew skipped its own start
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/@vite/client", exchange -> {
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.start();
+        properties.setPort(server.getAddress().getPort());
+        ViteHealthTracker tracker = tracker();
+
+        tracker.checkAll();
+
+        ViteDevServerHealth health = tracker.get(ViteFrontend.DEFAULT_NAME);
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+
+        server.stop(0);
+        server = null;
+        tracker.checkAll();
+
+        assertThat(health.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(health.getSnapshot().reason()).isEqualTo("stopped");
+    }
+
+    @Test
+    void expiresHeldRequestWhileProbeHangs() throws Exception {
+        // Accepts the connection but never answers
+        try (ServerSocket hanging = new ServerSocket(0)) {
+            properties.setPort(hanging.getLocalPort());
+            properties.getHealth().setProbeTimeout(Duration.ofSeconds(10));
+            properties.getHealth().setHoldTimeout(Duration.ofMillis(50));
+            ViteHealthTracker tracker = tracker(Duration.ofMillis(10));
+            ViteDevServerHealth health = tracker.get(ViteFrontend.DEFAULT_NAME);
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (health.getSnapshot().lastChecked() == null && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(health.getSnapshot().lastChecked()).isNotNull();
+
+            CountDownLatch expired = new CountDownLatch(1);
+            health.reserveHold();
+            health.hold(() -> {
+            }, expired::countDown);
+
+            assertThat(expired.await(2, TimeUnit.SECONDS)).isTrue();
+        }
+    }
+
+    private ViteHealthTracker tracker() {
+        // Checks run only when the test asks for them
+        return tracker(Duration.ofHours(1));
+    }
+
+    private ViteHealthTracker tracker(Duration interval) {
+        properties.setHost("localhost");
+        properties.getHealth().setInterval(interval);
+        ViteFrontend frontend = ViteFrontend.resolveAll(properties).get(0);
+        logBuffer = new ViteLogBuffer(properties.getLog(), "Vite");
+        ViteDevServerService service = new ViteDevServerService(properties, frontend, logBuffer);
+        ViteDevServers devServers = new ViteDevServers(List.of(new DevServer(frontend, service, null, null)));
+        tracker = new ViteHealthTracker(devServers, properties.getHealth());
+        return tracker;
+    }
+}
@@ -0,0 +1,150 @@
+package io.icebrew.vite.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import io.icebrew.vite.config.ViteProperties;
+
+class ViteLogBufferTest {
+
+    private final ViteProperties.Log properties = new ViteProperties.Log();
+    private final Logger logger = (Logger) LoggerFactory.getLogger(ViteDevServerService.class);
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Level previousLevel;
+    private ViteLogBuffer buffer;
+
+    @BeforeEach
+    void captureLogs() {
+        // Published by the test itself, not by the timer
+        properties.setFlushInterval(Duration.ofHours(1));
+        previousLevel = logger.getLevel();
+        logger.setLevel(Level.DEBUG);
+        appender.start();
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void restoreLogs() {
+        logger.detachAppender(appender);
+        logger.setLevel(previousLevel);
+        if (buffer != null) {
+            buffer.close();
+        }
+    }
+
+    @Test
+    void stripsColorsAndCursorMovement() {
+        assertThat(ViteLogBuffer.stripAnsi("\u001B[32m\u001B[1mVITE\u001B[22m v5.0.0\u001B[39m  ready"))
+                .isEqualTo("VITE v5.0.0  ready");
+        assertThat(ViteLogBuffer.stripAnsi("\u001B[2K\u001B[1Gbuilding\r")).isEqualTo("building");
+    }
+
+    @Test
+    void stripsBareControlCharacters() {
+        assertThat(ViteLogBuffer.stripAnsi("ready\u0007 in\b 120\u0000 ms\f")).isEqualTo("ready in 120 ms");
+        assertThat(ViteLogBuffer.stripAnsi("\tready")).isEqualTo("\tready");
+    }
+
+    @Test
+    void stripsHyperlinksTerminatedEitherWay() {
+        assertThat(ViteLogBuffer.stripAnsi("\u001B]8;;http://localhost:5173/\u0007Local\u001B]8;;\u0007"))
+                .isEqualTo("Local");
+        assertThat(ViteLogBuffer.stripAnsi("\u001B]8;;http://localhost:5173/\u001B\\Local\u001B]8;;\u001B\\"))
+                .isEqualTo("Local");
+    }
+
+    @Test
+    void keepsTabsAndPlainLines() {
+        String plain = "  ➜  Local:   http://localhost:5173/";
+        assertThat(ViteLogBuffer.stripAnsi(plain)).isSameAs(plain);
+        assertThat(ViteLogBuffer.stripAnsi("\u001B[31ma\tb\u001B[0m")).isEqualTo("a\tb");
+        assertThat(ViteLogBuffer.stripAnsi("cut off\u001B[")).isEqualTo("cut off");
+    }
+
+    @Test
+    void guessesLevelFromText() {
+        assertThat(ViteLogBuffer.levelOf("[vite] hmr update /src/ErrorBoundary.tsx"))
+                .isEqualTo(ViteLogBuffer.Level.DEBUG);
+        assertThat(ViteLogBuffer.levelOf("[vite] page reload src/FailedLogin.vue"))
+                .isEqualTo(ViteLogBuffer.Level.DEBUG);
+        assertThat(ViteLogBuffer.levelOf("[vite] hmr invalidate /src/main.ts"))
+                .isEqualTo(ViteLogBuffer.Level.DEBUG);
+        assertThat(ViteLogBuffer.levelOf("[vite] Internal server error: Failed to resolve import"))
+                .isEqualTo(ViteLogBuffer.Level.ERROR);
+        assertThat(ViteLogBuffer.levelOf("✘ [ERROR] Expected \";\" but found \"}\""))
+                .isEqualTo(ViteLogBuffer.Level.ERROR);
+        assertThat(ViteLogBuffer.levelOf("(!) Warning: outdated dependency"))
+                .isEqualTo(ViteLogBuffer.Level.WARN);
+        assertThat(ViteLogBuffer.levelOf("  VITE v5.0.0  ready in 120 ms"))
+                .isEqualTo(ViteLogBuffer.Level.INFO);
+    }
+
+    @Test
+    void keepsOnlyMostRecentLines() {
+        properties.setBufferLines(3);
+        buffer = new ViteLogBuffer(properties, "Vite");
+        for (int i = 0; i < 5; i++) {
+            buffer.append("line " + i);
+        }
+
+        List<ViteLogBuffer.Line> recent = buffer.getRecentLines(10);
+
+        assertThat(recent).extracting(ViteLogBuffer.Line::text).containsExactly("line 2", "line 3", "line 4");
+        assertThat(recent).extracting(ViteLogBuffer.Line::sequence).containsExactly(2L, 3L, 4L);
+        assertThat(buffer.getLineCount()).isEqualTo(5);
+    }
+
+    @Test
+    void logsRunsOfSameLevelTogether() {
+        buffer = new ViteLogBuffer(properties, "Vite");
+        buffer.append("ready in 300 ms");
+        buffer.append("Local: http://localhost:5173/");
+        buffer.append("warning: large chunk");
+
+        buffer.publish();
+
+        assertThat(appender.list).extracting(ILoggingEvent::getLevel).containsExactly(Level.INFO, Level.WARN);
+        assertThat(appender.list.get(0).getFormattedMessage())
+                .isEqualTo("[Vite] ready in 300 ms\n[Vite] Local: http://localhost:5173/");
+    }
+
+    @Test
+    void limitsLinesPerSecondAndReportsTheRest() throws InterruptedException {
+        properties.setMaxLinesPerSecond(5);
+        buffer = new ViteLogBuffer(properties, "Vite");
+        for (int i = 0; i < 20; i++) {
+            buffer.append("line " + i);
+        }
+
+        buffer.publish();
+        assertThat(loggedLines()).isEqualTo(5);
+        assertThat(buffer.getRecentLines(20)).hasSize(20);
+
+        // The count is reported once the one second window has passed
+        Thread.sleep(1100);
+        buffer.publish();
+        assertThat(appender.list).filteredOn(event -> event.getLevel() == Level.WARN)
+                .singleElement()
+                .extracting(ILoggingEvent::getFormattedMessage)
+                .asString()
+                .startsWith("[Vite] 15 line(s) not logged");
+    }
+
+    private long loggedLines() {
+        return appender.list.stream()
+                .filter(event -> event.getLevel() == Level.INFO)
+                .mapToLong(event -> event.getFormattedMessage().split("\n").length)
+                .sum();
+    }
+}
@@ -0,0 +1,161 @@
+package io.icebrew.vite.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.service.ViteDevServers.DevServer;
+
+class ViteProcessMonitorTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00Z");
+
+    private final ViteProperties properties = new ViteProperties();
+    private final ViteProperties.ProcessMonitor monitorProperties = properties.getProcessMonitor();
+    private FakeService service;
+    private DevServer devServer;
+    private ViteProcessMonitor monitor;
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void close() {
+        if (monitor != null) {
+            monitor.close();
+        }
+    }
+
+    @Test
+    void namesTheExceededLimit() {
+        monitorProperties.setMaxRss(DataSize.ofMegabytes(100));
+        monitorProperties.setMaxOpenFiles(1000);
+        ViteProcessMonitor monitor = monitor();
+
+        assertThat(monitor.exceededLimit(sample(START, DataSize.ofMegabytes(150).toBytes(), 10)))
+                .contains("150 MB", "max-rss=100MB");
+        assertThat(monitor.exceededLimit(sample(START, 0, 1001))).contains("1001 open files", "max-open-files=1000");
+        assertThat(monitor.exceededLimit(sample(START, DataSize.ofMegabytes(50).toBytes(), 10))).isNull();
+        // Unknown outside Linux
+        assertThat(monitor.exceededLimit(sample(START, -1, -1))).isNull();
+    }
+
+    @Test
+    void noLimitsByDefault() {
+        assertThat(monitor().exceededLimit(sample(START, Long.MAX_VALUE, Integer.MAX_VALUE))).isNull();
+    }
+
+    @Test
+    void onlyWarnsWithLogAction() {
+        monitorProperties.setMaxOpenFiles(10);
+        ViteProcessMonitor monitor = monitor();
+
+        monitor.checkLimits(devServer, sample(START, 0, 11));
+        monitor.checkLimits(devServer, sample(START.plusSeconds(10), 0, 11));
+
+        assertThat(service.restarts).hasValue(0);
+    }
+
+    @Test
+    void restartsAgainOnceTheBackoffExpires() {
+        monitorProperties.setMaxOpenFiles(10);
+        monitorProperties.setLimitAction(ViteProperties.ProcessMonitor.LimitAction.RESTART);
+        ViteProcessMonitor monitor = monitor();
+
+        monitor.checkLimits(devServer, sample(START, 0, 11));
+        assertThat(service.restarts).hasValue(1);
+
+        // Still over the limit after the restart, within the backoff
+        monitor.checkLimits(devServer, sample(START.plus(Duration.ofMinutes(1)), 0, 11));
+        monitor.checkLimits(devServer, sample(START.plus(Duration.ofMinutes(2)), 0, 11));
+        assertThat(service.restarts).hasValue(1);
+
+        // The same excursion, once the backoff has expired
+        monitor.checkLimits(devServer, sample(START.plus(Duration.ofMinutes(6)), 0, 11));
+        assertThat(service.restarts).hasValue(2);
+    }
+
+    @Test
+    void waitsUntilTheServerIsReady() {
+        monitorProperties.setMaxOpenFiles(10);
+        monitorProperties.setLimitAction(ViteProperties.ProcessMonitor.LimitAction.RESTART);
+        ViteProcessMonitor monitor = monitor();
+        service.state = ViteDevServerService.State.STARTING;
+
+        monitor.checkLimits(devServer, sample(START, 0, 11));
+        assertThat(service.restarts).hasValue(0);
+
+        service.state = ViteDevServerService.State.READY;
+        monitor.checkLimits(devServer, sample(START.plusSeconds(10), 0, 11));
+        assertThat(service.restarts).hasValue(1);
+    }
+
+    @Test
+    void parsesLeadingNumber() {
+        assertThat(ViteProcessMonitor.parseLeadingNumber("VmRSS:\t   51234 kB", "VmRSS:".length())).isEqualTo(51234);
+        assertThat(ViteProcessMonitor.parseLeadingNumber("Threads:\t7", "Threads:".length())).isEqualTo(7);
+        assertThat(ViteProcessMonitor.parseLeadingNumber("Threads:\t0", "Threads:".length())).isZero();
+        assertThat(ViteProcessMonitor.parseLeadingNumber("VmRSS:", "VmRSS:".length())).isZero();
+    }
+
+    @Test
+    void countsEntriesOrReportsUnknown() throws IOException {
+        Path fd = Files.createDirectory(dir.resolve("fd"));
+        Files.createFile(fd.resolve("0"));
+        Files.createFile(fd.resolve("1"));
+
+        assertThat(ViteProcessMonitor.countEntries(fd)).isEqualTo(2);
+        // The process exited
+        assertThat(ViteProcessMonitor.countEntries(dir.resolve("gone"))).isZero();
+        // Not readable as a directory
+        assertThat(ViteProcessMonitor.countEntries(fd.resolve("0"))).isEqualTo(-1);
+    }
+
+    private ViteProcessMonitor monitor() {
+        // Samples only when the test asks for them
+        monitorProperties.setInterval(Duration.ofHours(1));
+        ViteFrontend frontend = ViteFrontend.resolveAll(properties).get(0);
+        service = new FakeService(properties, frontend);
+        devServer = new DevServer(frontend, service, null, null);
+        monitor = new ViteProcessMonitor(new ViteDevServers(List.of(devServer)), monitorProperties);
+        return monitor;
+    }
+
+    private static ViteProcessMonitor.Sample sample(Instant time, long rssBytes, int openFiles) {
+        return new ViteProcessMonitor.Sample(time, 2, rssBytes, Duration.ZERO, 10, openFiles);
+    }
+
+    private static final class FakeService extends ViteDevServerService {
+
+        private final AtomicInteger restarts = new AtomicInteger();
+        private volatile State state = State.READY;
+
+        FakeService(ViteProperties properties, ViteFrontend frontend) {
+            super(properties, frontend, new ViteLogBuffer(properties.getLog(), "Vite"));
+        }
+
+        @Override
+        public State getState() {
+            return state;
+        }
+
+        @Override
+        public boolean restartDevServer() {
+            restarts.incrementAndGet();
+            return true;
+        }
+    }
+}
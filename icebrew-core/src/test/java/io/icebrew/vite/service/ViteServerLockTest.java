@@ -0,0 +1,88 @@
+package io.icebrew.vite.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ViteServerLockTest {
+
+    @TempDir
+    Path frontendDir;
+
+    @Test
+    void findsLiveProcessAfterRoundTrip() throws IOException {
+        ProcessHandle current = ProcessHandle.current();
+        new ViteServerLock(current, "localhost", 5173).write(frontendDir);
+
+        ViteServerLock lock = ViteServerLock.read(frontendDir).orElseThrow();
+
+        assertThat(lock.getPid()).isEqualTo(current.pid());
+        assertThat(lock.isFor("localhost", 5173)).isTrue();
+        assertThat(lock.findProcess()).contains(current);
+    }
+
+    @Test
+    void rejectsReusedPid() {
+        ViteServerLock lock = lock(ProcessHandle.current().pid());
+        // Same pid, but a process that started at another time
+        lock.setStartedAt(ProcessHandle.current().info().startInstant().map(Instant::toEpochMilli)
+                .map(start -> start - 60_000).orElse(0L));
+
+        assertThat(lock.findProcess()).isEmpty();
+    }
+
+    @Test
+    void acceptsLockWithoutStartTime() {
+        ViteServerLock lock = lock(ProcessHandle.current().pid());
+
+        assertThat(lock.findProcess()).contains(ProcessHandle.current());
+    }
+
+    @Test
+    void rejectsExitedProcess() throws Exception {
+        String java = ProcessHandle.current().info().command().orElse("java");
+        Process process = new ProcessBuilder(java, "-version").redirectErrorStream(true).start();
+        process.getInputStream().transferTo(OutputStream.nullOutputStream());
+        process.waitFor();
+        ViteServerLock lock = lock(process.pid());
+
+        assertThat(lock.findProcess()).isEmpty();
+    }
+
+    @Test
+    void isOnlyForRecordedHostAndPort() {
+        ViteServerLock lock = lock(1);
+
+        assertThat(lock.isFor("localhost", 5174)).isFalse();
+        assertThat(lock.isFor("127.0.0.1", 5173)).isFalse();
+        lock.setHost(null);
+        assertThat(lock.isFor("localhost", 5173)).isFalse();
+    }
+
+    @Test
+    void ignoresMissingOrUnreadableLock() throws IOException {
+        assertThat(ViteServerLock.read(frontendDir)).isEmpty();
+
+        Path dir = Files.createDirectories(frontendDir.resolve(ViteServerLock.STATE_DIR));
+        Files.writeString(dir.resolve("dev-server.json"), "{ not json");
+        assertThat(ViteServerLock.read(frontendDir)).isEmpty();
+
+        ViteServerLock.delete(frontendDir);
+        assertThat(Files.exists(dir.resolve("dev-server.json"))).isFalse();
+    }
+
+    private static ViteServerLock lock(long pid) {
+        ViteServerLock lock = new ViteServerLock();
+        lock.setPid(pid);
+        lock.setHost("localhost");
+        lock.setPort(5173);
+        return lock;
+    }
+}
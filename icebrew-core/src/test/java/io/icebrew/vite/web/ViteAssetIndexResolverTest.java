@@ -0,0 +1,96 @@
+package io.icebrew.vite.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.resource.ResourceResolverChain;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.resource.IndexedAssetResource;
+import jakarta.servlet.http.HttpServletRequest;
+
+class ViteAssetIndexResolverTest {
+
+    private final List<Resource> locations = List.of(new ClassPathResource("META-INF/icebrew-test/dist/"));
+    private final CountingChain chain = new CountingChain();
+
+    @Test
+    void answersListedFilesFromTheIndex() throws IOException {
+        Resource resource = resolve("assets/app-B1a2c3.js");
+
+        assertThat(resource).isInstanceOf(IndexedAssetResource.class);
+        assertThat(resource.exists()).isTrue();
+        assertThat(resource.contentLength()).isEqualTo(20);
+        assertThat(((IndexedAssetResource) resource).getResponseHeaders().getFirst(HttpHeaders.CONTENT_TYPE))
+                .isEqualTo("application/javascript");
+        assertThat(resource.getContentAsString(StandardCharsets.UTF_8)).isEqualTo("console.log(\"app\");\n");
+        assertThat(chain.calls).hasValue(0);
+    }
+
+    @Test
+    void unlistedFilesAreNotFoundWithoutTheChain() {
+        assertThat(resolve("assets/missing.js")).isNull();
+        assertThat(resolve("asset-index.json")).isNull();
+        assertThat(chain.calls).hasValue(0);
+    }
+
+    @Test
+    void siblingsComeFromTheIndex() throws IOException {
+        Resource resource = resolve("assets/app-B1a2c3.js");
+
+        Resource gzip = resource.createRelative("app-B1a2c3.js.gz");
+        assertThat(gzip.exists()).isTrue();
+        assertThat(gzip.contentLength()).isEqualTo(40);
+        assertThat(resource.createRelative("app-B1a2c3.js.br").exists()).isFalse();
+    }
+
+    @Test
+    void fallsBackToTheChainWithoutAnIndex() {
+        ViteProperties.Assets assets = new ViteProperties.Assets();
+        assets.setSource(ViteProperties.Assets.Source.CLASSPATH);
+        assets.setContentEtags(false);
+        ViteAssetIndexResolver resolver = new ViteAssetIndexResolver(new ViteSite(frontend(), assets));
+
+        resolver.resolveResource(new MockHttpServletRequest(), "assets/app-B1a2c3.js", locations, chain);
+
+        assertThat(chain.calls).hasValue(1);
+    }
+
+    private Resource resolve(String path) {
+        ViteProperties.Assets assets = new ViteProperties.Assets();
+        assets.setSource(ViteProperties.Assets.Source.CLASSPATH);
+        ViteAssetIndexResolver resolver = new ViteAssetIndexResolver(new ViteSite(frontend(), assets));
+        return resolver.resolveResource(new MockHttpServletRequest(), path, locations, chain);
+    }
+
+    private static ViteFrontend frontend() {
+        return new ViteFrontend("default", "/", "localhost", 5173, "frontend", "dist", "META-INF/icebrew-test");
+    }
+
+    private static final class CountingChain implements ResourceResolverChain {
+
+        private final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public Resource resolveResource(HttpServletRequest request, String requestPath,
+                List<? extends Resource> locations) {
+            calls.incrementAndGet();
+            return null;
+        }
+
+        @Override
+        public String resolveUrlPath(String resourcePath, List<? extends Resource> locations) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package io.icebrew.vite.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.resource.ViteCachePolicy;
+
+class ViteCacheControlInterceptorTest {
+
+    @TempDir
+    Path frontendDir;
+
+    @Test
+    void looksUpPercentEncodedPathDecoded() throws IOException {
+        ViteCacheControlInterceptor interceptor = interceptor();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/ctx/app/assets/hello%20world-E1f2g3.png");
+        request.setContextPath("/ctx");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, new ResourceHttpRequestHandler())).isTrue();
+        assertThat(response.getHeader("Cache-Control")).isEqualTo(ViteCachePolicy.IMMUTABLE);
+    }
+
+    @Test
+    void leavesOtherHandlersAlone() throws IOException {
+        ViteCacheControlInterceptor interceptor = interceptor();
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/app/assets/hello%20world-E1f2g3.png");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, new Object())).isTrue();
+        assertThat(response.getHeader("Cache-Control")).isNull();
+    }
+
+    private ViteCacheControlInterceptor interceptor() throws IOException {
+        Path vite = Files.createDirectories(frontendDir.resolve("dist/.vite"));
+        Files.writeString(vite.resolve("manifest.json"), """
+                {
+                  "index.html": {
+                    "file": "assets/index-B1a2c3.js",
+                    "isEntry": true,
+                    "assets": ["assets/hello world-E1f2g3.png"]
+                  }
+                }
+                """);
+        ViteSite site = new ViteSite(new ViteFrontend("app", "/app/", "localhost", 5173, frontendDir.toString(),
+                "dist", "static"), new ViteProperties.Assets());
+        return new ViteCacheControlInterceptor(new ViteFrontendRouter<>(List.of(site), ViteSite::getFrontend));
+    }
+}
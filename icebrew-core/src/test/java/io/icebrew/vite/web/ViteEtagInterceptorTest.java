@@ -0,0 +1,43 @@
+package io.icebrew.vite.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.config.ViteProperties;
+
+class ViteEtagInterceptorTest {
+
+    @TempDir
+    Path frontendDir;
+
+    @Test
+    void answersPercentEncodedPathFromIndex() throws IOException {
+        Path dist = Files.createDirectories(frontendDir.resolve("dist"));
+        Files.writeString(dist.resolve("hello world.js"), "console.log(1)");
+        ViteSite site = new ViteSite(new ViteFrontend("default", "/", "localhost", 5173, frontendDir.toString(),
+                "dist", "static"), new ViteProperties.Assets());
+        String etag = site.getAssetIndex().get("/hello world.js").etag();
+        ViteEtagInterceptor interceptor = new ViteEtagInterceptor(
+                new ViteFrontendRouter<>(List.of(site), ViteSite::getFrontend), false);
+
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/hello%20world.js");
+        request.addHeader("If-None-Match", etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, new ResourceHttpRequestHandler())).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader("ETag")).isEqualTo(etag);
+    }
+}
@@ -0,0 +1,99 @@
+package io.icebrew.vite.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.config.ViteProperties;
+
+class ViteIndexHtmlHandlerMappingTest {
+
+    private final ViteRequestClassifier requestClassifier = new ViteRequestClassifier(List.of("/api/"));
+
+    @TempDir
+    Path frontendDir;
+
+    @BeforeEach
+    void build() throws IOException {
+        Path dist = Files.createDirectories(frontendDir.resolve("dist/assets"));
+        Files.writeString(frontendDir.resolve("dist/index.html"), "<html></html>");
+        Files.writeString(dist.resolve("app.js"), "console.log(1)");
+        // A file of the build output without an extension
+        Files.writeString(frontendDir.resolve("dist/LICENSE"), "MIT");
+    }
+
+    @Test
+    void mapsRootAndIndexHtml() {
+        ViteSite site = site("/");
+        ViteIndexHtmlHandlerMapping mapping = mapping(false, site);
+
+        assertThat(mapping.getHandlerInternal(get("/"))).isSameAs(site.getIndexHtmlHandler());
+        assertThat(mapping.getHandlerInternal(get("/index.html"))).isSameAs(site.getIndexHtmlHandler());
+        assertThat(mapping.getHandlerInternal(get("/users/42"))).isNull();
+    }
+
+    @Test
+    void fallsBackForClientRoutes() {
+        ViteSite site = site("/");
+        ViteIndexHtmlHandlerMapping mapping = mapping(true, site);
+
+        assertThat(mapping.getHandlerInternal(get("/users/42"))).isSameAs(site.getIndexHtmlHandler());
+        MockHttpServletRequest head = new MockHttpServletRequest("HEAD", "/users/42");
+        assertThat(mapping.getHandlerInternal(head)).isSameAs(site.getIndexHtmlHandler());
+    }
+
+    @Test
+    void leavesEverythingElseToOtherHandlers() {
+        ViteIndexHtmlHandlerMapping mapping = mapping(true, site("/"));
+
+        assertThat(mapping.getHandlerInternal(new MockHttpServletRequest("POST", "/users/42"))).isNull();
+        assertThat(mapping.getHandlerInternal(get("/api/users"))).isNull();
+        assertThat(mapping.getHandlerInternal(get("/assets/app.js"))).isNull();
+        assertThat(mapping.getHandlerInternal(get("/assets/missing.js"))).isNull();
+        assertThat(mapping.getHandlerInternal(get("/LICENSE"))).isNull();
+
+        MockHttpServletRequest upgrade = get("/ws");
+        upgrade.addHeader("Upgrade", "websocket");
+        upgrade.addHeader("Connection", "Upgrade");
+        assertThat(mapping.getHandlerInternal(upgrade)).isNull();
+    }
+
+    @Test
+    void fallsBackWithinFrontendPath() {
+        ViteSite admin = site("/admin/");
+        ViteIndexHtmlHandlerMapping mapping = mapping(true, admin);
+
+        assertThat(mapping.getHandlerInternal(get("/admin"))).isSameAs(admin.getIndexHtmlHandler());
+        assertThat(mapping.getHandlerInternal(get("/admin/settings"))).isSameAs(admin.getIndexHtmlHandler());
+        assertThat(mapping.getHandlerInternal(get("/admin/LICENSE"))).isNull();
+        assertThat(mapping.getHandlerInternal(get("/settings"))).isNull();
+    }
+
+    private ViteIndexHtmlHandlerMapping mapping(boolean spaFallback, ViteSite site) {
+        return new ViteIndexHtmlHandlerMapping(new ViteFrontendRouter<>(List.of(site), ViteSite::getFrontend),
+                spaFallback, requestClassifier);
+    }
+
+    private ViteSite site(String path) {
+        ViteProperties.Assets assets = new ViteProperties.Assets();
+        assets.setEarlyHints(false);
+        ViteSite site = new ViteSite(new ViteFrontend("default", path, "localhost", 5173, frontendDir.toString(),
+                "dist", "static"), assets);
+        site.load();
+        return site;
+    }
+
+    private static MockHttpServletRequest get(String path) {
+        return new MockHttpServletRequest("GET", path);
+    }
+}
@@ -0,0 +1,93 @@
+package io.icebrew.vite.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import io.icebrew.vite.resource.ViteIndexHtml;
+import io.icebrew.vite.resource.ViteManifest;
+
+class ViteIndexHtmlHandlerTest {
+
+    private static final String HTML = "<html><head><script type=\"module\" src=\"/assets/index-abc.js\"></script>"
+            + "</head><body></body></html>";
+    private static final String MANIFEST = "{\"index.html\":{\"file\":\"assets/index-abc.js\",\"isEntry\":true}}";
+
+    @Test
+    void sendsOnlyLinksWithEarlyHints() throws IOException {
+        ViteIndexHtmlHandler handler = handler();
+        EarlyHintsResponse response = new EarlyHintsResponse();
+
+        handler.handleRequest(new MockHttpServletRequest("GET", "/"), response);
+
+        assertThat(response.earlyHintHeaders).containsExactly(HttpHeaders.LINK);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.LINK)).isEqualTo("</assets/index-abc.js>; rel=modulepreload");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("no-cache");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(handler.getIndexHtml().getEtag());
+    }
+
+    @Test
+    void answersMatchingEntityTagInList() throws IOException {
+        ViteIndexHtmlHandler handler = handler();
+        String etag = handler.getIndexHtml().getEtag();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + etag);
+        EarlyHintsResponse response = new EarlyHintsResponse();
+
+        handler.handleRequest(request, response);
+
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.earlyHintHeaders).isNull();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+    }
+
+    @Test
+    void servesPageForOtherEntityTags() throws IOException {
+        ViteIndexHtmlHandler handler = handler();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"other\"");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "W/\"stale\"");
+        EarlyHintsResponse response = new EarlyHintsResponse();
+
+        handler.handleRequest(request, response);
+
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getContentAsString()).isNotEmpty();
+    }
+
+    private static ViteIndexHtmlHandler handler() throws IOException {
+        ViteManifest manifest = ViteManifest.read(
+                new ByteArrayInputStream(MANIFEST.getBytes(StandardCharsets.UTF_8)));
+        return new ViteIndexHtmlHandler(new ByteArrayResource(HTML.getBytes(StandardCharsets.UTF_8)),
+                html -> ViteIndexHtml.render(html, manifest, true), Duration.ZERO, "no-cache", true, true);
+    }
+
+    /**
+     * Records the headers a container would send with {@code 103 Early Hints}
+     * and keeps the response open, as Tomcat does
+     */
+    private static class EarlyHintsResponse extends MockHttpServletResponse {
+
+        private List<String> earlyHintHeaders;
+
+        @Override
+        public void sendError(int status) throws IOException {
+            if (status == 103) {
+                earlyHintHeaders = List.copyOf(getHeaderNames());
+                return;
+            }
+            super.sendError(status);
+        }
+    }
+}
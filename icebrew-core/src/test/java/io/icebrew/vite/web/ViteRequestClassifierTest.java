@@ -0,0 +1,50 @@
+package io.icebrew.vite.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import io.icebrew.vite.web.ViteRequestClassifier.RequestType;
+
+class ViteRequestClassifierTest {
+
+    private final ViteRequestClassifier classifier = new ViteRequestClassifier(List.of("/api/"));
+
+    @Test
+    void classifiesViteWebSocketsAsHmr() {
+        assertThat(classifier.classify(upgrade("/", "vite-hmr"))).isEqualTo(RequestType.HMR);
+        assertThat(classifier.classify(upgrade("/", "vite-ping"))).isEqualTo(RequestType.HMR);
+    }
+
+    @Test
+    void leavesApplicationWebSocketsToTheApplication() {
+        assertThat(classifier.classify(upgrade("/ws", null))).isEqualTo(RequestType.OTHER);
+        assertThat(classifier.classify(upgrade("/ws", "v12.stomp"))).isEqualTo(RequestType.OTHER);
+        assertThat(classifier.classify(upgrade("/api/events", "vite-hmr"))).isEqualTo(RequestType.API);
+    }
+
+    @Test
+    void classifiesPlainRequests() {
+        assertThat(classifier.classify(new MockHttpServletRequest("GET", "/assets/app.js")))
+                .isEqualTo(RequestType.ASSET);
+        assertThat(classifier.classify(new MockHttpServletRequest("GET", "/@vite/client")))
+                .isEqualTo(RequestType.ASSET);
+        assertThat(classifier.classify(new MockHttpServletRequest("GET", "/users/42")))
+                .isEqualTo(RequestType.SPA_ROUTE);
+        assertThat(classifier.classify(new MockHttpServletRequest("POST", "/users/42")))
+                .isEqualTo(RequestType.OTHER);
+    }
+
+    private static MockHttpServletRequest upgrade(String path, String protocol) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.addHeader("Upgrade", "websocket");
+        request.addHeader("Connection", "Upgrade");
+        if (protocol != null) {
+            request.addHeader("Sec-WebSocket-Protocol", protocol);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,72 @@
+package io.icebrew.vite.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteProperties;
+
+class ViteSiteTest {
+
+    @TempDir
+    Path frontendDir;
+
+    @Test
+    void reindexesRebuiltOutput() throws IOException, InterruptedException {
+        Path dist = Files.createDirectories(frontendDir.resolve("dist"));
+        write(dist.resolve("index.html"), "<html></html>", 1_000);
+        write(dist.resolve("favicon.svg"), "<svg/>", 1_000);
+        ViteSite site = site();
+        CountDownLatch reloaded = new CountDownLatch(1);
+        site.addReloadListener(reloaded::countDown);
+        site.load();
+        String etag = site.getAssetIndex().get("/favicon.svg").etag();
+
+        write(dist.resolve("favicon.svg"), "<svg></svg>", 2_000);
+        write(dist.resolve("index.html"), "<html><body></body></html>", 2_000);
+        site.getIndexHtmlHandler().getIndexHtml();
+
+        // Indexed in the background
+        assertThat(reloaded.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(site.getAssetIndex().get("/favicon.svg").etag()).isNotEqualTo(etag);
+    }
+
+    @Test
+    void keepsIndexWhileIndexHtmlIsUnchanged() throws IOException {
+        Path dist = Files.createDirectories(frontendDir.resolve("dist"));
+        write(dist.resolve("index.html"), "<html></html>", 1_000);
+        write(dist.resolve("favicon.svg"), "<svg/>", 1_000);
+        ViteSite site = site();
+        site.load();
+        String etag = site.getAssetIndex().get("/favicon.svg").etag();
+
+        write(dist.resolve("favicon.svg"), "<svg></svg>", 2_000);
+        site.getIndexHtmlHandler().getIndexHtml();
+
+        assertThat(site.getAssetIndex().get("/favicon.svg").etag()).isEqualTo(etag);
+    }
+
+    private ViteSite site() {
+        ViteProperties.Assets assets = new ViteProperties.Assets();
+        assets.setIndexHtmlCheckInterval(Duration.ofNanos(1));
+        assets.setEarlyHints(false);
+        ViteFrontend frontend = new ViteFrontend("default", "/", "localhost", 5173, frontendDir.toString(), "dist",
+                "static");
+        return new ViteSite(frontend, assets);
+    }
+
+    private static void write(Path file, String content, long lastModified) throws IOException {
+        Files.writeString(file, content);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(lastModified));
+    }
+}
@@ -0,0 +1,75 @@
+package io.icebrew.vite.web;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.resource.ResourceHttpRequestHandler;
+
+import io.icebrew.vite.config.ViteFrontend;
+import io.icebrew.vite.config.ViteFrontendRouter;
+import io.icebrew.vite.config.ViteProperties;
+import io.icebrew.vite.metrics.ViteMetrics;
+import io.icebrew.vite.metrics.ViteMetrics.StaticResult;
+
+class ViteStaticMetricsInterceptorTest {
+
+    private final List<String> recorded = new ArrayList<>();
+    private final ViteStaticMetricsInterceptor interceptor = new ViteStaticMetricsInterceptor(
+            new ViteFrontendRouter<>(List.of(site("default", "/"), site("admin", "/admin/")), ViteSite::getFrontend),
+            new RecordingMetrics());
+
+    @Test
+    void classifiesByStatus() {
+        complete("/assets/index-B1a2c3.js", 200);
+        complete("/admin/assets/admin-D4e5f6.css", 206);
+        complete("/assets/missing.js", 404);
+        complete("/admin/assets/admin-D4e5f6.css", 304);
+
+        assertThat(recorded).containsExactly(
+                "default /assets/index-B1a2c3.js HIT",
+                "admin /admin/assets/admin-D4e5f6.css HIT",
+                "default /assets/missing.js MISS",
+                "admin /admin/assets/admin-D4e5f6.css NOT_MODIFIED");
+    }
+
+    @Test
+    void ignoresOtherStatusesAndHandlers() {
+        complete("/assets/index-B1a2c3.js", 500);
+        complete("/assets/index-B1a2c3.js", 416);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.afterCompletion(new MockHttpServletRequest("GET", "/api/users"), response, new Object(), null);
+
+        assertThat(recorded).isEmpty();
+    }
+
+    private void complete(String path, int status) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        interceptor.afterCompletion(new MockHttpServletRequest("GET", path), response,
+                new ResourceHttpRequestHandler(), null);
+    }
+
+    private static ViteSite site(String name, String path) {
+        return new ViteSite(new ViteFrontend(name, path, "localhost", 5173, name, "dist", "static"),
+                new ViteProperties.Assets());
+    }
+
+    private class RecordingMetrics implements ViteMetrics {
+
+        @Override
+        public ProxyExchange startProxy(String frontend, String path) {
+            return ProxyExchange.NONE;
+        }
+
+        @Override
+        public void recordStatic(String frontend, String path, StaticResult result) {
+            recorded.add(frontend + " " + path + " " + result);
+        }
+    }
+}